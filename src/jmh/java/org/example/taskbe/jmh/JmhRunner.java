@@ -0,0 +1,41 @@
+package org.example.taskbe.jmh;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Runs the benchmarks once per thread count in {@code jmh.threads} with the GC profiler and
+ * writes one JSON result per thread count to {@code jmh.result.dir}. Other JMH command line
+ * options are passed through, e.g. {@code -p size=1000} or {@code -wi 1}.
+ */
+public final class JmhRunner {
+
+    private JmhRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        Path resultDirectory = Path.of(System.getProperty("jmh.result.dir", "target/jmh"));
+        Files.createDirectories(resultDirectory);
+
+        for (String threads : System.getProperty("jmh.threads", "1").split(",")) {
+            ChainedOptionsBuilder options = new OptionsBuilder()
+                    .parent(commandLine)
+                    .threads(Integer.parseInt(threads.trim()))
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(resultDirectory.resolve("jmh-threads-" + threads.trim() + ".json").toString());
+            if (commandLine.getIncludes().isEmpty()) {
+                options.include(JmhRunner.class.getPackageName() + ".*Benchmark");
+            }
+            new Runner(options.build()).run();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.example.taskbe.jmh;
+
+import org.example.taskbe.domain.dto.TaskDto;
+import org.example.taskbe.domain.entity.TaskEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copies between {@link TaskEntity} and {@link TaskDto}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskMappingBenchmark {
+    private final TaskEntity taskEntity = TaskRepositoryBenchmark.createTaskEntity(42);
+    private final TaskDto taskDto = TaskDto.toDto(taskEntity);
+
+    @Benchmark
+    public TaskDto toDto() {
+        return TaskDto.toDto(taskEntity);
+    }
+
+    @Benchmark
+    public TaskEntity toEntity() {
+        return TaskEntity.toEntity(taskDto);
+    }
+}
@@ -0,0 +1,139 @@
+package org.example.taskbe.jmh;
+
+import org.example.taskbe.domain.Priority;
+import org.example.taskbe.domain.Topic;
+import org.example.taskbe.domain.entity.TaskEntity;
+import org.example.taskbe.repository.TaskRepository;
+import org.example.taskbe.repository.store.ColumnarTaskStore;
+import org.example.taskbe.repository.store.HeapTaskStore;
+import org.example.taskbe.repository.store.PartitionedTaskStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository operations against a repository that already holds {@code size} tasks, per storage engine.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class TaskRepositoryBenchmark {
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    static TaskEntity createTaskEntity(int i) {
+        return new TaskEntity(null, Topic.values()[i % Topic.values().length], "Exercise " + i,
+                "Work through exercise " + i + " of the current chapter", NOW.plusHours(i % 10_000), i % 5 == 0,
+                NOW, Priority.values()[i % Priority.values().length], 0);
+    }
+
+    static TaskRepository populate(int size, String engine) {
+        TaskRepository taskRepository = new TaskRepository(switch (engine) {
+            case "heap" -> new HeapTaskStore();
+            case "columnar" -> new ColumnarTaskStore();
+            case "partitioned" -> new PartitionedTaskStore();
+            default -> throw new IllegalArgumentException("Unknown storage engine " + engine);
+        });
+        for (int i = 0; i < size; i++) {
+            taskRepository.create(createTaskEntity(i));
+        }
+        return taskRepository;
+    }
+
+    /**
+     * Filled once per trial for reads and deletes.
+     */
+    @State(Scope.Benchmark)
+    public static class Populated {
+        @Param({"1000", "100000", "1000000"})
+        int size;
+
+        @Param({"heap", "partitioned"})
+        String engine;
+
+        TaskRepository taskRepository;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            taskRepository = populate(size, engine);
+        }
+    }
+
+    /**
+     * Refilled every iteration so creates do not keep growing the repository.
+     */
+    @State(Scope.Benchmark)
+    public static class Refilled {
+        @Param({"1000", "100000", "1000000"})
+        int size;
+
+        @Param({"heap", "partitioned"})
+        String engine;
+
+        TaskRepository taskRepository;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            taskRepository = populate(size, engine);
+        }
+    }
+
+    /**
+     * A task created outside the measured section for {@link #delete} to remove.
+     */
+    @State(Scope.Thread)
+    public static class Victim {
+        int id;
+
+        @Setup(Level.Invocation)
+        public void setUp(Populated populated) {
+            id = populated.taskRepository.create(createTaskEntity(populated.size)).getId();
+        }
+    }
+
+    @Benchmark
+    public TaskEntity create(Refilled refilled) {
+        return refilled.taskRepository.create(createTaskEntity(ThreadLocalRandom.current().nextInt(refilled.size)));
+    }
+
+    @Benchmark
+    public Optional<TaskEntity> findById(Populated populated) {
+        return populated.taskRepository.findById(ThreadLocalRandom.current().nextInt(populated.size));
+    }
+
+    @Benchmark
+    public List<TaskEntity> findByTitle(Populated populated) {
+        int id = ThreadLocalRandom.current().nextInt(populated.size / 10, populated.size);
+        return populated.taskRepository.findByTitle("Exercise " + id);
+    }
+
+    /**
+     * "exercise" is in every task, so this scores the whole collection before the number narrows the top ten.
+     */
+    @Benchmark
+    public List<TaskEntity> search(Populated populated) {
+        int id = ThreadLocalRandom.current().nextInt(populated.size);
+        return populated.taskRepository.search("exercise " + id, 10);
+    }
+
+    @Benchmark
+    public void delete(Populated populated, Victim victim) {
+        populated.taskRepository.delete(victim.id);
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.taskbe.jmh;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.example.taskbe.api.v1.TaskJsonCache;
+import org.example.taskbe.api.v1.TaskJsonSerializer;
+import org.example.taskbe.domain.dto.TaskDto;
+import org.example.taskbe.domain.entity.TaskEntity;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes task lists the way the list endpoints do: through DTOs and Jackson, straight from
+ * the entities with {@link TaskJsonSerializer}, and from the warm JSON fragment cache. Compare
+ * {@code gc.alloc.rate.norm} for the bytes allocated per list.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskSerializationBenchmark {
+    @Param({"10", "1000"})
+    int listSize;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private List<TaskEntity> taskEntities;
+    private TaskJsonCache taskJsonCache;
+
+    @Setup
+    public void setUp() {
+        taskEntities = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            TaskEntity taskEntity = TaskRepositoryBenchmark.createTaskEntity(i);
+            taskEntity.setId(i);
+            taskEntity.setVersion(1);
+            taskEntities.add(taskEntity);
+        }
+        taskJsonCache = new TaskJsonCache(objectMapper, DataSize.ofMegabytes(64),
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+        taskJsonCache.getList(taskEntities);
+    }
+
+    @Benchmark
+    public byte[] jacksonDtoList() throws Exception {
+        List<TaskDto> taskDtos = new ArrayList<>(taskEntities.size());
+        for (TaskEntity taskEntity : taskEntities) {
+            taskDtos.add(TaskDto.toDto(taskEntity));
+        }
+        return objectMapper.writeValueAsBytes(taskDtos);
+    }
+
+    @Benchmark
+    public byte[] handWrittenList() throws Exception {
+        try (ByteArrayBuilder bytes = new ByteArrayBuilder()) {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(bytes)) {
+                generator.writeStartArray();
+                for (TaskEntity taskEntity : taskEntities) {
+                    TaskJsonSerializer.write(taskEntity, generator);
+                }
+                generator.writeEndArray();
+            }
+            return bytes.toByteArray();
+        }
+    }
+
+    @Benchmark
+    public byte[] cachedFragmentList() {
+        return taskJsonCache.getList(taskEntities);
+    }
+}
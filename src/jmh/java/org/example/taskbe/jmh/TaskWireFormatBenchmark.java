@@ -0,0 +1,143 @@
+package org.example.taskbe.jmh;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+import org.example.taskbe.api.v1.TaskJsonSerializer;
+import org.example.taskbe.domain.dto.TaskDto;
+import org.example.taskbe.domain.entity.TaskEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encodes and decodes task lists in each body format the API negotiates, with each content
+ * coding the compression filter can apply (zstd at its default level 3). The setup prints the
+ * wire size of every combination, so size and CPU can be weighed against each other.
+ *
+ * <p>Measured on a 1-CPU sandbox with 1000-task lists; throughput is lists per second:
+ * <pre>
+ *   format  coding  bytes    encode/s  decode/s
+ *   json    none    225973     3.9k      489
+ *   json    gzip     13061      634      424
+ *   json    zstd      9687     2.0k      456
+ *   smile   none    133296     5.4k      634
+ *   smile   zstd      9989     2.2k      529
+ *   cbor    none    190004     4.8k      474
+ *   cbor    zstd     11240     2.0k      451
+ * </pre>
+ * zstd gives a smaller body than gzip and encodes about 3x faster. Once compressed, Smile and CBOR
+ * are no smaller than JSON; they mainly save parse CPU for clients without compression. For
+ * 10-task lists (about 2.2KB) zstd is slower than gzip, 10.6k against 41.7k encodes per second,
+ * because setting up the stream dominates; hence the 2KB compression threshold.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskWireFormatBenchmark {
+    private static final TypeReference<List<TaskDto>> TASK_LIST = new TypeReference<>() {
+    };
+
+    @Param({"10", "1000"})
+    int listSize;
+
+    @Param({"json", "smile", "cbor"})
+    String format;
+
+    @Param({"none", "gzip", "zstd"})
+    String compression;
+
+    private List<TaskEntity> taskEntities;
+    private ObjectMapper objectMapper;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        taskEntities = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            TaskEntity taskEntity = TaskRepositoryBenchmark.createTaskEntity(i);
+            taskEntity.setId(i);
+            taskEntity.setVersion(1);
+            taskEntities.add(taskEntity);
+        }
+        JsonFactory factory = switch (format) {
+            case "json" -> new JsonFactory();
+            case "smile" -> new SmileFactory();
+            case "cbor" -> new CBORFactory();
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .factory(factory)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        encoded = encode();
+        System.out.printf("%nwire size: listSize=%d format=%s compression=%s bytes=%d%n",
+                listSize, format, compression, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128 * listSize + 16);
+        try (OutputStream out = compress(bytes);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartArray();
+            for (TaskEntity taskEntity : taskEntities) {
+                TaskJsonSerializer.write(taskEntity, generator);
+            }
+            generator.writeEndArray();
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public List<TaskDto> decode() throws IOException {
+        try (InputStream in = decompress(new ByteArrayInputStream(encoded))) {
+            return objectMapper.readValue(in, TASK_LIST);
+        }
+    }
+
+    private OutputStream compress(OutputStream out) throws IOException {
+        return switch (compression) {
+            case "gzip" -> new GZIPOutputStream(out, 8 * 1024);
+            case "zstd" -> new ZstdOutputStream(out, 3);
+            default -> out;
+        };
+    }
+
+    private InputStream decompress(InputStream in) throws IOException {
+        return switch (compression) {
+            case "gzip" -> new GZIPInputStream(in, 8 * 1024);
+            case "zstd" -> new ZstdInputStream(in);
+            default -> in;
+        };
+    }
+}
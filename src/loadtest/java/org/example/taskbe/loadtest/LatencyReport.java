@@ -0,0 +1,152 @@
+package org.example.taskbe.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.springframework.web.util.HtmlUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes {@code report.json} for tracking over time and {@code report.html} for reading.
+ */
+final class LatencyReport {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    private final LoadTestOptions options;
+    private final Instant startedAt;
+    private final Map<TaskOperation, LatencyStats> stats;
+    private final Histogram total = new Histogram(3);
+
+    LatencyReport(LoadTestOptions options, Instant startedAt, Map<TaskOperation, LatencyStats> stats) {
+        this.options = options;
+        this.startedAt = startedAt;
+        this.stats = stats;
+        stats.values().forEach(operationStats -> total.add(operationStats.histogram()));
+    }
+
+    void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(directory.resolve("report.json").toFile(), toMap());
+        Files.writeString(directory.resolve("report.html"), toHtml());
+    }
+
+    String summary() {
+        return String.format("%.0f requests/s, p50 %d us, p99 %d us, p99.9 %d us, max %d us, %d errors",
+                throughput(total), total.getValueAtPercentile(50), total.getValueAtPercentile(99),
+                total.getValueAtPercentile(99.9), total.getMaxValue(), errors(null));
+    }
+
+    private Map<String, Object> toMap() {
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("rate", options.rate());
+        config.put("clients", options.clients());
+        config.put("warmupSeconds", options.warmup().toSeconds());
+        config.put("durationSeconds", options.duration().toSeconds());
+        config.put("preload", options.preload());
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        options.mix().forEach((operation, weight) -> mix.put(operation.mixName(), weight));
+        config.put("mix", mix);
+
+        Map<String, Object> operations = new LinkedHashMap<>();
+        stats.forEach((operation, operationStats) -> operations.put(operation.mixName(), toMap(operationStats.histogram(), operation)));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", startedAt.toString());
+        report.put("config", config);
+        report.put("total", toMap(total, null));
+        report.put("operations", operations);
+        return report;
+    }
+
+    private Map<String, Object> toMap(Histogram histogram, TaskOperation operation) {
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("mean", Math.round(histogram.getMean()));
+        for (double percentile : PERCENTILES) {
+            latency.put("p" + formatPercentile(percentile).replace(".", ""), histogram.getValueAtPercentile(percentile));
+        }
+        latency.put("max", histogram.getMaxValue());
+
+        Map<String, Long> statusClasses = new LinkedHashMap<>();
+        for (int statusClass = 2; statusClass <= 5; statusClass++) {
+            statusClasses.put(statusClass + "xx", statusClass(operation, statusClass));
+        }
+        statusClasses.put("failed", statusClass(operation, 0));
+
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("requests", histogram.getTotalCount());
+        map.put("throughput", Math.round(throughput(histogram)));
+        map.put("status", statusClasses);
+        map.put("latencyMicros", latency);
+        return map;
+    }
+
+    private String toHtml() {
+        StringBuilder html = new StringBuilder("""
+                <!DOCTYPE html>
+                <html><head><meta charset="utf-8"><title>Task API load test</title>
+                <style>body{font-family:sans-serif}table{border-collapse:collapse}td,th{border:1px solid #ccc;padding:4px 8px;text-align:right}</style>
+                </head><body>
+                """);
+        html.append("<h1>Task API load test</h1><p>")
+                .append(HtmlUtils.htmlEscape(startedAt.toString())).append(": ")
+                .append(options.rate()).append(" requests/s from ").append(options.clients()).append(" clients for ")
+                .append(options.duration().toSeconds()).append(" s after ").append(options.warmup().toSeconds())
+                .append(" s of warmup, ").append(options.preload()).append(" preloaded tasks.</p>")
+                .append("<p>").append(HtmlUtils.htmlEscape(summary())).append("</p>");
+
+        html.append("<table><tr><th>Operation</th><th>Requests</th><th>Requests/s</th><th>Errors</th>");
+        for (double percentile : PERCENTILES) {
+            html.append("<th>p").append(formatPercentile(percentile)).append(" (us)</th>");
+        }
+        html.append("<th>max (us)</th></tr>");
+        appendRow(html, "all", total, null);
+        stats.forEach((operation, operationStats) -> appendRow(html, operation.mixName(), operationStats.histogram(), operation));
+        html.append("</table><h2>Latency distribution (us)</h2><pre>");
+
+        ByteArrayOutputStream distribution = new ByteArrayOutputStream();
+        total.outputPercentileDistribution(new PrintStream(distribution, true, StandardCharsets.UTF_8), 5, 1.0);
+        html.append(HtmlUtils.htmlEscape(distribution.toString(StandardCharsets.UTF_8))).append("</pre></body></html>\n");
+        return html.toString();
+    }
+
+    private void appendRow(StringBuilder html, String name, Histogram histogram, TaskOperation operation) {
+        html.append("<tr><th>").append(name).append("</th><td>").append(histogram.getTotalCount())
+                .append("</td><td>").append(Math.round(throughput(histogram)))
+                .append("</td><td>").append(errors(operation)).append("</td>");
+        for (double percentile : PERCENTILES) {
+            html.append("<td>").append(histogram.getValueAtPercentile(percentile)).append("</td>");
+        }
+        html.append("<td>").append(histogram.getMaxValue()).append("</td></tr>");
+    }
+
+    private double throughput(Histogram histogram) {
+        return histogram.getTotalCount() / (options.duration().toNanos() / 1e9);
+    }
+
+    /**
+     * Failed requests and 5xx responses of one operation, or of all operations if {@code operation} is null.
+     */
+    private long errors(TaskOperation operation) {
+        return statusClass(operation, 0) + statusClass(operation, 5);
+    }
+
+    private long statusClass(TaskOperation operation, int statusClass) {
+        if (operation != null) {
+            return stats.get(operation).statusClass(statusClass);
+        }
+        return stats.values().stream().mapToLong(operationStats -> operationStats.statusClass(statusClass)).sum();
+    }
+
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.taskbe.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and response status classes of one operation. Recording is wait-free, so clients
+ * never queue behind each other here.
+ */
+final class LatencyStats {
+    private final Recorder recorder = new Recorder(3);
+    private final LongAdder[] statusClasses = new LongAdder[6];
+    private Histogram histogram;
+
+    private LatencyStats() {
+        for (int i = 0; i < statusClasses.length; i++) {
+            statusClasses[i] = new LongAdder();
+        }
+    }
+
+    static Map<TaskOperation, LatencyStats> forEach(Collection<TaskOperation> operations) {
+        Map<TaskOperation, LatencyStats> stats = new EnumMap<>(TaskOperation.class);
+        operations.forEach(operation -> stats.put(operation, new LatencyStats()));
+        return stats;
+    }
+
+    /**
+     * @param status the HTTP status, or 0 if the request failed without a response
+     */
+    void record(long latencyNanos, int status) {
+        recorder.recordValue(latencyNanos / 1_000);
+        statusClasses[Math.min(status / 100, statusClasses.length - 1)].increment();
+    }
+
+    /**
+     * Latencies in microseconds recorded so far. Must not be called while clients are still recording.
+     */
+    Histogram histogram() {
+        if (histogram == null) {
+            histogram = recorder.getIntervalHistogram();
+        }
+        return histogram;
+    }
+
+    /**
+     * Responses per status class: index 0 counts failed requests, 2 counts 2xx and so on.
+     */
+    long statusClass(int statusClass) {
+        return statusClasses[statusClass].sum();
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.taskbe.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Load test settings, read from {@code loadtest.*} system properties.
+ *
+ * @param rate      requests per second across all clients, kept constant whatever the latency
+ * @param clients   virtual threads sending requests, each one at {@code rate / clients}
+ * @param mix       relative weight of each operation
+ */
+public record LoadTestOptions(int rate, int clients, Duration warmup, Duration duration, int preload,
+                              Map<TaskOperation, Integer> mix, Path reportDirectory) {
+
+    public static LoadTestOptions fromSystemProperties() {
+        return new LoadTestOptions(
+                Integer.getInteger("loadtest.rate", 1_000),
+                Integer.getInteger("loadtest.clients", 64),
+                DurationStyle.detectAndParse(System.getProperty("loadtest.warmup", "10s")),
+                DurationStyle.detectAndParse(System.getProperty("loadtest.duration", "30s")),
+                Integer.getInteger("loadtest.preload", 10_000),
+                TaskOperation.parseMix(System.getProperty("loadtest.mix", "get:50,list:10,title:10,filter:10,create:10,edit:5,delete:5")),
+                Path.of(System.getProperty("loadtest.report-dir", "target/loadtest")));
+    }
+}
@@ -0,0 +1,140 @@
+package org.example.taskbe.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskbe.TaskBeApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Starts {@link TaskBeApplication} on a random local port, drives it at a constant request rate
+ * and writes a latency report. Arguments are passed to the application, e.g.
+ * {@code --taskbe.storage.engine=columnar}.
+ *
+ * <p>Every client sends on a fixed schedule and latency is measured from when a request should
+ * have been sent, not from when it was. A stalled server therefore shows up as latency for every
+ * request it delayed instead of as a single slow sample (coordinated omission).
+ */
+@Slf4j
+public final class TaskLoadTest {
+    private static final int PRELOAD_BATCH_SIZE = 1_000;
+
+    private final LoadTestOptions options;
+    private final URI baseUri;
+    private final HttpClient httpClient;
+    private final TaskOperation.TaskIds ids;
+    private final TaskOperation[] schedule;
+
+    private TaskLoadTest(LoadTestOptions options, URI baseUri, HttpClient httpClient) {
+        this.options = options;
+        this.baseUri = baseUri;
+        this.httpClient = httpClient;
+        this.ids = new TaskOperation.TaskIds(options.preload());
+        List<TaskOperation> weighted = new ArrayList<>();
+        options.mix().forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(operation);
+            }
+        });
+        if (weighted.isEmpty()) {
+            throw new IllegalArgumentException("The operation mix is empty");
+        }
+        this.schedule = weighted.toArray(TaskOperation[]::new);
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.fromSystemProperties();
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TaskBeApplication.class)
+                .main(TaskBeApplication.class)
+                .properties("server.port=0", "server.address=127.0.0.1")
+                .run(args);
+             ExecutorService httpExecutor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(httpExecutor).build()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            TaskLoadTest loadTest = new TaskLoadTest(options, URI.create("http://127.0.0.1:" + port + "/api/v1/"), httpClient);
+            loadTest.preload();
+
+            log.info("Warming up for {} at {} requests/s", options.warmup(), options.rate());
+            loadTest.run(options.warmup().toNanos());
+            log.info("Measuring for {} at {} requests/s with {} clients", options.duration(), options.rate(), options.clients());
+            Instant startedAt = Instant.now();
+            Map<TaskOperation, LatencyStats> stats = loadTest.run(options.duration().toNanos());
+
+            LatencyReport report = new LatencyReport(options, startedAt, stats);
+            report.write(options.reportDirectory());
+            log.info("{}", report.summary());
+            log.info("Report written to {}", options.reportDirectory().toAbsolutePath());
+        }
+    }
+
+    private void preload() throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int start = 0; start < options.preload(); start += PRELOAD_BATCH_SIZE) {
+            StringBuilder body = new StringBuilder("[");
+            for (int n = start; n < Math.min(options.preload(), start + PRELOAD_BATCH_SIZE); n++) {
+                body.append(n == start ? "" : ",").append("{\"type\":\"CREATE\",\"task\":").append(TaskOperation.taskJson(n, random)).append('}');
+            }
+            HttpResponse<Void> response = httpClient.send(HttpRequest.newBuilder(baseUri.resolve("tasks/batch"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.append(']').toString()))
+                    .build(), HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Preloading tasks failed with status " + response.statusCode());
+            }
+        }
+    }
+
+    private Map<TaskOperation, LatencyStats> run(long durationNanos) throws InterruptedException {
+        Map<TaskOperation, LatencyStats> stats = LatencyStats.forEach(options.mix().keySet());
+        long intervalNanos = 1_000_000_000L * options.clients() / options.rate();
+        long start = System.nanoTime();
+        long end = start + durationNanos;
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int client = 0; client < options.clients(); client++) {
+                // Stagger the clients so their requests are spread evenly over each interval.
+                long first = start + intervalNanos * client / options.clients();
+                clients.execute(() -> runClient(first, intervalNanos, end, stats));
+            }
+        }
+        return stats;
+    }
+
+    private void runClient(long first, long intervalNanos, long end, Map<TaskOperation, LatencyStats> stats) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (long intended = first; intended < end; intended += intervalNanos) {
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            TaskOperation operation = schedule[random.nextInt(schedule.length)];
+            int status;
+            try {
+                status = httpClient.send(operation.request(baseUri, ids, random), HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException e) {
+                status = 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (operation == TaskOperation.CREATE && status == 201) {
+                ids.created();
+            }
+            stats.get(operation).record(System.nanoTime() - intended, status);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package org.example.taskbe.loadtest;
+
+import org.example.taskbe.domain.Priority;
+import org.example.taskbe.domain.Topic;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The requests a load test can send, named as they are in {@code loadtest.mix}.
+ */
+public enum TaskOperation {
+    GET("get") {
+        @Override
+        HttpRequest request(URI baseUri, TaskIds ids, ThreadLocalRandom random) {
+            return HttpRequest.newBuilder(baseUri.resolve("tasks/" + ids.random(random))).GET().build();
+        }
+    },
+    LIST("list") {
+        @Override
+        HttpRequest request(URI baseUri, TaskIds ids, ThreadLocalRandom random) {
+            return HttpRequest.newBuilder(baseUri.resolve("tasks?limit=100&sort=dueAt")).GET().build();
+        }
+    },
+    TITLE("title") {
+        @Override
+        HttpRequest request(URI baseUri, TaskIds ids, ThreadLocalRandom random) {
+            return HttpRequest.newBuilder(baseUri.resolve("tasks/title?title=Exercise%20" + ids.random(random))).GET().build();
+        }
+    },
+    FILTER("filter") {
+        @Override
+        HttpRequest request(URI baseUri, TaskIds ids, ThreadLocalRandom random) {
+            Topic topic = Topic.values()[random.nextInt(Topic.values().length)];
+            Priority priority = Priority.values()[random.nextInt(Priority.values().length)];
+            return HttpRequest.newBuilder(baseUri.resolve("tasks/filter?topic=" + topic + "&priority=" + priority + "&done=false"))
+                    .GET().build();
+        }
+    },
+    CREATE("create") {
+        @Override
+        HttpRequest request(URI baseUri, TaskIds ids, ThreadLocalRandom random) {
+            return HttpRequest.newBuilder(baseUri.resolve("tasks"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(taskJson(random.nextInt(), random)))
+                    .build();
+        }
+    },
+    EDIT("edit") {
+        @Override
+        HttpRequest request(URI baseUri, TaskIds ids, ThreadLocalRandom random) {
+            int id = ids.random(random);
+            return HttpRequest.newBuilder(baseUri.resolve("tasks/" + id))
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(taskJson(id, random)))
+                    .build();
+        }
+    },
+    DELETE("delete") {
+        @Override
+        HttpRequest request(URI baseUri, TaskIds ids, ThreadLocalRandom random) {
+            return HttpRequest.newBuilder(baseUri.resolve("tasks/" + ids.random(random))).DELETE().build();
+        }
+    };
+
+    private final String mixName;
+
+    TaskOperation(String mixName) {
+        this.mixName = mixName;
+    }
+
+    public String mixName() {
+        return mixName;
+    }
+
+    abstract HttpRequest request(URI baseUri, TaskIds ids, ThreadLocalRandom random);
+
+    static String taskJson(int n, ThreadLocalRandom random) {
+        return "{\"topic\":\"" + Topic.values()[Math.floorMod(n, Topic.values().length)] + "\""
+                + ",\"title\":\"Exercise " + n + "\""
+                + ",\"description\":\"Work through exercise " + n + " of the current chapter\""
+                + ",\"dueAt\":\"2030-01-" + String.format("%02d", 1 + random.nextInt(28)) + "T12:00:00\""
+                + ",\"done\":" + (n % 5 == 0)
+                + ",\"priority\":\"" + Priority.values()[Math.floorMod(n, Priority.values().length)] + "\"}";
+    }
+
+    /**
+     * Parses {@code name:weight} pairs such as {@code get:80,create:20}.
+     */
+    static Map<TaskOperation, Integer> parseMix(String mix) {
+        Map<TaskOperation, Integer> weights = new EnumMap<>(TaskOperation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Mix entries look like name:weight, got " + entry);
+            }
+            weights.put(fromMixName(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+
+    private static TaskOperation fromMixName(String mixName) {
+        for (TaskOperation operation : values()) {
+            if (operation.mixName.equals(mixName)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation " + mixName);
+    }
+
+    /**
+     * Hands out IDs that probably exist: the server numbers tasks from 0 in creation order.
+     */
+    static final class TaskIds {
+        private final AtomicInteger created;
+
+        TaskIds(int preloaded) {
+            created = new AtomicInteger(preloaded);
+        }
+
+        int random(ThreadLocalRandom random) {
+            return random.nextInt(Math.max(1, created.get()));
+        }
+
+        void created() {
+            created.incrementAndGet();
+        }
+    }
+}
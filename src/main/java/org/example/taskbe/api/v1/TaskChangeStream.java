@@ -0,0 +1,104 @@
+package org.example.taskbe.api.v1;
+
+import org.example.taskbe.domain.dto.TaskChangeEvent;
+import org.example.taskbe.service.TaskChangeFeed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Sends the change feed to each Server-Sent Events client from its own virtual thread, so a slow
+ * client only delays itself. Event IDs are {@code <instance>-<sequence>}: sequences start over
+ * with the process, so an ID of another feed instance cannot be resumed. A client that falls more
+ * than the feed's buffer behind, or reconnects with an ID that cannot be resumed, gets a
+ * {@value #RESYNC_EVENT} event carrying the current sequence and the stream ends; it should reload
+ * the tasks and reconnect.
+ */
+@Component
+public class TaskChangeStream {
+    public static final String RESYNC_EVENT = "resync";
+
+    private final TaskChangeFeed taskChangeFeed;
+    private final Duration heartbeatInterval;
+
+    public TaskChangeStream(TaskChangeFeed taskChangeFeed,
+                            @Value("${taskbe.changes.heartbeat-interval:15s}") Duration heartbeatInterval) {
+        this.taskChangeFeed = taskChangeFeed;
+        this.heartbeatInterval = heartbeatInterval;
+    }
+
+    /**
+     * Starts streaming the events after {@code lastEventId}, or only new events if it is null.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        // No timeout: heartbeats find clients that went away.
+        SseEmitter emitter = new SseEmitter(0L);
+        long head = taskChangeFeed.head();
+        long next = lastEventId == null ? head + 1 : parseSequence(lastEventId) + 1;
+        Thread sender = Thread.ofVirtual().name("task-changes").unstarted(() -> send(emitter, next, head));
+        emitter.onCompletion(sender::interrupt);
+        emitter.onTimeout(sender::interrupt);
+        emitter.onError(e -> sender.interrupt());
+        sender.start();
+        return emitter;
+    }
+
+    private void send(SseEmitter emitter, long next, long head) {
+        try {
+            // An ID ahead of the feed cannot have been issued by it.
+            if (next <= 0 || next > head + 1) {
+                resync(emitter);
+                return;
+            }
+            while (!Thread.currentThread().isInterrupted()) {
+                TaskChangeEvent event = taskChangeFeed.await(next, heartbeatInterval);
+                if (event == null) {
+                    if (!Thread.currentThread().isInterrupted()) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+                } else if (event.getSequence() != next) {
+                    resync(emitter);
+                    return;
+                } else {
+                    emitter.send(SseEmitter.event()
+                            .id(eventId(next))
+                            .name(event.getType().name())
+                            .data(event, MediaType.APPLICATION_JSON));
+                    next++;
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // The client went away or the stream was completed.
+        }
+    }
+
+    private void resync(SseEmitter emitter) throws IOException {
+        long head = taskChangeFeed.head();
+        // The ID lets a client that reconnects after reloading continue from here.
+        emitter.send(SseEmitter.event().id(eventId(head)).name(RESYNC_EVENT).data(head));
+        emitter.complete();
+    }
+
+    private String eventId(long sequence) {
+        return taskChangeFeed.getInstanceId() + "-" + sequence;
+    }
+
+    /**
+     * Returns the sequence of an event ID issued by this feed instance, or -1 if it was not.
+     */
+    private long parseSequence(String eventId) {
+        String prefix = taskChangeFeed.getInstanceId() + "-";
+        if (eventId.startsWith(prefix)) {
+            try {
+                return Long.parseUnsignedLong(eventId.substring(prefix.length()));
+            } catch (NumberFormatException e) {
+                // Not one of our IDs; it cannot be resumed.
+            }
+        }
+        return -1;
+    }
+}
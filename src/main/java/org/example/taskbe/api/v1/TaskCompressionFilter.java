@@ -0,0 +1,457 @@
+package org.example.taskbe.api.v1;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdOutputStream;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.Enumeration;
+
+/**
+ * Compresses responses with zstd when the client's Accept-Encoding prefers it, once the body
+ * reaches {@code taskbe.compression.min-response-size}. gzip is left to the container
+ * ({@code server.compression}), which this filter cannot improve on. Only that much is
+ * buffered: smaller bodies go out unchanged, bodies that already have a Content-Encoding pass
+ * through, and asynchronous responses (the event stream and the export, which gzips itself) are
+ * never compressed.
+ *
+ * <p>Every response varies by Accept-Encoding. A compressed body's ETag gets {@code +zstd} as a
+ * variant suffix, since it is not byte-identical to the plain one. The suffix is removed from
+ * If-None-Match and If-Match before the controller sees them and put back on the ETag of a 304,
+ * so the controller only ever deals with uncoded tags. The container never gzips a response with
+ * a strong ETag, so gzip needs no suffix.
+ */
+@Component
+public class TaskCompressionFilter extends OncePerRequestFilter {
+    private final boolean enabled;
+    private final int minResponseSize;
+    private final int zstdLevel;
+    private final boolean zstdAvailable;
+
+    public TaskCompressionFilter(@Value("${taskbe.compression.enabled:true}") boolean enabled,
+                                 @Value("${taskbe.compression.min-response-size:2KB}") DataSize minResponseSize,
+                                 @Value("${taskbe.compression.zstd-level:3}") int zstdLevel) {
+        this.enabled = enabled;
+        this.minResponseSize = (int) Math.max(1, minResponseSize.toBytes());
+        this.zstdLevel = zstdLevel;
+        this.zstdAvailable = loadZstd();
+    }
+
+    enum Encoding {
+        ZSTD("zstd"),
+        GZIP("gzip");
+
+        private final String token;
+
+        Encoding(String token) {
+            this.token = token;
+        }
+
+        /**
+         * Returns the encoding with the highest quality in {@code acceptEncoding}, zstd on a tie,
+         * or null if neither is acceptable.
+         */
+        static Encoding negotiate(String acceptEncoding, boolean zstdAvailable) {
+            if (acceptEncoding == null) {
+                return null;
+            }
+            double zstd = 0;
+            double gzip = 0;
+            double wildcard = -1;
+            boolean zstdListed = false;
+            boolean gzipListed = false;
+            for (String coding : acceptEncoding.split(",")) {
+                String[] parts = coding.split(";");
+                String name = parts[0].trim();
+                double quality = 1;
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].trim();
+                    if (parameter.startsWith("q=")) {
+                        try {
+                            quality = Double.parseDouble(parameter.substring(2));
+                        } catch (NumberFormatException e) {
+                            quality = 0;
+                        }
+                    }
+                }
+                if (name.equalsIgnoreCase(ZSTD.token)) {
+                    zstd = quality;
+                    zstdListed = true;
+                } else if (name.equalsIgnoreCase(GZIP.token)) {
+                    gzip = quality;
+                    gzipListed = true;
+                } else if (name.equals("*")) {
+                    wildcard = quality;
+                }
+            }
+            if (wildcard >= 0) {
+                zstd = zstdListed ? zstd : wildcard;
+                gzip = gzipListed ? gzip : wildcard;
+            }
+            if (zstdAvailable && zstd > 0 && zstd >= gzip) {
+                return ZSTD;
+            }
+            return gzip > 0 ? GZIP : null;
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (Encoding.negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING), zstdAvailable) != Encoding.ZSTD) {
+            // Coded tags stay as they are, so they cannot match and the client gets a full response.
+            filterChain.doFilter(request, response);
+            return;
+        }
+        CompressingResponse compressing = new CompressingResponse(response, request.getHeader(HttpHeaders.IF_NONE_MATCH));
+        filterChain.doFilter(new UncodedTagsRequest(request), compressing);
+        if (request.isAsyncStarted()) {
+            // The body is written later, possibly already from another thread; stop holding it back.
+            compressing.passThrough();
+        } else {
+            compressing.finish();
+        }
+    }
+
+    private OutputStream compress(OutputStream target) throws IOException {
+        // Closing the compressor writes its trailer; the servlet stream stays open for the container.
+        OutputStream unclosable = new FilterOutputStream(target) {
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                out.write(bytes, offset, length);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+        return new ZstdOutputStream(unclosable, zstdLevel);
+    }
+
+    /**
+     * Removes the zstd coding suffix from every tag in an If-None-Match or If-Match header.
+     */
+    static String withoutCoding(String header) {
+        return header == null ? null : header.replace("+" + Encoding.ZSTD.token + "\"", "\"");
+    }
+
+    private static boolean loadZstd() {
+        try {
+            return Zstd.defaultCompressionLevel() > 0;
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    private static final class UncodedTagsRequest extends HttpServletRequestWrapper {
+        UncodedTagsRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            String value = super.getHeader(name);
+            return isPrecondition(name) ? withoutCoding(value) : value;
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            if (!isPrecondition(name)) {
+                return super.getHeaders(name);
+            }
+            return Collections.enumeration(Collections.list(super.getHeaders(name)).stream()
+                    .map(TaskCompressionFilter::withoutCoding)
+                    .toList());
+        }
+
+        private static boolean isPrecondition(String name) {
+            return HttpHeaders.IF_NONE_MATCH.equalsIgnoreCase(name) || HttpHeaders.IF_MATCH.equalsIgnoreCase(name);
+        }
+    }
+
+    /**
+     * Holds the body until it is known whether to compress it: when it reaches the minimum size,
+     * when an event stream is flushed, or when the response ends.
+     */
+    private final class CompressingResponse extends HttpServletResponseWrapper {
+        private final String ifNoneMatch;
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.min(minResponseSize, 8 * 1024));
+        private OutputStream target;
+        private boolean compressed;
+        private boolean nonBlocking;
+        private long contentLength = -1;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        CompressingResponse(HttpServletResponse response, String ifNoneMatch) {
+            super(response);
+            this.ifNoneMatch = ifNoneMatch;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (outputStream == null) {
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        write(new byte[]{(byte) b}, 0, 1);
+                    }
+
+                    @Override
+                    public void write(byte[] bytes, int offset, int length) throws IOException {
+                        CompressingResponse.this.write(bytes, offset, length);
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        CompressingResponse.this.flush();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return CompressingResponse.this.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                        CompressingResponse.this.setWriteListener(writeListener);
+                    }
+                };
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), Charset.forName(getCharacterEncoding())));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setContentLength(int length) {
+            setContentLengthLong(length);
+        }
+
+        @Override
+        public synchronized void setContentLengthLong(long length) {
+            if (target == null) {
+                contentLength = length;
+            } else if (!compressed) {
+                super.setContentLengthLong(length);
+            }
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(Long.parseLong(value));
+            } else {
+                super.setHeader(name, notModifiedTag(name, value));
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(Long.parseLong(value));
+            } else {
+                super.addHeader(name, notModifiedTag(name, value));
+            }
+        }
+
+        /**
+         * A 304 confirms the tag the client sent, so a coding suffix removed from it is put back.
+         */
+        private String notModifiedTag(String name, String value) {
+            if (getStatus() != HttpServletResponse.SC_NOT_MODIFIED || !HttpHeaders.ETAG.equalsIgnoreCase(name)
+                    || ifNoneMatch == null || value == null) {
+                return value;
+            }
+            String coded = TaskETags.withVariant(value, Encoding.ZSTD.token);
+            return ifNoneMatch.contains(coded) ? coded : value;
+        }
+
+        @Override
+        public void sendError(int status, String message) throws IOException {
+            discard();
+            super.sendError(status, message);
+        }
+
+        @Override
+        public void sendError(int status) throws IOException {
+            discard();
+            super.sendError(status);
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            flush();
+            super.flushBuffer();
+        }
+
+        @Override
+        public synchronized void resetBuffer() {
+            if (target == null) {
+                buffer.reset();
+            }
+            super.resetBuffer();
+        }
+
+        @Override
+        public synchronized void reset() {
+            if (target == null) {
+                buffer.reset();
+                contentLength = -1;
+            }
+            super.reset();
+        }
+
+        private synchronized void write(byte[] bytes, int offset, int length) throws IOException {
+            if (target != null) {
+                target.write(bytes, offset, length);
+                return;
+            }
+            buffer.write(bytes, offset, length);
+            if (buffer.size() >= minResponseSize) {
+                decide(true);
+            }
+        }
+
+        /**
+         * Spring flushes after every message it writes, so only event streams commit on flush.
+         */
+        private synchronized void flush() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (target == null && isEventStream()) {
+                decide(false);
+            }
+            if (target != null) {
+                target.flush();
+            }
+        }
+
+        private synchronized void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (target == null) {
+                if (buffer.size() == 0) {
+                    if (contentLength >= 0) {
+                        super.setContentLengthLong(contentLength);
+                    }
+                    return;
+                }
+                contentLength = buffer.size();
+                decide(false);
+            }
+            if (compressed) {
+                target.close();
+            }
+        }
+
+        /**
+         * Hands non-blocking writes to the container's stream. They cannot go through the
+         * compressor, which may write more than once for each write the listener makes, so a
+         * body that is not compressed yet goes out uncompressed.
+         */
+        private synchronized void setWriteListener(WriteListener writeListener) {
+            try {
+                if (target == null) {
+                    decide(false);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (compressed) {
+                throw new IllegalStateException("Non-blocking writes cannot follow a compressed body");
+            }
+            nonBlocking = true;
+            getResponseOutputStream().setWriteListener(writeListener);
+        }
+
+        private synchronized boolean isReady() {
+            return !nonBlocking || getResponseOutputStream().isReady();
+        }
+
+        private ServletOutputStream getResponseOutputStream() {
+            try {
+                return getResponse().getOutputStream();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private synchronized void passThrough() throws IOException {
+            if (target == null) {
+                decide(false);
+            }
+        }
+
+        /**
+         * Drops the held body; an error page is rendered in its place.
+         */
+        private synchronized void discard() {
+            if (target == null) {
+                buffer = null;
+                target = OutputStream.nullOutputStream();
+            }
+        }
+
+        private void decide(boolean compress) throws IOException {
+            HttpServletResponse response = (HttpServletResponse) getResponse();
+            if (compress && response.getHeader(HttpHeaders.CONTENT_ENCODING) == null && !isEventStream()) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, Encoding.ZSTD.token);
+                String eTag = response.getHeader(HttpHeaders.ETAG);
+                if (eTag != null) {
+                    response.setHeader(HttpHeaders.ETAG, TaskETags.withVariant(eTag, Encoding.ZSTD.token));
+                }
+                target = compress(response.getOutputStream());
+                compressed = true;
+            } else {
+                if (contentLength >= 0) {
+                    response.setContentLengthLong(contentLength);
+                }
+                target = response.getOutputStream();
+            }
+            buffer.writeTo(target);
+            buffer = null;
+        }
+
+        private boolean isEventStream() {
+            String contentType = getContentType();
+            return contentType != null && contentType.startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+        }
+    }
+}
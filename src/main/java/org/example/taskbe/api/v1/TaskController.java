@@ -3,39 +3,131 @@ package org.example.taskbe.api.v1;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
-import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import org.example.taskbe.domain.Priority;
+import org.example.taskbe.domain.Topic;
+import org.example.taskbe.domain.dto.TaskBatchOperation;
+import org.example.taskbe.domain.dto.TaskBatchResult;
+import org.example.taskbe.domain.dto.TaskChangeEvent;
 import org.example.taskbe.domain.dto.TaskDto;
+import org.example.taskbe.domain.dto.TaskOverviewDto;
+import org.example.taskbe.domain.dto.TaskQueryDto;
+import org.example.taskbe.domain.dto.TaskQueryExplanationDto;
+import org.example.taskbe.domain.dto.TaskStatsDto;
 import org.example.taskbe.domain.entity.TaskEntity;
+import org.example.taskbe.repository.TaskQueryResult;
+import org.example.taskbe.repository.TaskSort;
+import org.example.taskbe.repository.VersionConflictException;
+import org.example.taskbe.repository.index.OrderedIndex;
 import org.example.taskbe.service.TaskService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.ArrayList;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
-@CrossOrigin("*")
+@CrossOrigin(origins = "*", exposedHeaders = {TaskController.NEXT_CURSOR_HEADER, HttpHeaders.ETAG})
 @RequestMapping("api/v1")
 public class TaskController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_BATCH_SIZE = 10_000;
 
     @Autowired
     TaskService taskService;
 
-    @Operation(summary = "Get all tasks", description = "Retrieve a list of all tasks")
+    @Autowired
+    TaskNdjsonWriter taskNdjsonWriter;
+
+    @Autowired
+    TaskJsonCache taskJsonCache;
+
+    @Autowired
+    TaskChangeStream taskChangeStream;
+
+    @Autowired
+    TaskFormats taskFormats;
+
+    @Autowired
+    HttpServletRequest request;
+
+    @Operation(summary = "Get all tasks", description = "Retrieve a list of all tasks. When a limit, cursor or sort key is given, "
+            + "one page is returned and the cursor of the next page is sent in the " + NEXT_CURSOR_HEADER + " header")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "A list of tasks",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskDto.class))
+            ),
+            @ApiResponse(responseCode = "304", description = "No task changed since the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Invalid sort key or cursor")
+    })
+    @GetMapping("tasks")
+    public ResponseEntity<byte[]> getAllTasks(@RequestParam(required = false) @Min(1) @Max(MAX_PAGE_SIZE) Integer limit,
+                                                     @RequestParam(required = false) String after,
+                                                     @RequestParam(required = false) String sort,
+                                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Read before the tasks, so the ETag can only be older than the data it is sent with.
+        long changeStamp = taskService.getChangeStamp();
+        String variant = taskFormats.variant(responseFormat());
+        String eTag = TaskETags.forChangeStamp(changeStamp, variant);
+        if (TaskETags.matchesChangeStamp(ifNoneMatch, changeStamp, variant)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        if (limit == null && after == null && sort == null) {
+            return taskList(ResponseEntity.ok().eTag(eTag), taskService.getAllTasks());
+        }
+
+        TaskSort taskSort = sort == null ? TaskSort.ID : TaskSort.fromParameter(sort);
+        TaskCursor cursor = after == null ? null : TaskCursor.decode(after, taskSort);
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+
+        List<TaskEntity> page = taskService.getTaskPage(
+                taskSort,
+                cursor == null ? null : new OrderedIndex.Entry(cursor.key(), cursor.id()),
+                pageSize + 1);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(eTag);
+        if (page.size() > pageSize) {
+            page = page.subList(0, pageSize);
+            response.header(NEXT_CURSOR_HEADER, TaskCursor.after(taskSort, page.get(pageSize - 1)).encode());
+        }
+        return taskList(response, page);
+    }
+
+    @Operation(summary = "Export all tasks", description = "Stream every task as newline-delimited JSON, gzip-compressed if the client accepts it")
     @ApiResponse(
             responseCode = "200",
-            description = "A list of tasks",
-            content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskDto.class))
+            description = "One task per line",
+            content = @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = TaskDto.class))
     )
-    @GetMapping("tasks")
-    public ResponseEntity<List<TaskDto>> getAllTasks() {
-        return ResponseEntity.ok(toTaskDtoList(taskService.getAllTasks()));
+    @GetMapping(value = "tasks/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTasks(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        // The writer only gzips, so zstd is left out of the negotiation.
+        boolean gzip = TaskCompressionFilter.Encoding.negotiate(acceptEncoding, false) == TaskCompressionFilter.Encoding.GZIP;
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(outputStream -> taskNdjsonWriter.write(taskService.streamAllTasks(), outputStream, gzip));
     }
 
     @Operation(summary = "Get task by ID", description = "Retrieve a task by its ID")
@@ -45,18 +137,28 @@ public class TaskController {
                     description = "The task details",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskDto.class))
             ),
+            @ApiResponse(responseCode = "304", description = "Task is still at the version in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Task not found")
     })
     @GetMapping("tasks/{id}")
-    public ResponseEntity<TaskDto> getTaskById(@PathVariable int id) {
-        Optional<TaskEntity> taskEntityOptional;
-        try {
-            taskEntityOptional = taskService.getById(id);
-        } catch (IndexOutOfBoundsException e) {
-            return ResponseEntity.notFound().build();
+    public ResponseEntity<byte[]> getTaskById(@PathVariable int id,
+                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        long version = taskService.getVersion(id);
+        if (version >= 0) {
+            long instanceId = taskService.getInstanceId();
+            MediaType format = responseFormat();
+            String variant = taskFormats.variant(format);
+            if (TaskETags.matchesVersion(ifNoneMatch, instanceId, version, variant)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(TaskETags.forVersion(instanceId, version, variant))
+                        .varyBy(HttpHeaders.ACCEPT).build();
+            }
+            byte[] cached = taskFormats.isJson(format) ? taskJsonCache.get(id, version) : null;
+            if (cached != null) {
+                return json(ResponseEntity.ok(), version, cached);
+            }
         }
-
-        return taskEntityOptional.map(taskEntity -> ResponseEntity.ok(TaskDto.toDto(taskEntity)))
+        return taskService.getById(id)
+                .map(taskEntity -> task(ResponseEntity.ok(), taskEntity))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
@@ -67,8 +169,140 @@ public class TaskController {
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskDto.class))
     )
     @GetMapping("tasks/title")
-    public ResponseEntity<List<TaskDto>> getTaskByTitle(@RequestParam String title) {
-        return ResponseEntity.ok(toTaskDtoList(taskService.getTaskByTitle(title)));
+    public ResponseEntity<byte[]> getTaskByTitle(@RequestParam String title) {
+        return taskList(ResponseEntity.ok(), taskService.getTaskByTitle(title));
+    }
+
+    @Operation(summary = "Search tasks", description = "Retrieve the tasks whose title and description best match the words "
+            + "of the query, case-insensitively, ranked by BM25. Title words weigh more than description words")
+    @ApiResponse(
+            responseCode = "200",
+            description = "A list of tasks, best match first",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskDto.class))
+    )
+    @GetMapping("tasks/search")
+    public ResponseEntity<byte[]> searchTasks(@RequestParam String q,
+                                              @RequestParam(defaultValue = "20") @Min(1) @Max(MAX_PAGE_SIZE) int limit) {
+        return taskList(ResponseEntity.ok(), taskService.searchTasks(q, limit));
+    }
+
+    @Operation(summary = "Filter tasks", description = "Retrieve tasks matching the given topic, priority and completion status")
+    @ApiResponse(
+            responseCode = "200",
+            description = "A list of tasks",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskDto.class))
+    )
+    @GetMapping("tasks/filter")
+    public ResponseEntity<byte[]> getFilteredTasks(@RequestParam(required = false) Topic topic,
+                                                          @RequestParam(required = false) Priority priority,
+                                                          @RequestParam(required = false) Boolean done) {
+        return taskList(ResponseEntity.ok(), taskService.getFilteredTasks(topic, priority, done));
+    }
+
+    @Operation(summary = "Get tasks due in a range", description = "Retrieve tasks due between two points in time, ordered by due date")
+    @ApiResponse(
+            responseCode = "200",
+            description = "A list of tasks",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskDto.class))
+    )
+    @GetMapping("tasks/due")
+    public ResponseEntity<byte[]> getTasksDueBetween(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return taskList(ResponseEntity.ok(), taskService.getTasksDueBetween(from, to));
+    }
+
+    @Operation(summary = "Get overdue tasks", description = "Retrieve open tasks whose due date has passed, ordered by due date")
+    @ApiResponse(
+            responseCode = "200",
+            description = "A list of tasks",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskDto.class))
+    )
+    @GetMapping("tasks/overdue")
+    public ResponseEntity<byte[]> getOverdueTasks() {
+        return taskList(ResponseEntity.ok(), taskService.getOverdueTasks());
+    }
+
+    @Operation(summary = "Get upcoming tasks", description = "Retrieve the next open tasks that are due, ordered by due date")
+    @ApiResponse(
+            responseCode = "200",
+            description = "A list of tasks",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskDto.class))
+    )
+    @GetMapping("tasks/upcoming")
+    public ResponseEntity<byte[]> getUpcomingTasks(@RequestParam(defaultValue = "10") @Min(1) int limit) {
+        return taskList(ResponseEntity.ok(), taskService.getUpcomingTasks(limit));
+    }
+
+    @Operation(summary = "Get the most urgent tasks", description = "Retrieve the k most urgent open tasks, ordered by priority, "
+            + "then due date, then ID. Tasks without a due date come last within their priority")
+    @ApiResponse(
+            responseCode = "200",
+            description = "A list of tasks",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskDto.class))
+    )
+    @GetMapping("tasks/urgent")
+    public ResponseEntity<byte[]> getUrgentTasks(@RequestParam(defaultValue = "20") @Min(1) @Max(MAX_PAGE_SIZE) int k) {
+        return taskList(ResponseEntity.ok(), taskService.getUrgentTasks(k));
+    }
+
+    @Operation(summary = "Stream task changes", description = "Server-Sent Events for every task create, update and delete. "
+            + "Reconnect with Last-Event-ID to resume; a " + TaskChangeStream.RESYNC_EVENT + " event means changes were missed "
+            + "and the tasks must be reloaded")
+    @ApiResponse(
+            responseCode = "200",
+            description = "A stream of task changes",
+            content = @Content(mediaType = "text/event-stream", schema = @Schema(implementation = TaskChangeEvent.class))
+    )
+    @GetMapping(value = "tasks/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return taskChangeStream.subscribe(lastEventId);
+    }
+
+    @Operation(summary = "Get task statistics", description = "Count tasks per topic, per priority, done, open and overdue")
+    @ApiResponse(
+            responseCode = "200",
+            description = "Task counts",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskStatsDto.class))
+    )
+    @GetMapping("tasks/stats")
+    public ResponseEntity<TaskStatsDto> getStatistics() {
+        return ResponseEntity.ok(taskService.getStatistics());
+    }
+
+    @Operation(summary = "Get a task overview", description = "Task statistics together with the overdue, upcoming and "
+            + "most urgent open tasks, at most limit of each. The four lookups run concurrently")
+    @ApiResponse(
+            responseCode = "200",
+            description = "Task counts and the tasks that need attention first",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskOverviewDto.class))
+    )
+    @GetMapping("tasks/overview")
+    public ResponseEntity<TaskOverviewDto> getOverview(@RequestParam(defaultValue = "10") @Min(1) @Max(MAX_PAGE_SIZE) int limit) {
+        CompletableFuture<TaskStatsDto> stats = taskService.getStatisticsAsync();
+        CompletableFuture<List<TaskEntity>> overdue = taskService.getOverdueTasksAsync();
+        CompletableFuture<List<TaskEntity>> upcoming = taskService.getUpcomingTasksAsync(limit);
+        CompletableFuture<List<TaskEntity>> urgent = taskService.getUrgentTasksAsync(limit);
+        return ResponseEntity.ok(new TaskOverviewDto(stats.join(), dtos(overdue.join(), limit), dtos(upcoming.join(), limit),
+                dtos(urgent.join(), limit)));
+    }
+
+    @Operation(summary = "Query tasks", description = "Retrieve tasks matching a predicate tree of and, or, not, equality, "
+            + "title and date range conditions, sorted and limited. The query is answered through the cheapest index; "
+            + "with explain set, the plan and the number of tasks examined are returned alongside the tasks")
+    @ApiResponse(
+            responseCode = "200",
+            description = "A list of tasks, or a TaskQueryExplanationDto if explain is set",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskDto.class))
+    )
+    @ApiResponse(responseCode = "400", description = "A predicate node does not set exactly one field, or the sort key is unknown")
+    @PostMapping("tasks/query")
+    public ResponseEntity<?> queryTasks(@Valid @RequestBody TaskQueryDto query) {
+        TaskQueryResult result = taskService.queryTasks(query);
+        if (!query.isExplain()) {
+            return taskList(ResponseEntity.ok(), result.tasks());
+        }
+        return ResponseEntity.ok(new TaskQueryExplanationDto(result.plan(), result.estimatedRows(), result.rowsExamined(),
+                result.tasks().size(), result.tasks().stream().map(TaskDto::toDto).toList()));
     }
 
     @Operation(summary = "Create a new task", description = "Create a new task with the provided details")
@@ -78,42 +312,105 @@ public class TaskController {
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskDto.class))
     )
     @PostMapping("tasks")
-    public ResponseEntity<TaskDto> createTask(@Valid @RequestBody TaskDto toSave) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(
-                TaskDto.toDto(
-                        taskService.saveTask(toSave)));
+    public ResponseEntity<byte[]> createTask(@Valid @RequestBody TaskDto toSave) {
+        TaskEntity created = taskService.saveTask(toSave);
+        return task(ResponseEntity.status(HttpStatus.CREATED), created);
     }
 
-    @Operation(summary = "Edit a task", description = "Edit an existing task by its ID")
+    @Operation(summary = "Apply a batch of operations", description = "Validate and apply a list of create, edit and delete operations in one request")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "One result per operation, in request order",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskBatchResult.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "Batch is empty or too large")
+    })
+    @PostMapping("tasks/batch")
+    public ResponseEntity<List<TaskBatchResult>> applyBatch(@RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE) List<TaskBatchOperation> operations) {
+        List<TaskBatchResult> results = taskService.applyBatch(operations);
+        for (TaskBatchOperation operation : operations) {
+            if (operation != null && operation.getId() != null) {
+                taskJsonCache.invalidate(operation.getId());
+            }
+        }
+        return ResponseEntity.ok(results);
+    }
+
+    @Operation(summary = "Edit a task", description = "Edit an existing task by its ID. With If-Match the edit only applies "
+            + "if the task is still at the version of the given ETag")
     @ApiResponses({
             @ApiResponse(
                     responseCode = "200",
                     description = "The updated task",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskDto.class))
             ),
-            @ApiResponse(responseCode = "404", description = "Task not found")
+            @ApiResponse(responseCode = "404", description = "Task not found"),
+            @ApiResponse(responseCode = "412", description = "Task was changed or deleted since the given ETag")
     })
     @PutMapping("tasks/{id}")
-    public ResponseEntity<TaskDto> editTask(@Valid @RequestBody TaskDto toEdit, @PathVariable int id) {
-        return ResponseEntity.ok(TaskDto.toDto(taskService.editTask(toEdit, id)));
+    public ResponseEntity<byte[]> editTask(@Valid @RequestBody TaskDto toEdit, @PathVariable int id,
+                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Optional<TaskEntity> edited = taskService.editTask(toEdit, id, TaskETags.parseIfMatch(ifMatch, taskService.getInstanceId()));
+        taskJsonCache.invalidate(id);
+        return edited
+                .map(taskEntity -> task(ResponseEntity.ok(), taskEntity))
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
-    @Operation(summary = "Delete a task", description = "Delete a task by its ID")
+    @Operation(summary = "Delete a task", description = "Delete a task by its ID. With If-Match the task is only deleted "
+            + "if it is still at the version of the given ETag")
     @ApiResponses({
             @ApiResponse(responseCode = "204", description = "Task deleted"),
-            @ApiResponse(responseCode = "404", description = "Task not found")
+            @ApiResponse(responseCode = "404", description = "Task not found"),
+            @ApiResponse(responseCode = "412", description = "Task was changed or deleted since the given ETag")
     })
     @DeleteMapping("tasks/{id}")
-    public ResponseEntity<?> deleteTask(@PathVariable int id) {
-        taskService.deleteTask(id);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<?> deleteTask(@PathVariable int id,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        boolean deleted = taskService.deleteTask(id, TaskETags.parseIfMatch(ifMatch, taskService.getInstanceId()));
+        taskJsonCache.invalidate(id);
+        return deleted ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgument(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    @ExceptionHandler(VersionConflictException.class)
+    public ResponseEntity<String> handleVersionConflict(VersionConflictException e) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage());
+    }
+
+    private static List<TaskDto> dtos(List<TaskEntity> taskEntities, int limit) {
+        return taskEntities.stream().limit(limit).map(TaskDto::toDto).toList();
+    }
+
+    /**
+     * Returns the format of task bodies the client asked for: JSON, Smile or CBOR.
+     */
+    private MediaType responseFormat() {
+        return taskFormats.select(request.getHeader(HttpHeaders.ACCEPT));
+    }
+
+    private ResponseEntity<byte[]> json(ResponseEntity.BodyBuilder response, long version, byte[] json) {
+        return response.eTag(TaskETags.forVersion(taskService.getInstanceId(), version)).varyBy(HttpHeaders.ACCEPT).contentType(MediaType.APPLICATION_JSON).body(json);
+    }
+
+    private ResponseEntity<byte[]> task(ResponseEntity.BodyBuilder response, TaskEntity taskEntity) {
+        MediaType format = responseFormat();
+        if (taskFormats.isJson(format)) {
+            return json(response, taskEntity.getVersion(), taskJsonCache.get(taskEntity));
+        }
+        return response.eTag(TaskETags.forVersion(taskService.getInstanceId(), taskEntity.getVersion(), taskFormats.variant(format)))
+                .varyBy(HttpHeaders.ACCEPT).contentType(format)
+                .body(taskFormats.write(format, taskEntity));
     }
 
-    private List<TaskDto> toTaskDtoList(List<TaskEntity> taskDtos) {
-        List<TaskDto> taskEntities = new ArrayList<>();
-        taskDtos.forEach(taskDto -> {
-            taskEntities.add(TaskDto.toDto(taskDto));
-        });
-        return taskEntities;
+    private ResponseEntity<byte[]> taskList(ResponseEntity.BodyBuilder response, List<TaskEntity> taskEntities) {
+        MediaType format = responseFormat();
+        byte[] body = taskFormats.isJson(format) ? taskJsonCache.getList(taskEntities) : taskFormats.writeList(format, taskEntities);
+        return response.varyBy(HttpHeaders.ACCEPT).contentType(format).body(body);
     }
 }
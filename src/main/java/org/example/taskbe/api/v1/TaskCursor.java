@@ -0,0 +1,36 @@
+package org.example.taskbe.api.v1;
+
+import org.example.taskbe.domain.entity.TaskEntity;
+import org.example.taskbe.repository.TaskSort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public record TaskCursor(TaskSort sort, long key, int id) {
+
+    public static TaskCursor after(TaskSort sort, TaskEntity taskEntity) {
+        return new TaskCursor(sort, sort.key(taskEntity), taskEntity.getId());
+    }
+
+    public static TaskCursor decode(String cursor, TaskSort expectedSort) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+        if (parts.length != 3 || !parts[0].equals(expectedSort.getParameter())) {
+            throw new IllegalArgumentException("Cursor does not match sort key " + expectedSort.getParameter());
+        }
+        try {
+            return new TaskCursor(expectedSort, Long.parseLong(parts[1]), Integer.parseInt(parts[2]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+
+    public String encode() {
+        String raw = sort.getParameter() + ":" + key + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
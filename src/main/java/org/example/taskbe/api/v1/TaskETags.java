@@ -0,0 +1,188 @@
+package org.example.taskbe.api.v1;
+
+import org.example.taskbe.repository.TaskRepository;
+import org.example.taskbe.repository.VersionConflictException;
+
+/**
+ * Strong ETags for tasks and task lists. A task's ETag is its version, prefixed with the
+ * repository instance ID because IDs and versions start over whenever the tasks are not
+ * persisted. A list's ETag is the repository change stamp, prefixed with an epoch of this
+ * process because the stamp restarts with the application.
+ *
+ * <p>A strong tag promises byte-identical bodies, so every representation other than plain JSON
+ * gets a variant suffix: {@code "<prefix>-<version>+smile"} for another format and a further
+ * {@code +zstd} for the zstd content coding, added by {@link TaskCompressionFilter}.
+ * Header matching parses in place so a 304 allocates nothing.
+ */
+public final class TaskETags {
+    private static final long EPOCH = System.currentTimeMillis();
+    private static final long NO_NUMBER = -1;
+    private static final char VERSION_SEPARATOR = '-';
+    private static final char CHANGE_STAMP_SEPARATOR = '.';
+    private static final char VARIANT_SEPARATOR = '+';
+
+    private static volatile CachedTag lastChangeStampTag = new CachedTag(-1, "");
+
+    private record CachedTag(long changeStamp, String value) {
+    }
+
+    private TaskETags() {
+    }
+
+    public static String forVersion(long instanceId, long version) {
+        return forVersion(instanceId, version, null);
+    }
+
+    /**
+     * Returns the tag of a task version in the representation named by {@code variant}, or in
+     * plain JSON if it is null.
+     */
+    public static String forVersion(long instanceId, long version, String variant) {
+        return withVariant("\"" + instanceId + VERSION_SEPARATOR + version + "\"", variant);
+    }
+
+    public static String forChangeStamp(long changeStamp) {
+        CachedTag cached = lastChangeStampTag;
+        if (cached.changeStamp() != changeStamp) {
+            cached = new CachedTag(changeStamp, "\"" + EPOCH + CHANGE_STAMP_SEPARATOR + changeStamp + "\"");
+            lastChangeStampTag = cached;
+        }
+        return cached.value();
+    }
+
+    public static String forChangeStamp(long changeStamp, String variant) {
+        return withVariant(forChangeStamp(changeStamp), variant);
+    }
+
+    /**
+     * Appends a variant to an entity tag, weak or strong; a null variant leaves it unchanged.
+     */
+    public static String withVariant(String eTag, String variant) {
+        if (variant == null || !eTag.endsWith("\"")) {
+            return eTag;
+        }
+        return eTag.substring(0, eTag.length() - 1) + VARIANT_SEPARATOR + variant + "\"";
+    }
+
+    /**
+     * Whether an If-None-Match header matches a task version, using weak comparison.
+     */
+    public static boolean matchesVersion(String ifNoneMatch, long instanceId, long version) {
+        return matchesVersion(ifNoneMatch, instanceId, version, null);
+    }
+
+    public static boolean matchesVersion(String ifNoneMatch, long instanceId, long version, String variant) {
+        return matches(ifNoneMatch, instanceId, VERSION_SEPARATOR, version, variant);
+    }
+
+    /**
+     * Whether an If-None-Match header matches a list change stamp, using weak comparison.
+     */
+    public static boolean matchesChangeStamp(String ifNoneMatch, long changeStamp) {
+        return matchesChangeStamp(ifNoneMatch, changeStamp, null);
+    }
+
+    public static boolean matchesChangeStamp(String ifNoneMatch, long changeStamp, String variant) {
+        return matches(ifNoneMatch, EPOCH, CHANGE_STAMP_SEPARATOR, changeStamp, variant);
+    }
+
+    /**
+     * Maps an If-Match header to the expected task version: null without the header and any
+     * version for {@code *}. If-Match uses strong comparison, so weak tags and tags of another
+     * instance are skipped; of a list, the first remaining tag is taken. The version identifies
+     * the task in every representation, so any variant suffix is accepted.
+     *
+     * @throws VersionConflictException if no tag in the header can match the task
+     */
+    public static Long parseIfMatch(String ifMatch, long instanceId) {
+        if (ifMatch == null) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.equals("*")) {
+            return TaskRepository.ANY_VERSION;
+        }
+        String prefix = "\"" + instanceId + VERSION_SEPARATOR;
+        for (String tag : value.split(",")) {
+            tag = tag.trim();
+            if (tag.length() > prefix.length() && tag.startsWith(prefix) && tag.charAt(tag.length() - 1) == '"') {
+                int end = tag.indexOf(VARIANT_SEPARATOR, prefix.length());
+                try {
+                    return Long.parseUnsignedLong(tag.substring(prefix.length(), end < 0 ? tag.length() - 1 : end));
+                } catch (NumberFormatException e) {
+                    // Not one of our tags; it cannot match.
+                }
+            }
+        }
+        throw new VersionConflictException("If-Match " + value + " does not match the current version");
+    }
+
+    /**
+     * Scans a comma-separated list of entity tags for {@code "<prefix><separator><value>"}, followed
+     * by {@code +<variant>} unless the variant is null.
+     */
+    private static boolean matches(String header, long prefix, char separator, long value, String variant) {
+        if (header == null) {
+            return false;
+        }
+        int length = header.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && (header.charAt(i) == ' ' || header.charAt(i) == ',')) {
+                i++;
+            }
+            if (i == length) {
+                return false;
+            }
+            if (header.charAt(i) == '*') {
+                return true;
+            }
+            if (header.startsWith("W/", i)) {
+                i += 2;
+            }
+            if (i < length && header.charAt(i) == '"') {
+                i++;
+                long first = NO_NUMBER;
+                long second = NO_NUMBER;
+                int start = i;
+                long number = 0;
+                while (i < length && header.charAt(i) != '"' && header.charAt(i) != VARIANT_SEPARATOR) {
+                    char c = header.charAt(i);
+                    if (c == separator && first == NO_NUMBER && i > start) {
+                        first = number;
+                        number = 0;
+                        start = i + 1;
+                    } else if (c >= '0' && c <= '9' && number <= (Long.MAX_VALUE - 9) / 10) {
+                        number = number * 10 + (c - '0');
+                    } else {
+                        number = NO_NUMBER;
+                        break;
+                    }
+                    i++;
+                }
+                if (number != NO_NUMBER && i > start && i < length && hasVariant(header, i, variant)) {
+                    second = number;
+                }
+                if (second == value && first == prefix) {
+                    return true;
+                }
+            }
+            while (i < length && header.charAt(i) != ',') {
+                i++;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether the rest of the tag at {@code i} is {@code +<variant>"}, or just {@code "} for a null variant.
+     */
+    private static boolean hasVariant(String header, int i, String variant) {
+        if (variant == null) {
+            return header.charAt(i) == '"';
+        }
+        int end = i + 1 + variant.length();
+        return header.charAt(i) == VARIANT_SEPARATOR && header.startsWith(variant, i + 1)
+                && end < header.length() && header.charAt(end) == '"';
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.taskbe.api.v1;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.example.taskbe.domain.entity.TaskEntity;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Picks the body format of task responses from the Accept header. JSON stays the default and is
+ * served from {@link TaskJsonCache}; Smile and CBOR are written from the entities by
+ * {@link TaskJsonSerializer} on the matching Jackson generator, so all three carry the same
+ * fields as {@code TaskDto}.
+ */
+@Component
+public class TaskFormats {
+    public static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    private static final List<MediaType> FORMATS = List.of(MediaType.APPLICATION_JSON, SMILE, MediaType.APPLICATION_CBOR);
+
+    private final JsonFactory smileFactory = new SmileFactory();
+    private final JsonFactory cborFactory = new CBORFactory();
+
+    /**
+     * Returns the format with the highest quality in {@code accept}. An exact media type beats a
+     * wildcard, then the earlier type wins, and JSON is returned if no format is acceptable.
+     *
+     * @throws org.springframework.http.InvalidMediaTypeException if the header cannot be parsed
+     */
+    public MediaType select(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+        MediaType best = MediaType.APPLICATION_JSON;
+        double bestQuality = 0;
+        int bestRank = Integer.MAX_VALUE;
+        for (MediaType format : FORMATS) {
+            MediaType match = null;
+            int matchRank = Integer.MAX_VALUE;
+            for (int i = 0; i < accepted.size(); i++) {
+                MediaType type = accepted.get(i);
+                int rank = type.isWildcardType() || type.isWildcardSubtype() ? accepted.size() + i : i;
+                if (type.includes(format) && rank < matchRank) {
+                    match = type;
+                    matchRank = rank;
+                }
+            }
+            if (match == null) {
+                continue;
+            }
+            double quality = match.getQualityValue();
+            if (quality > bestQuality || (quality == bestQuality && quality > 0 && matchRank < bestRank)) {
+                best = format;
+                bestQuality = quality;
+                bestRank = matchRank;
+            }
+        }
+        return best;
+    }
+
+    public boolean isJson(MediaType format) {
+        return MediaType.APPLICATION_JSON.equals(format);
+    }
+
+    /**
+     * Names the format in entity tags; null for JSON, which carries the plain tag.
+     */
+    public String variant(MediaType format) {
+        if (isJson(format)) {
+            return null;
+        }
+        return SMILE.equals(format) ? "smile" : "cbor";
+    }
+
+    public byte[] write(MediaType format, TaskEntity taskEntity) {
+        return write(format, List.of(taskEntity), false);
+    }
+
+    public byte[] writeList(MediaType format, List<TaskEntity> taskEntities) {
+        return write(format, taskEntities, true);
+    }
+
+    private byte[] write(MediaType format, List<TaskEntity> taskEntities, boolean array) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128 * taskEntities.size() + 16);
+        try (JsonGenerator generator = factory(format).createGenerator(bytes)) {
+            if (array) {
+                generator.writeStartArray();
+            }
+            for (TaskEntity taskEntity : taskEntities) {
+                TaskJsonSerializer.write(taskEntity, generator);
+            }
+            if (array) {
+                generator.writeEndArray();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private JsonFactory factory(MediaType format) {
+        if (SMILE.equals(format)) {
+            return smileFactory;
+        }
+        if (MediaType.APPLICATION_CBOR.equals(format)) {
+            return cborFactory;
+        }
+        throw new IllegalArgumentException("Not a binary task format: " + format);
+    }
+}
@@ -0,0 +1,117 @@
+package org.example.taskbe.api.v1;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.taskbe.domain.entity.TaskEntity;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+/**
+ * Size-bounded cache of the UTF-8 JSON of single tasks. Entries remember the task version they
+ * were rendered from, so a stale fragment is never served even if an invalidation is missed.
+ * Hit and miss counts are published as the {@code tasks.json} cache metrics.
+ */
+@Component
+public class TaskJsonCache {
+    private static final int ENTRY_OVERHEAD = 64;
+
+    private final JsonFactory jsonFactory;
+    private final ConcurrentStatsCounter stats = new ConcurrentStatsCounter();
+    private final Cache<Integer, Fragment> cache;
+
+    private record Fragment(long version, byte[] json) {
+    }
+
+    public TaskJsonCache(ObjectMapper objectMapper,
+                         @Value("${taskbe.json-cache.maximum-size:64MB}") DataSize maximumSize,
+                         ObjectProvider<MeterRegistry> meterRegistry) {
+        this.jsonFactory = objectMapper.getFactory();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumSize.toBytes())
+                .<Integer, Fragment>weigher((id, fragment) -> fragment.json().length + ENTRY_OVERHEAD)
+                .recordStats(() -> stats)
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, "tasks.json"));
+    }
+
+    /**
+     * Returns the cached JSON of a task if it was rendered from {@code version}, otherwise null.
+     */
+    public byte[] get(int id, long version) {
+        Fragment fragment = cache.asMap().get(id);
+        if (fragment != null && fragment.version() == version) {
+            stats.recordHits(1);
+            return fragment.json();
+        }
+        stats.recordMisses(1);
+        return null;
+    }
+
+    public byte[] get(TaskEntity taskEntity) {
+        byte[] json = get(taskEntity.getId(), taskEntity.getVersion());
+        if (json == null) {
+            json = render(taskEntity);
+            Fragment rendered = new Fragment(taskEntity.getVersion(), json);
+            cache.asMap().merge(taskEntity.getId(), rendered,
+                    (cached, fresh) -> cached.version() > fresh.version() ? cached : fresh);
+        }
+        return json;
+    }
+
+    /**
+     * Writes a JSON array of the given tasks from their cached fragments.
+     */
+    public byte[] getList(List<TaskEntity> taskEntities) {
+        byte[][] fragments = new byte[taskEntities.size()][];
+        int length = 2 + Math.max(0, fragments.length - 1);
+        for (int i = 0; i < fragments.length; i++) {
+            fragments[i] = get(taskEntities.get(i));
+            length += fragments[i].length;
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(length);
+        out.write('[');
+        for (int i = 0; i < fragments.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.writeBytes(fragments[i]);
+        }
+        out.write(']');
+        return out.toByteArray();
+    }
+
+    public void invalidate(int id) {
+        cache.invalidate(id);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Runs pending evictions now instead of on the cache's maintenance thread.
+     */
+    void cleanUp() {
+        cache.cleanUp();
+    }
+
+    private byte[] render(TaskEntity taskEntity) {
+        return TaskJsonSerializer.toBytes(jsonFactory, taskEntity);
+    }
+}
@@ -0,0 +1,137 @@
+package org.example.taskbe.api.v1;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import org.example.taskbe.domain.Priority;
+import org.example.taskbe.domain.Topic;
+import org.example.taskbe.domain.dto.TaskDto;
+import org.example.taskbe.domain.entity.TaskEntity;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+
+/**
+ * Writes a task straight from its entity in the JSON shape of {@link TaskDto}, without copying it
+ * into a DTO or going through bean introspection. Field names and enum values are pre-encoded
+ * and timestamps are formatted into one small buffer per task, in the ISO-8601 form Jackson produces.
+ */
+public final class TaskJsonSerializer {
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString TOPIC = new SerializedString("topic");
+    private static final SerializableString TITLE = new SerializedString("title");
+    private static final SerializableString DESCRIPTION = new SerializedString("description");
+    private static final SerializableString DUE_AT = new SerializedString("dueAt");
+    private static final SerializableString DONE = new SerializedString("done");
+    private static final SerializableString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializableString PRIORITY = new SerializedString("priority");
+    private static final SerializableString VERSION = new SerializedString("version");
+
+    private static final SerializableString[] TOPICS = names(Topic.values());
+    private static final SerializableString[] PRIORITIES = names(Priority.values());
+
+    /**
+     * Longest ISO local date-time with a four digit year: {@code yyyy-MM-ddTHH:mm:ss.SSSSSSSSS}.
+     */
+    private static final int MAX_DATE_TIME_LENGTH = 29;
+
+    private TaskJsonSerializer() {
+    }
+
+    public static void write(TaskEntity taskEntity, JsonGenerator generator) throws IOException {
+        char[] buffer = new char[MAX_DATE_TIME_LENGTH];
+        generator.writeStartObject();
+        generator.writeFieldName(ID);
+        if (taskEntity.getId() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(taskEntity.getId());
+        }
+        generator.writeFieldName(TOPIC);
+        writeEnum(generator, TOPICS, taskEntity.getTopic());
+        generator.writeFieldName(TITLE);
+        generator.writeString(taskEntity.getTitle());
+        generator.writeFieldName(DESCRIPTION);
+        generator.writeString(taskEntity.getDescription());
+        generator.writeFieldName(DUE_AT);
+        writeDateTime(generator, taskEntity.getDueAt(), buffer);
+        generator.writeFieldName(DONE);
+        generator.writeBoolean(taskEntity.isDone());
+        generator.writeFieldName(CREATED_AT);
+        writeDateTime(generator, taskEntity.getCreatedAt(), buffer);
+        generator.writeFieldName(PRIORITY);
+        writeEnum(generator, PRIORITIES, taskEntity.getPriority());
+        generator.writeFieldName(VERSION);
+        generator.writeNumber(taskEntity.getVersion());
+        generator.writeEndObject();
+    }
+
+    public static byte[] toBytes(JsonFactory jsonFactory, TaskEntity taskEntity) {
+        try (ByteArrayBuilder bytes = new ByteArrayBuilder()) {
+            try (JsonGenerator generator = jsonFactory.createGenerator(bytes)) {
+                write(taskEntity, generator);
+            }
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static SerializableString[] names(Enum<?>[] values) {
+        return Arrays.stream(values).map(value -> new SerializedString(value.name())).toArray(SerializableString[]::new);
+    }
+
+    private static void writeEnum(JsonGenerator generator, SerializableString[] names, Enum<?> value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(names[value.ordinal()]);
+        }
+    }
+
+    static void writeDateTime(JsonGenerator generator, LocalDateTime dateTime, char[] buffer) throws IOException {
+        if (dateTime == null) {
+            generator.writeNull();
+            return;
+        }
+        int year = dateTime.getYear();
+        if (year < 0 || year > 9999) {
+            // ISO-8601 needs a sign and more digits here; rare enough to leave to the JDK.
+            generator.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(dateTime));
+            return;
+        }
+        digits(buffer, 0, year, 4);
+        buffer[4] = '-';
+        digits(buffer, 5, dateTime.getMonthValue(), 2);
+        buffer[7] = '-';
+        digits(buffer, 8, dateTime.getDayOfMonth(), 2);
+        buffer[10] = 'T';
+        digits(buffer, 11, dateTime.getHour(), 2);
+        buffer[13] = ':';
+        digits(buffer, 14, dateTime.getMinute(), 2);
+        buffer[16] = ':';
+        digits(buffer, 17, dateTime.getSecond(), 2);
+        int length = 19;
+        if (dateTime.getNano() > 0) {
+            buffer[19] = '.';
+            digits(buffer, 20, dateTime.getNano(), 9);
+            length = MAX_DATE_TIME_LENGTH;
+            while (buffer[length - 1] == '0') {
+                length--;
+            }
+        }
+        generator.writeString(buffer, 0, length);
+    }
+
+    private static void digits(char[] buffer, int offset, int value, int count) {
+        for (int i = offset + count - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
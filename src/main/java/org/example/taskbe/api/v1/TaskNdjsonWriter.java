@@ -0,0 +1,54 @@
+package org.example.taskbe.api.v1;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.taskbe.domain.entity.TaskEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes tasks as newline-delimited JSON, one task at a time, so memory use does not depend on
+ * the number of tasks exported.
+ */
+@Component
+public class TaskNdjsonWriter {
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final ObjectMapper objectMapper;
+
+    public TaskNdjsonWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public long write(Stream<TaskEntity> tasks, OutputStream outputStream, boolean gzip) throws IOException {
+        GZIPOutputStream gzipStream = gzip ? new GZIPOutputStream(outputStream, GZIP_BUFFER_SIZE) : null;
+        long written = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(gzip ? gzipStream : outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(new SerializedString("\n"));
+
+            Iterator<TaskEntity> iterator = tasks.iterator();
+            while (iterator.hasNext()) {
+                TaskJsonSerializer.write(iterator.next(), generator);
+                written++;
+            }
+            if (written > 0) {
+                generator.writeRaw('\n');
+            }
+        } finally {
+            tasks.close();
+        }
+
+        if (gzipStream != null) {
+            gzipStream.finish();
+        }
+        outputStream.flush();
+        return written;
+    }
+}
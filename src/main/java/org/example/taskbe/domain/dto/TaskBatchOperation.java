@@ -0,0 +1,36 @@
+package org.example.taskbe.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A single create, edit or delete inside a batch request")
+public class TaskBatchOperation {
+
+    @Schema(description = "Kind of operation")
+    public enum Type {
+        CREATE,
+        EDIT,
+        DELETE
+    }
+
+    @NotNull
+    @Schema(description = "Kind of operation", example = "CREATE", required = true)
+    private Type type;
+
+    @Schema(description = "ID of the task to edit or delete", example = "1")
+    private Integer id;
+
+    @Schema(description = "Task details for create and edit operations")
+    private TaskDto task;
+
+    @Schema(description = "Expected current version for edit and delete operations; omit to skip the check", example = "3")
+    private Long version;
+}
@@ -0,0 +1,27 @@
+package org.example.taskbe.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Outcome of a single operation inside a batch request")
+public class TaskBatchResult {
+
+    @Schema(description = "Position of the operation in the batch request", example = "0")
+    private int index;
+
+    @Schema(description = "HTTP status the operation would have returned on its own", example = "201")
+    private int status;
+
+    @Schema(description = "The created or updated task")
+    private TaskDto task;
+
+    @Schema(description = "Why the operation was rejected", example = "task.title: must not be blank")
+    private String error;
+}
@@ -0,0 +1,34 @@
+package org.example.taskbe.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A create, update or delete of a task, as sent on the change feed")
+public class TaskChangeEvent {
+
+    @Schema(description = "Kind of change")
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    @Schema(description = "Position in the change feed; the event ID is the feed instance and this position", example = "42")
+    private long sequence;
+
+    @Schema(description = "Kind of change", example = "UPDATED")
+    private Type type;
+
+    @Schema(description = "ID of the changed task", example = "1")
+    private int id;
+
+    @Schema(description = "The task after the change; missing for deletes")
+    private TaskDto task;
+}
@@ -48,6 +48,9 @@ public class TaskDto {
     @Schema(description = "Priority level of the task", example = "MAJOR", required = true)
     private Priority priority;
 
+    @Schema(description = "Version of the task, incremented on every change", example = "3", accessMode = Schema.AccessMode.READ_ONLY)
+    private long version;
+
     public static TaskDto toDto(TaskEntity entity) {
         return new TaskDto(
                 entity.getId(),
@@ -57,7 +60,8 @@ public class TaskDto {
                 entity.getDueAt(),
                 entity.isDone(),
                 entity.getCreatedAt(),
-                entity.getPriority()
+                entity.getPriority(),
+                entity.getVersion()
         );
     }
 }
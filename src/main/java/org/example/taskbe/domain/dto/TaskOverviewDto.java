@@ -0,0 +1,29 @@
+package org.example.taskbe.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Task counts together with the tasks that need attention first")
+public class TaskOverviewDto {
+
+    @Schema(description = "Task counts")
+    private TaskStatsDto stats;
+
+    @Schema(description = "The open tasks whose due date has passed, most overdue first")
+    private List<TaskDto> overdue;
+
+    @Schema(description = "The next open tasks that are due")
+    private List<TaskDto> upcoming;
+
+    @Schema(description = "The most urgent open tasks")
+    private List<TaskDto> urgent;
+}
@@ -0,0 +1,50 @@
+package org.example.taskbe.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.example.taskbe.domain.Priority;
+import org.example.taskbe.domain.Topic;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A node of a query's predicate tree; exactly one field must be set")
+public class TaskPredicateDto {
+
+    @Valid
+    @Schema(description = "Matches tasks that match every child")
+    private List<TaskPredicateDto> and;
+
+    @Valid
+    @Schema(description = "Matches tasks that match any child")
+    private List<TaskPredicateDto> or;
+
+    @Valid
+    @Schema(description = "Matches tasks that do not match the child")
+    private TaskPredicateDto not;
+
+    @Schema(description = "Matches tasks with this topic", example = "MATHEMATICS")
+    private Topic topic;
+
+    @Schema(description = "Matches tasks with this priority", example = "CRITICAL")
+    private Priority priority;
+
+    @Schema(description = "Matches done or open tasks", example = "false")
+    private Boolean done;
+
+    @Schema(description = "Matches tasks whose title contains this text", example = "Algebra")
+    private String titleContains;
+
+    @Schema(description = "Matches tasks due within this range")
+    private TaskRangeDto dueAt;
+
+    @Schema(description = "Matches tasks created within this range")
+    private TaskRangeDto createdAt;
+}
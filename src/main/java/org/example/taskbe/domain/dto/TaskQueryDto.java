@@ -0,0 +1,33 @@
+package org.example.taskbe.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A query over tasks")
+public class TaskQueryDto {
+
+    @Valid
+    @Schema(description = "Predicate tree the tasks must match; all tasks match if omitted")
+    private TaskPredicateDto where;
+
+    @Schema(description = "Sort key: id, createdAt, dueAt or priority; ties are broken by ID", example = "dueAt")
+    private String sort;
+
+    @Min(1)
+    @Max(10_000)
+    @Schema(description = "Maximum number of tasks to return", example = "100")
+    private Integer limit;
+
+    @Schema(description = "Return the chosen plan and the number of tasks examined along with the tasks")
+    private boolean explain;
+}
@@ -0,0 +1,32 @@
+package org.example.taskbe.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Result of a query together with how it was executed")
+public class TaskQueryExplanationDto {
+
+    @Schema(description = "The chosen plan", example = "BitmapScan(topic=MATHEMATICS) -> Filter -> Sort(dueAt) -> Limit(100)")
+    private String plan;
+
+    @Schema(description = "Number of tasks the planner expected the access path to produce", example = "120")
+    private long estimatedRows;
+
+    @Schema(description = "Number of tasks that were looked at", example = "120")
+    private long rowsExamined;
+
+    @Schema(description = "Number of tasks returned", example = "100")
+    private int rowsReturned;
+
+    @Schema(description = "The matching tasks")
+    private List<TaskDto> tasks;
+}
@@ -0,0 +1,23 @@
+package org.example.taskbe.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "An inclusive range of points in time; a missing bound is open")
+public class TaskRangeDto {
+
+    @Schema(description = "Earliest matching point in time", example = "2024-12-01T00:00:00")
+    private LocalDateTime from;
+
+    @Schema(description = "Latest matching point in time", example = "2024-12-31T23:59:59")
+    private LocalDateTime to;
+}
@@ -0,0 +1,37 @@
+package org.example.taskbe.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.example.taskbe.domain.Priority;
+import org.example.taskbe.domain.Topic;
+
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Task counts for an overview")
+public class TaskStatsDto {
+
+    @Schema(description = "Number of tasks", example = "42")
+    private long total;
+
+    @Schema(description = "Number of tasks that are not done", example = "30")
+    private long open;
+
+    @Schema(description = "Number of tasks that are done", example = "12")
+    private long done;
+
+    @Schema(description = "Number of open tasks whose due date has passed", example = "3")
+    private long overdue;
+
+    @Schema(description = "Number of tasks per topic")
+    private Map<Topic, Long> byTopic;
+
+    @Schema(description = "Number of tasks per priority")
+    private Map<Priority, Long> byPriority;
+}
@@ -50,6 +50,9 @@ public class TaskEntity {
     @Schema(description = "Priority level of the task", example = "CRITICAL", required = true)
     private Priority priority;
 
+    @Schema(description = "Version of the task, incremented on every change", example = "3")
+    private long version;
+
     public static TaskEntity toEntity(TaskDto dto) {
         return new TaskEntity(
                 dto.getId(),
@@ -59,7 +62,8 @@ public class TaskEntity {
                 dto.getDueAt(),
                 dto.isDone(),
                 dto.getCreatedAt(),
-                dto.getPriority()
+                dto.getPriority(),
+                dto.getVersion()
         );
     }
 }
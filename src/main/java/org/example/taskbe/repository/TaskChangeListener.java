@@ -0,0 +1,31 @@
+package org.example.taskbe.repository;
+
+import org.example.taskbe.domain.entity.TaskEntity;
+
+/**
+ * Receives every change applied to {@link TaskRepository}, but not recovery. {@link #changed} and
+ * {@link #deleted} are called while the task's map entry is locked, so changes to one task arrive
+ * in the order they were applied. {@link #durable} follows on the same thread once the journal
+ * has made the thread's changes durable, or has failed to.
+ */
+public interface TaskChangeListener {
+    TaskChangeListener NONE = new TaskChangeListener() {
+        @Override
+        public void changed(TaskEntity taskEntity) {
+        }
+
+        @Override
+        public void deleted(int id) {
+        }
+
+        @Override
+        public void durable() {
+        }
+    };
+
+    void changed(TaskEntity taskEntity);
+
+    void deleted(int id);
+
+    void durable();
+}
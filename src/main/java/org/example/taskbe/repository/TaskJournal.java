@@ -0,0 +1,32 @@
+package org.example.taskbe.repository;
+
+import org.example.taskbe.domain.entity.TaskEntity;
+
+/**
+ * Receives every mutation applied to {@link TaskRepository}. Appends happen while the task's map
+ * entry is locked, so the journal sees writes to the same task in the order they were applied.
+ */
+public interface TaskJournal {
+    TaskJournal NONE = new TaskJournal() {
+        @Override
+        public void appendUpsert(TaskEntity taskEntity) {
+        }
+
+        @Override
+        public void appendDelete(int id) {
+        }
+
+        @Override
+        public void awaitDurable() {
+        }
+    };
+
+    void appendUpsert(TaskEntity taskEntity);
+
+    void appendDelete(int id);
+
+    /**
+     * Blocks until everything the calling thread has appended is as durable as the journal promises.
+     */
+    void awaitDurable();
+}
@@ -0,0 +1,36 @@
+package org.example.taskbe.repository;
+
+/**
+ * Receives counts from {@link TaskRepository}. Called on the request thread after the change is
+ * applied and outside of any lock, so implementations must be cheap and thread-safe.
+ */
+public interface TaskMetrics {
+    TaskMetrics NONE = new TaskMetrics() {
+        @Override
+        public void created() {
+        }
+
+        @Override
+        public void updated() {
+        }
+
+        @Override
+        public void deleted() {
+        }
+
+        @Override
+        public void titleSearched(int scanned) {
+        }
+    };
+
+    void created();
+
+    void updated();
+
+    void deleted();
+
+    /**
+     * Records how many tasks a title search had to look at, including candidates that did not match.
+     */
+    void titleSearched(int scanned);
+}
@@ -0,0 +1,430 @@
+package org.example.taskbe.repository;
+
+import org.example.taskbe.domain.Priority;
+import org.example.taskbe.domain.Topic;
+import org.example.taskbe.domain.dto.TaskPredicateDto;
+import org.example.taskbe.domain.dto.TaskRangeDto;
+import org.example.taskbe.domain.entity.TaskEntity;
+import org.example.taskbe.repository.index.OrderedIndex;
+import org.example.taskbe.repository.index.TaskBitmapIndex;
+import org.example.taskbe.repository.index.TrigramIndex;
+import org.example.taskbe.repository.store.TaskStore;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.StringJoiner;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Plans and runs predicate-tree queries. Every indexable part of the predicate offers an access
+ * path with an estimate of how many tasks it yields, the cheapest one drives the query, and the
+ * whole predicate is checked on each task it yields. When no part is indexable, or the matches
+ * are so common that walking the sort index finds {@code limit} of them sooner, the sort index is
+ * walked in order and the walk stops at the limit.
+ */
+final class TaskQueryPlanner {
+    private final TaskStore tasks;
+    private final TrigramIndex titleIndex;
+    private final TaskBitmapIndex bitmapIndex;
+    private final Map<TaskSort, OrderedIndex> sortIndexes;
+
+    TaskQueryPlanner(TaskStore tasks, TrigramIndex titleIndex, TaskBitmapIndex bitmapIndex, Map<TaskSort, OrderedIndex> sortIndexes) {
+        this.tasks = tasks;
+        this.titleIndex = titleIndex;
+        this.bitmapIndex = bitmapIndex;
+        this.sortIndexes = sortIndexes;
+    }
+
+    TaskQueryResult execute(TaskPredicateDto where, TaskSort sort, int limit) {
+        Predicate<TaskEntity> predicate = where == null ? null : compile(where);
+        long total = tasks.size();
+        Access access = new IndexScan(sort, sortIndexes.get(sort).all(), total);
+        // An ordered path with estimate e costs e against a scan of total * limit / e, so beyond
+        // sqrt(limit * total) nothing beats the scan and ranges need not be counted any further.
+        long countCap = (long) Math.sqrt((double) limit * total) + 2;
+        Access indexed = where == null ? null : plan(where, countCap);
+        if (indexed != null) {
+            // Unordered paths pay for a sort on top; an ordered walk expects a match every total / estimate tasks.
+            long indexedCost = indexed.order() == sort ? indexed.estimate() : 2 * indexed.estimate();
+            double selectivity = Math.max(indexed.estimate(), 1) / (double) Math.max(total, 1);
+            long scanCost = Math.min(total, (long) Math.ceil(limit / selectivity));
+            if (indexedCost <= scanCost) {
+                access = indexed;
+            }
+        }
+        return run(access, predicate, sort, limit);
+    }
+
+    private TaskQueryResult run(Access access, Predicate<TaskEntity> predicate, TaskSort sort, int limit) {
+        boolean ordered = access.order() == sort;
+        List<TaskEntity> rows = new ArrayList<>();
+        long[] examined = new long[1];
+        access.forEachId(id -> {
+            TaskEntity taskEntity = tasks.get(id);
+            examined[0]++;
+            if (taskEntity != null && (predicate == null || predicate.test(taskEntity))) {
+                rows.add(taskEntity);
+            }
+            return !ordered || rows.size() < limit;
+        });
+        if (!ordered) {
+            rows.sort(Comparator.<TaskEntity>comparingLong(sort::key).thenComparing(TaskEntity::getId));
+        }
+
+        StringBuilder plan = new StringBuilder(access.describe());
+        if (predicate != null) {
+            plan.append(" -> Filter");
+        }
+        if (!ordered) {
+            plan.append(" -> Sort(").append(sort.getParameter()).append(')');
+        }
+        plan.append(" -> Limit(").append(limit).append(')');
+        List<TaskEntity> limited = rows.size() > limit ? new ArrayList<>(rows.subList(0, limit)) : rows;
+        return new TaskQueryResult(plan.toString(), access.estimate(), examined[0], limited);
+    }
+
+    /**
+     * Returns the cheapest access path for {@code node}, or null if only a scan can answer it.
+     * Ranges are counted up to {@code countCap}, where a path can no longer win.
+     */
+    private Access plan(TaskPredicateDto node, long countCap) {
+        if (node.getAnd() != null) {
+            return planAnd(node.getAnd(), countCap);
+        }
+        if (node.getOr() != null) {
+            List<Access> children = new ArrayList<>();
+            for (TaskPredicateDto child : node.getOr()) {
+                Access access = plan(child, countCap);
+                if (access == null) {
+                    return null;
+                }
+                children.add(access);
+            }
+            return new Union(children);
+        }
+        if (node.getTopic() != null || node.getPriority() != null || node.getDone() != null) {
+            return bitmap(node.getTopic(), node.getPriority(), node.getDone());
+        }
+        if (node.getTitleContains() != null) {
+            List<Integer> candidates = titleIndex.candidates(node.getTitleContains());
+            return candidates == null ? null : new TitleScan(node.getTitleContains(), candidates);
+        }
+        if (node.getDueAt() != null || node.getCreatedAt() != null) {
+            RangeScan range = range(node);
+            range.count(countCap);
+            return range;
+        }
+        return null;
+    }
+
+    /**
+     * Combines the equality children into one bitmap lookup, then keeps whichever child path
+     * yields the fewest tasks. Ranges are counted last and only up to the best estimate so far.
+     */
+    private Access planAnd(List<TaskPredicateDto> children, long countCap) {
+        Topic topic = null;
+        Priority priority = null;
+        Boolean done = null;
+        boolean contradiction = false;
+        List<TaskPredicateDto> others = new ArrayList<>();
+        List<TaskPredicateDto> ranges = new ArrayList<>();
+        for (TaskPredicateDto child : children) {
+            if (child.getTopic() != null) {
+                contradiction |= topic != null && topic != child.getTopic();
+                topic = child.getTopic();
+            } else if (child.getPriority() != null) {
+                contradiction |= priority != null && priority != child.getPriority();
+                priority = child.getPriority();
+            } else if (child.getDone() != null) {
+                contradiction |= done != null && !done.equals(child.getDone());
+                done = child.getDone();
+            } else if (child.getDueAt() != null || child.getCreatedAt() != null) {
+                ranges.add(child);
+            } else {
+                others.add(child);
+            }
+        }
+        if (contradiction) {
+            return new Empty();
+        }
+
+        Access best = topic != null || priority != null || done != null ? bitmap(topic, priority, done) : null;
+        for (TaskPredicateDto child : others) {
+            Access access = plan(child, countCap);
+            if (access != null && (best == null || access.estimate() < best.estimate())) {
+                best = access;
+            }
+        }
+        for (TaskPredicateDto child : ranges) {
+            RangeScan range = range(child);
+            if (best == null || range.count(Math.min(best.estimate(), countCap)) < best.estimate()) {
+                if (best == null) {
+                    range.count(countCap);
+                }
+                best = range;
+            }
+        }
+        return best;
+    }
+
+    private Access bitmap(Topic topic, Priority priority, Boolean done) {
+        StringJoiner description = new StringJoiner(", ", "BitmapScan(", ")");
+        if (topic != null) {
+            description.add("topic=" + topic);
+        }
+        if (priority != null) {
+            description.add("priority=" + priority);
+        }
+        if (done != null) {
+            description.add("done=" + done);
+        }
+        BitSet ids = bitmapIndex.select(topic, priority, done);
+        return new BitmapScan(description.toString(), ids, ids.cardinality());
+    }
+
+    private RangeScan range(TaskPredicateDto node) {
+        TaskSort sort = node.getDueAt() != null ? TaskSort.DUE_AT : TaskSort.CREATED_AT;
+        TaskRangeDto range = node.getDueAt() != null ? node.getDueAt() : node.getCreatedAt();
+        return new RangeScan(sort, range, sortIndexes.get(sort).between(fromKey(range), toKey(range)));
+    }
+
+    private static Predicate<TaskEntity> compile(TaskPredicateDto node) {
+        if (node == null) {
+            throw new IllegalArgumentException("A predicate must not be null");
+        }
+        int fields = count(node.getAnd()) + count(node.getOr()) + count(node.getNot()) + count(node.getTopic())
+                + count(node.getPriority()) + count(node.getDone()) + count(node.getTitleContains())
+                + count(node.getDueAt()) + count(node.getCreatedAt());
+        if (fields != 1) {
+            throw new IllegalArgumentException("A predicate needs exactly one of and, or, not, topic, priority, done, "
+                    + "titleContains, dueAt and createdAt, got " + fields);
+        }
+
+        if (node.getAnd() != null || node.getOr() != null) {
+            List<TaskPredicateDto> children = node.getAnd() != null ? node.getAnd() : node.getOr();
+            if (children.isEmpty()) {
+                throw new IllegalArgumentException("and and or need at least one child");
+            }
+            List<Predicate<TaskEntity>> compiled = children.stream().map(TaskQueryPlanner::compile).toList();
+            return node.getAnd() != null
+                    ? taskEntity -> compiled.stream().allMatch(child -> child.test(taskEntity))
+                    : taskEntity -> compiled.stream().anyMatch(child -> child.test(taskEntity));
+        }
+        if (node.getNot() != null) {
+            return compile(node.getNot()).negate();
+        }
+        if (node.getTopic() != null) {
+            Topic topic = node.getTopic();
+            return taskEntity -> taskEntity.getTopic() == topic;
+        }
+        if (node.getPriority() != null) {
+            Priority priority = node.getPriority();
+            return taskEntity -> taskEntity.getPriority() == priority;
+        }
+        if (node.getDone() != null) {
+            boolean done = node.getDone();
+            return taskEntity -> taskEntity.isDone() == done;
+        }
+        if (node.getTitleContains() != null) {
+            String text = node.getTitleContains();
+            return taskEntity -> taskEntity.getTitle() != null && taskEntity.getTitle().contains(text);
+        }
+        TaskSort sort = node.getDueAt() != null ? TaskSort.DUE_AT : TaskSort.CREATED_AT;
+        TaskRangeDto range = node.getDueAt() != null ? node.getDueAt() : node.getCreatedAt();
+        long from = fromKey(range);
+        long to = toKey(range);
+        return taskEntity -> {
+            long key = sort.key(taskEntity);
+            return from <= key && key <= to;
+        };
+    }
+
+    private static int count(Object field) {
+        return field == null ? 0 : 1;
+    }
+
+    private static long fromKey(TaskRangeDto range) {
+        return range.getFrom() == null ? Long.MIN_VALUE : OrderedIndex.key(range.getFrom());
+    }
+
+    private static long toKey(TaskRangeDto range) {
+        return range.getTo() == null ? OrderedIndex.MISSING - 1 : OrderedIndex.key(range.getTo());
+    }
+
+    private interface Access {
+        long estimate();
+
+        /**
+         * Returns the order IDs are produced in, or null if there is none.
+         */
+        TaskSort order();
+
+        String describe();
+
+        /**
+         * Passes candidate IDs to {@code action} until it returns false.
+         */
+        void forEachId(IntPredicate action);
+    }
+
+    private record BitmapScan(String describe, BitSet ids, long estimate) implements Access {
+        @Override
+        public TaskSort order() {
+            return TaskSort.ID;
+        }
+
+        @Override
+        public void forEachId(IntPredicate action) {
+            for (int id = ids.nextSetBit(0); id >= 0 && action.test(id); id = ids.nextSetBit(id + 1)) {
+            }
+        }
+    }
+
+    private record TitleScan(String text, List<Integer> ids) implements Access {
+        @Override
+        public long estimate() {
+            return ids.size();
+        }
+
+        @Override
+        public TaskSort order() {
+            return null;
+        }
+
+        @Override
+        public String describe() {
+            return "TrigramScan(title contains \"" + text + "\")";
+        }
+
+        @Override
+        public void forEachId(IntPredicate action) {
+            for (int i = 0; i < ids.size() && action.test(ids.get(i)); i++) {
+            }
+        }
+    }
+
+    private static final class RangeScan implements Access {
+        private final TaskSort sort;
+        private final TaskRangeDto range;
+        private final NavigableSet<OrderedIndex.Entry> entries;
+        private long estimate;
+
+        RangeScan(TaskSort sort, TaskRangeDto range, NavigableSet<OrderedIndex.Entry> entries) {
+            this.sort = sort;
+            this.range = range;
+            this.entries = entries;
+        }
+
+        /**
+         * Counts the entries in range, but stops at {@code cap} since the count only has to beat it.
+         */
+        long count(long cap) {
+            long counted = 0;
+            for (var iterator = entries.iterator(); counted < cap && iterator.hasNext(); iterator.next()) {
+                counted++;
+            }
+            estimate = counted;
+            return counted;
+        }
+
+        @Override
+        public long estimate() {
+            return estimate;
+        }
+
+        @Override
+        public TaskSort order() {
+            return sort;
+        }
+
+        @Override
+        public String describe() {
+            return "RangeScan(" + sort.getParameter() + " from " + range.getFrom() + " to " + range.getTo() + ")";
+        }
+
+        @Override
+        public void forEachId(IntPredicate action) {
+            for (OrderedIndex.Entry entry : entries) {
+                if (!action.test(entry.id())) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private record Union(List<Access> children) implements Access {
+        @Override
+        public long estimate() {
+            return children.stream().mapToLong(Access::estimate).sum();
+        }
+
+        @Override
+        public TaskSort order() {
+            return TaskSort.ID;
+        }
+
+        @Override
+        public String describe() {
+            StringJoiner description = new StringJoiner(", ", "Union(", ")");
+            children.forEach(child -> description.add(child.describe()));
+            return description.toString();
+        }
+
+        @Override
+        public void forEachId(IntPredicate action) {
+            BitSet ids = new BitSet();
+            children.forEach(child -> child.forEachId(id -> {
+                ids.set(id);
+                return true;
+            }));
+            new BitmapScan(describe(), ids, ids.cardinality()).forEachId(action);
+        }
+    }
+
+    private record Empty() implements Access {
+        @Override
+        public long estimate() {
+            return 0;
+        }
+
+        @Override
+        public TaskSort order() {
+            return TaskSort.ID;
+        }
+
+        @Override
+        public String describe() {
+            return "Empty(contradicting equalities)";
+        }
+
+        @Override
+        public void forEachId(IntPredicate action) {
+        }
+    }
+
+    private record IndexScan(TaskSort sort, NavigableSet<OrderedIndex.Entry> entries, long estimate) implements Access {
+        @Override
+        public TaskSort order() {
+            return sort;
+        }
+
+        @Override
+        public String describe() {
+            return "IndexScan(" + sort.getParameter() + ")";
+        }
+
+        @Override
+        public void forEachId(IntPredicate action) {
+            for (OrderedIndex.Entry entry : entries) {
+                if (!action.test(entry.id())) {
+                    return;
+                }
+            }
+        }
+    }
+}
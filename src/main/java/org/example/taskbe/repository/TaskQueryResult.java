@@ -0,0 +1,15 @@
+package org.example.taskbe.repository;
+
+import org.example.taskbe.domain.entity.TaskEntity;
+
+import java.util.List;
+
+/**
+ * Tasks found by {@link TaskRepository#query} and how they were found.
+ *
+ * @param plan          the chosen plan, e.g. {@code BitmapScan(topic=MATHEMATICS) -> Filter -> Limit(10)}
+ * @param estimatedRows tasks the planner expected the access path to produce
+ * @param rowsExamined  tasks that were looked up and checked against the predicate
+ */
+public record TaskQueryResult(String plan, long estimatedRows, long rowsExamined, List<TaskEntity> tasks) {
+}
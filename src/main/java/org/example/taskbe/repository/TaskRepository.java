@@ -1,52 +1,458 @@
 package org.example.taskbe.repository;
 
-import lombok.AllArgsConstructor;
-import lombok.Getter;
-import lombok.NoArgsConstructor;
-import lombok.Setter;
+import org.example.taskbe.domain.Priority;
+import org.example.taskbe.domain.Topic;
+import org.example.taskbe.domain.dto.TaskPredicateDto;
+import org.example.taskbe.domain.dto.TaskStatsDto;
 import org.example.taskbe.domain.entity.TaskEntity;
+import org.example.taskbe.repository.index.OrderedIndex;
+import org.example.taskbe.repository.index.OverdueCounter;
+import org.example.taskbe.repository.index.TaskBitmapIndex;
+import org.example.taskbe.repository.index.TaskCounters;
+import org.example.taskbe.repository.index.TextIndex;
+import org.example.taskbe.repository.index.TrigramIndex;
+import org.example.taskbe.repository.store.HeapTaskStore;
+import org.example.taskbe.repository.store.TaskStore;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
-@Getter
-@Setter
-@NoArgsConstructor
-@AllArgsConstructor
 @Repository
 public class TaskRepository {
-    private List<TaskEntity> tasks = new ArrayList<>();
+    /**
+     * Expected version that matches whatever version is stored.
+     */
+    public static final long ANY_VERSION = -1;
+
+    private static final long URGENCY_DUE_MASK = (1L << 56) - 1;
+
+    private final TaskStore tasks;
+    private final AtomicInteger sequence = new AtomicInteger();
+    private final TrigramIndex titleIndex = new TrigramIndex();
+    private final TextIndex textIndex = new TextIndex();
+    private final TaskBitmapIndex bitmapIndex;
+    private final TaskCounters counters = new TaskCounters();
+    private final Map<TaskSort, OrderedIndex> sortIndexes = new EnumMap<>(TaskSort.class);
+    private final OrderedIndex dueIndex;
+    private final OrderedIndex openDueIndex = new OrderedIndex();
+    private final OverdueCounter overdueCounter = new OverdueCounter(openDueIndex);
+    private final OrderedIndex openUrgencyIndex = new OrderedIndex();
+    private final TaskQueryPlanner queryPlanner;
+    private final WriteBarrier writeBarrier = new WriteBarrier();
+    private final LongAdder changeStamp = new LongAdder();
+    private final ThreadLocal<Boolean> batching = ThreadLocal.withInitial(() -> false);
+    private volatile long instanceId = System.currentTimeMillis();
+    private volatile TaskJournal journal = TaskJournal.NONE;
+    private volatile TaskMetrics metrics = TaskMetrics.NONE;
+    private volatile TaskChangeListener changeListener = TaskChangeListener.NONE;
+
+    public TaskRepository() {
+        this(new HeapTaskStore());
+    }
+
+    @Autowired
+    public TaskRepository(TaskStore tasks) {
+        this.tasks = tasks;
+        this.bitmapIndex = new TaskBitmapIndex(tasks.partitions());
+        for (TaskSort sort : TaskSort.values()) {
+            sortIndexes.put(sort, new OrderedIndex());
+        }
+        dueIndex = sortIndexes.get(TaskSort.DUE_AT);
+        queryPlanner = new TaskQueryPlanner(tasks, titleIndex, bitmapIndex, sortIndexes);
+    }
 
     public List<TaskEntity> findAll() {
-        return tasks;
+        List<TaskEntity> all = tasks.values();
+        all.sort(Comparator.comparing(TaskEntity::getId));
+        return all;
+    }
+
+    public Stream<TaskEntity> streamAll() {
+        return sortIndexes.get(TaskSort.ID).all().stream()
+                .map(entry -> tasks.get(entry.id()))
+                .filter(Objects::nonNull);
+    }
+
+    public Optional<TaskEntity> findById(int id) {
+        return Optional.ofNullable(tasks.get(id));
+    }
+
+    /**
+     * Returns the version of a task, or a negative value if there is no task with that ID.
+     */
+    public long findVersion(int id) {
+        return tasks.version(id);
     }
 
-    public Optional<TaskEntity> findById(int id) throws IndexOutOfBoundsException {
-        return Optional.of(tasks.get(id));
+    /**
+     * Identifies where IDs and versions come from. Without persistence they start over with every
+     * process, and so does this ID; with persistence it is the one kept with the data.
+     */
+    public long getInstanceId() {
+        return instanceId;
+    }
+
+    public void setInstanceId(long instanceId) {
+        this.instanceId = instanceId;
+    }
+
+    /**
+     * Returns a counter that grows with every create, update and delete. It is bumped after the
+     * change is applied, so a stamp read before reading tasks never vouches for data older than it.
+     */
+    public long getChangeStamp() {
+        return changeStamp.sum();
     }
 
     public TaskEntity create(TaskEntity taskEntity) {
-        if (taskEntity.getId() == null || tasks.stream().filter(task -> task.getId().intValue() == taskEntity.getId().intValue()).toList().isEmpty()) {
-            taskEntity.setId(tasks.size());
-            tasks.add(taskEntity);
-        } else {
-            tasks.remove(taskEntity.getId().intValue());
-            tasks.add(taskEntity.getId(), taskEntity);
+        if (taskEntity.getId() != null && update(taskEntity).isPresent()) {
+            return taskEntity;
         }
 
+        int slot = writeBarrier.enter();
+        try {
+            taskEntity.setId(sequence.getAndIncrement());
+            taskEntity.setVersion(1);
+            tasks.compute(taskEntity.getId(), () -> write(taskEntity));
+        } finally {
+            writeBarrier.exit(slot);
+        }
+        changeStamp.increment();
+        metrics.created();
+        awaitDurable();
         return taskEntity;
     }
 
+    public Optional<TaskEntity> update(TaskEntity taskEntity) {
+        return update(taskEntity, ANY_VERSION);
+    }
+
+    /**
+     * Replaces a stored task if its version still equals {@code expectedVersion} and bumps the version.
+     *
+     * @return the updated task, or empty if there is no task with that ID
+     * @throws VersionConflictException if the stored version differs
+     */
+    public Optional<TaskEntity> update(TaskEntity taskEntity, long expectedVersion) {
+        TaskEntity updated;
+        int slot = writeBarrier.enter();
+        try {
+            updated = tasks.computeIfPresent(taskEntity.getId(), version -> {
+                checkVersion(taskEntity.getId(), version, expectedVersion);
+                taskEntity.setVersion(version + 1);
+                return write(taskEntity);
+            });
+        } finally {
+            writeBarrier.exit(slot);
+        }
+        if (updated != null) {
+            changeStamp.increment();
+            metrics.updated();
+            awaitDurable();
+        }
+        return Optional.ofNullable(updated);
+    }
+
     public List<TaskEntity> findByTitle(String title) {
-        return tasks.stream().filter(taskEntity -> taskEntity.getTitle().contains(title)).toList();
+        List<Integer> candidates = titleIndex.candidates(title);
+        if (candidates == null) {
+            List<TaskEntity> all = findAll();
+            metrics.titleSearched(all.size());
+            return all.stream().filter(taskEntity -> taskEntity.getTitle() != null && taskEntity.getTitle().contains(title)).toList();
+        }
+        metrics.titleSearched(candidates.size());
+
+        List<TaskEntity> matches = new ArrayList<>(candidates.size());
+        for (Integer id : candidates) {
+            TaskEntity taskEntity = tasks.get(id);
+            if (taskEntity != null && taskEntity.getTitle() != null && taskEntity.getTitle().contains(title)) {
+                matches.add(taskEntity);
+            }
+        }
+        matches.sort(Comparator.comparing(TaskEntity::getId));
+        return matches;
+    }
+
+    /**
+     * Returns the {@code limit} tasks whose title and description best match the words of
+     * {@code query}, ranked by BM25.
+     */
+    public List<TaskEntity> search(String query, int limit) {
+        List<TaskEntity> matches = new ArrayList<>();
+        for (TextIndex.Hit hit : textIndex.search(query, limit)) {
+            TaskEntity taskEntity = tasks.get(hit.id());
+            if (taskEntity != null) {
+                matches.add(taskEntity);
+            }
+        }
+        return matches;
+    }
+
+    public List<TaskEntity> findByFilter(Topic topic, Priority priority, Boolean done) {
+        BitSet ids = bitmapIndex.select(topic, priority, done);
+        List<TaskEntity> matches = new ArrayList<>(ids.cardinality());
+        for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+            TaskEntity taskEntity = tasks.get(id);
+            if (taskEntity != null
+                    && (topic == null || topic == taskEntity.getTopic())
+                    && (priority == null || priority == taskEntity.getPriority())
+                    && (done == null || done == taskEntity.isDone())) {
+                matches.add(taskEntity);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Returns up to {@code limit} tasks matching {@code where} (all tasks if null) in {@code sort}
+     * order, answered through whichever index is cheapest for the predicate.
+     *
+     * @throws IllegalArgumentException if a predicate node does not set exactly one field
+     */
+    public TaskQueryResult query(TaskPredicateDto where, TaskSort sort, int limit) {
+        return queryPlanner.execute(where, sort, limit);
+    }
+
+    /**
+     * Returns task counts from counters kept up to date by every write, so no task is scanned.
+     */
+    public TaskStatsDto getStatistics(LocalDateTime now) {
+        long overdue = overdueCounter.countBefore(OrderedIndex.key(now));
+        long total = counters.total();
+        long done = counters.done();
+        return new TaskStatsDto(total, Math.max(0, total - done), done, overdue, counters.byTopic(), counters.byPriority());
+    }
+
+    public List<TaskEntity> findPage(TaskSort sort, OrderedIndex.Entry after, int limit) {
+        OrderedIndex index = sortIndexes.get(sort);
+        return resolve(after == null ? index.all() : index.all().tailSet(after, false), limit);
+    }
+
+    public List<TaskEntity> findDueBetween(LocalDateTime from, LocalDateTime to) {
+        return resolve(dueIndex.between(OrderedIndex.key(from), OrderedIndex.key(to)), Integer.MAX_VALUE);
+    }
+
+    public List<TaskEntity> findOverdue(LocalDateTime now) {
+        return resolve(openDueIndex.before(OrderedIndex.key(now)), Integer.MAX_VALUE);
+    }
+
+    public List<TaskEntity> findNextDue(LocalDateTime now, int limit) {
+        return resolve(openDueIndex.between(OrderedIndex.key(now), OrderedIndex.MISSING - 1), limit);
+    }
+
+    /**
+     * Returns the {@code limit} most urgent open tasks, by priority, then due date, then ID.
+     * Reads the head of an index kept in that order, so no sorting is involved.
+     */
+    public List<TaskEntity> findMostUrgent(int limit) {
+        return resolve(openUrgencyIndex.all(), limit);
+    }
+
+    /**
+     * @return whether a task was deleted
+     */
+    public boolean delete(int id) {
+        return delete(id, ANY_VERSION);
+    }
+
+    /**
+     * Deletes a stored task if its version still equals {@code expectedVersion}.
+     *
+     * @return whether a task was deleted
+     * @throws VersionConflictException if the stored version differs
+     */
+    public boolean delete(int id, long expectedVersion) {
+        boolean[] deleted = new boolean[1];
+        int slot = writeBarrier.enter();
+        try {
+            tasks.computeIfPresent(id, version -> {
+                checkVersion(id, version, expectedVersion);
+                journal.appendDelete(id);
+                deleted[0] = true;
+                unindex(id);
+                changeListener.deleted(id);
+                return null;
+            });
+        } finally {
+            writeBarrier.exit(slot);
+        }
+        if (deleted[0]) {
+            changeStamp.increment();
+            metrics.deleted();
+        }
+        awaitDurable();
+        return deleted[0];
+    }
+
+    /**
+     * Runs {@code writes} on the calling thread and waits for the journal once, after all of them,
+     * instead of after every create, update and delete. Their records are appended as usual, so
+     * with group commit the whole batch shares as few forces as possible.
+     */
+    public <T> T batch(Supplier<T> writes) {
+        if (batching.get()) {
+            return writes.get();
+        }
+        batching.set(true);
+        try {
+            return writes.get();
+        } finally {
+            batching.remove();
+            awaitJournal();
+        }
+    }
+
+    public int count() {
+        return tasks.size();
+    }
+
+    public void setJournal(TaskJournal journal) {
+        this.journal = journal == null ? TaskJournal.NONE : journal;
+    }
+
+    public void setMetrics(TaskMetrics metrics) {
+        this.metrics = metrics == null ? TaskMetrics.NONE : metrics;
+    }
+
+    public void setChangeListener(TaskChangeListener changeListener) {
+        this.changeListener = changeListener == null ? TaskChangeListener.NONE : changeListener;
+    }
+
+    public int getSequence() {
+        return sequence.get();
+    }
+
+    /**
+     * Blocks until every create, update and delete that was in progress when this was called has
+     * been applied and handed to the journal.
+     */
+    public void awaitInFlightWrites() {
+        writeBarrier.await();
+    }
+
+    /**
+     * Raises the ID sequence during recovery so IDs of deleted tasks are never handed out again.
+     */
+    public void restoreSequence(int next) {
+        sequence.accumulateAndGet(next, Math::max);
+    }
+
+    /**
+     * Re-applies a journaled upsert during recovery without journaling it again.
+     */
+    public void restore(TaskEntity taskEntity) {
+        tasks.compute(taskEntity.getId(), () -> index(taskEntity));
+        changeStamp.increment();
+        sequence.accumulateAndGet(taskEntity.getId() + 1, Math::max);
+    }
+
+    /**
+     * Re-applies a journaled delete during recovery without journaling it again.
+     */
+    public void restoreDelete(int id) {
+        tasks.computeIfPresent(id, version -> unindex(id));
+        changeStamp.increment();
+    }
+
+    private static void checkVersion(int id, long version, long expectedVersion) {
+        if (expectedVersion != ANY_VERSION && version != expectedVersion) {
+            throw new VersionConflictException("Task " + id + " is at version " + version + ", not " + expectedVersion);
+        }
+    }
+
+    private void awaitDurable() {
+        if (!batching.get()) {
+            awaitJournal();
+        }
+    }
+
+    private void awaitJournal() {
+        try {
+            journal.awaitDurable();
+        } finally {
+            changeListener.durable();
+        }
+    }
+
+    private TaskEntity write(TaskEntity taskEntity) {
+        journal.appendUpsert(taskEntity);
+        index(taskEntity);
+        changeListener.changed(taskEntity);
+        return taskEntity;
+    }
+
+    private TaskEntity index(TaskEntity taskEntity) {
+        titleIndex.put(taskEntity.getId(), taskEntity.getTitle());
+        textIndex.put(taskEntity.getId(), taskEntity.getTitle(), taskEntity.getDescription());
+        bitmapIndex.put(taskEntity.getId(), taskEntity.getTopic(), taskEntity.getPriority(), taskEntity.isDone());
+        counters.put(taskEntity.getId(), taskEntity.getTopic(), taskEntity.getPriority(), taskEntity.isDone());
+        sortIndexes.forEach((sort, index) -> index.put(taskEntity.getId(), sort.key(taskEntity)));
+        if (taskEntity.isDone()) {
+            removeOpenDue(taskEntity.getId());
+            openUrgencyIndex.remove(taskEntity.getId());
+        } else {
+            long dueKey = OrderedIndex.key(taskEntity.getDueAt());
+            overdueCounter.put(taskEntity.getId(), openDueIndex.put(taskEntity.getId(), dueKey), dueKey);
+            openUrgencyIndex.put(taskEntity.getId(), urgency(taskEntity));
+        }
+        return taskEntity;
+    }
+
+    private TaskEntity unindex(int id) {
+        titleIndex.remove(id);
+        textIndex.remove(id);
+        bitmapIndex.remove(id);
+        counters.remove(id);
+        sortIndexes.values().forEach(index -> index.remove(id));
+        removeOpenDue(id);
+        openUrgencyIndex.remove(id);
+        return null;
+    }
+
+    private void removeOpenDue(int id) {
+        Long dueKey = openDueIndex.remove(id);
+        if (dueKey != null) {
+            overdueCounter.remove(id, dueKey);
+        }
+    }
+
+    /**
+     * Packs priority ordinal and due date into one key that sorts by priority first. The top
+     * 6 bits hold the ordinal (tasks without priority last); the low 56 bits hold the due time
+     * in milliseconds offset by 2^55, which covers ±570,000 years, with no due date last.
+     */
+    private static long urgency(TaskEntity taskEntity) {
+        long priority = taskEntity.getPriority() == null ? Priority.values().length : taskEntity.getPriority().ordinal();
+        long due = taskEntity.getDueAt() == null
+                ? URGENCY_DUE_MASK
+                : Math.clamp(OrderedIndex.key(taskEntity.getDueAt()) + (1L << 55), 0, URGENCY_DUE_MASK - 1);
+        return priority << 56 | due;
     }
 
-    public void delete(int id) {
-        tasks.remove(id);
-        for (int i = 0; i < tasks.size(); i++) {
-            tasks.get(i).setId(i);
+    private List<TaskEntity> resolve(Iterable<OrderedIndex.Entry> entries, int limit) {
+        List<TaskEntity> resolved = new ArrayList<>();
+        for (OrderedIndex.Entry entry : entries) {
+            if (resolved.size() >= limit) {
+                break;
+            }
+            TaskEntity taskEntity = tasks.get(entry.id());
+            if (taskEntity != null) {
+                resolved.add(taskEntity);
+            }
         }
+        return resolved;
     }
 }
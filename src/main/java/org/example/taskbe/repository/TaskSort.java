@@ -0,0 +1,37 @@
+package org.example.taskbe.repository;
+
+import org.example.taskbe.domain.entity.TaskEntity;
+import org.example.taskbe.repository.index.OrderedIndex;
+
+import java.util.Arrays;
+import java.util.function.ToLongFunction;
+
+public enum TaskSort {
+    ID("id", taskEntity -> taskEntity.getId()),
+    CREATED_AT("createdAt", taskEntity -> OrderedIndex.key(taskEntity.getCreatedAt())),
+    DUE_AT("dueAt", taskEntity -> OrderedIndex.key(taskEntity.getDueAt())),
+    PRIORITY("priority", taskEntity -> taskEntity.getPriority() == null ? OrderedIndex.MISSING : taskEntity.getPriority().ordinal());
+
+    private final String parameter;
+    private final ToLongFunction<TaskEntity> key;
+
+    TaskSort(String parameter, ToLongFunction<TaskEntity> key) {
+        this.parameter = parameter;
+        this.key = key;
+    }
+
+    public String getParameter() {
+        return parameter;
+    }
+
+    public long key(TaskEntity taskEntity) {
+        return key.applyAsLong(taskEntity);
+    }
+
+    public static TaskSort fromParameter(String parameter) {
+        return Arrays.stream(values())
+                .filter(sort -> sort.parameter.equals(parameter))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown sort key: " + parameter));
+    }
+}
@@ -0,0 +1,11 @@
+package org.example.taskbe.repository;
+
+/**
+ * Thrown when a conditional write expected a different task version than the stored one.
+ */
+public class VersionConflictException extends RuntimeException {
+
+    public VersionConflictException(String message) {
+        super(message);
+    }
+}
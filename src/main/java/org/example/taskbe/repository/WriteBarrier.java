@@ -0,0 +1,44 @@
+package org.example.taskbe.repository;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lets one thread wait for every write that started before it called {@link #await()}, without
+ * making writers contend on a shared counter. Writers register on a per-thread stripe of the
+ * current epoch; {@code await} flips the epoch and waits for the previous one to drain.
+ */
+class WriteBarrier {
+    private static final int STRIPES = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1) << 1;
+    private static final int PADDING = 16;
+
+    private final AtomicLongArray counts = new AtomicLongArray(2 * STRIPES * PADDING);
+    private volatile int epoch;
+
+    int enter() {
+        int stripe = (int) Thread.currentThread().threadId() & (STRIPES - 1);
+        while (true) {
+            int current = epoch;
+            int slot = (current * STRIPES + stripe) * PADDING;
+            counts.incrementAndGet(slot);
+            if (epoch == current) {
+                return slot;
+            }
+            counts.decrementAndGet(slot);
+        }
+    }
+
+    void exit(int slot) {
+        counts.decrementAndGet(slot);
+    }
+
+    synchronized void await() {
+        int previous = epoch;
+        epoch = 1 - previous;
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            int slot = (previous * STRIPES + stripe) * PADDING;
+            while (counts.get(slot) != 0) {
+                Thread.yield();
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.taskbe.repository.index;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Sorted index of task IDs by a {@code long} key, ties broken by ID. Range and prefix reads are
+ * O(log n + k) and are weakly consistent with concurrent writers.
+ */
+public class OrderedIndex {
+    public static final long MISSING = Long.MAX_VALUE;
+
+    private final NavigableSet<Entry> entries = new ConcurrentSkipListSet<>();
+    private final ConcurrentMap<Integer, Long> keys = new ConcurrentHashMap<>();
+
+    public static long key(LocalDateTime dateTime) {
+        return dateTime == null ? MISSING : dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    /**
+     * Indexes {@code id} under {@code key} and returns the key it had before, or null.
+     */
+    public Long put(int id, long key) {
+        Long previous = keys.put(id, key);
+        if (previous != null) {
+            if (previous == key) {
+                return previous;
+            }
+            entries.remove(new Entry(previous, id));
+        }
+        entries.add(new Entry(key, id));
+        return previous;
+    }
+
+    /**
+     * Removes {@code id} and returns the key it had, or null if it was not indexed.
+     */
+    public Long remove(int id) {
+        Long previous = keys.remove(id);
+        if (previous != null) {
+            entries.remove(new Entry(previous, id));
+        }
+        return previous;
+    }
+
+    public NavigableSet<Entry> all() {
+        return entries;
+    }
+
+    public NavigableSet<Entry> between(long fromInclusive, long toInclusive) {
+        if (fromInclusive > toInclusive) {
+            return Collections.emptyNavigableSet();
+        }
+        return entries.subSet(new Entry(fromInclusive, Integer.MIN_VALUE), true, new Entry(toInclusive, Integer.MAX_VALUE), true);
+    }
+
+    public NavigableSet<Entry> before(long toExclusive) {
+        return entries.headSet(new Entry(toExclusive, Integer.MIN_VALUE), false);
+    }
+
+    public NavigableSet<Entry> from(long fromInclusive) {
+        return entries.tailSet(new Entry(fromInclusive, Integer.MIN_VALUE), true);
+    }
+
+    public record Entry(long key, int id) implements Comparable<Entry> {
+        private static final Comparator<Entry> ORDER = Comparator.comparingLong(Entry::key).thenComparingInt(Entry::id);
+
+        @Override
+        public int compareTo(Entry other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
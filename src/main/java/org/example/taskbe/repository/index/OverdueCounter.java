@@ -0,0 +1,82 @@
+package org.example.taskbe.repository.index;
+
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts open tasks whose due time has passed, so the overdue count needs no scan. A task's due
+ * time waits in a pending set until {@link #countBefore} moves a watermark past it. Whoever takes
+ * an entry out of the pending set, the reader moving the watermark or a writer changing the task,
+ * adjusts the count, so each task is counted once even while they race. The watermark only walks
+ * the entries it passes, each of them once, so a read is O(log n) amortized.
+ *
+ * <p>Callers must serialize puts and removes of the same ID, as the task store does, and pass the
+ * key last put for it. The count is weakly consistent with concurrent writers.
+ */
+public class OverdueCounter {
+    private final OrderedIndex openDue;
+    private final NavigableSet<OrderedIndex.Entry> pending = new ConcurrentSkipListSet<>();
+    private final LongAdder passed = new LongAdder();
+    private volatile long watermark = Long.MIN_VALUE;
+
+    /**
+     * @param openDue the due times of all open tasks, walked to answer for a time before the watermark
+     */
+    public OverdueCounter(OrderedIndex openDue) {
+        this.openDue = openDue;
+    }
+
+    /**
+     * Counts an open task due at {@code key}, replacing its {@code previousKey} if it had one.
+     */
+    public void put(int id, Long previousKey, long key) {
+        if (previousKey != null) {
+            if (previousKey == key) {
+                return;
+            }
+            remove(id, previousKey);
+        }
+        if (key == OrderedIndex.MISSING) {
+            return;
+        }
+        OrderedIndex.Entry entry = new OrderedIndex.Entry(key, id);
+        pending.add(entry);
+        // Read after the add: a reader that moved the watermark before this read walks past the entry.
+        if (key < watermark && pending.remove(entry)) {
+            passed.increment();
+        }
+    }
+
+    public void remove(int id, long key) {
+        if (key != OrderedIndex.MISSING && !pending.remove(new OrderedIndex.Entry(key, id))) {
+            passed.decrement();
+        }
+    }
+
+    /**
+     * Returns how many open tasks are due before {@code key}.
+     */
+    public long countBefore(long key) {
+        advance(key);
+        long count = passed.sum();
+        // Another reader, or a clock set back, may have moved the watermark past the key.
+        for (OrderedIndex.Entry ignored : openDue.between(key, watermark - 1)) {
+            count--;
+        }
+        return Math.max(0, count);
+    }
+
+    private synchronized void advance(long key) {
+        long from = watermark;
+        if (key <= from) {
+            return;
+        }
+        watermark = key;
+        for (OrderedIndex.Entry entry : pending.headSet(new OrderedIndex.Entry(key, Integer.MIN_VALUE), false)) {
+            if (pending.remove(entry)) {
+                passed.increment();
+            }
+        }
+    }
+}
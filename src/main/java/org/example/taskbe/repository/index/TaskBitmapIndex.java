@@ -0,0 +1,135 @@
+package org.example.taskbe.repository.index;
+
+import org.example.taskbe.domain.Priority;
+import org.example.taskbe.domain.Topic;
+
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Per-value bitmaps over task IDs for the low-cardinality task attributes. IDs are allocated
+ * densely from a sequence, so a plain {@link BitSet} per value stays compact.
+ *
+ * <p>IDs are striped like the partitions of the task store: stripe {@code id & (stripes - 1)}
+ * holds bit {@code id / stripes}, and each stripe has its own lock, so writers of different
+ * stripes never wait for each other.
+ */
+public class TaskBitmapIndex {
+    private final Stripe[] stripes;
+    private final int shift;
+    private final int mask;
+
+    public TaskBitmapIndex() {
+        this(1);
+    }
+
+    public TaskBitmapIndex(int stripes) {
+        if (stripes <= 0 || Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("Stripe count must be a power of two, got " + stripes);
+        }
+        this.stripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.shift = Integer.numberOfTrailingZeros(stripes);
+        this.mask = stripes - 1;
+    }
+
+    public void put(int id, Topic topic, Priority priority, boolean isDone) {
+        stripes[id & mask].put(id >>> shift, topic, priority, isDone);
+    }
+
+    public void remove(int id) {
+        stripes[id & mask].remove(id >>> shift);
+    }
+
+    /**
+     * Returns the IDs matching every given criterion; {@code null} criteria are ignored.
+     */
+    public BitSet select(Topic topic, Priority priority, Boolean isDone) {
+        if (stripes.length == 1) {
+            return stripes[0].select(topic, priority, isDone);
+        }
+        BitSet result = new BitSet();
+        for (int stripe = 0; stripe < stripes.length; stripe++) {
+            BitSet matches = stripes[stripe].select(topic, priority, isDone);
+            for (int bit = matches.nextSetBit(0); bit >= 0; bit = matches.nextSetBit(bit + 1)) {
+                result.set(bit << shift | stripe);
+            }
+        }
+        return result;
+    }
+
+    private static final class Stripe {
+        private final BitSet live = new BitSet();
+        private final BitSet done = new BitSet();
+        private final Map<Topic, BitSet> topics = new EnumMap<>(Topic.class);
+        private final Map<Priority, BitSet> priorities = new EnumMap<>(Priority.class);
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        Stripe() {
+            for (Topic topic : Topic.values()) {
+                topics.put(topic, new BitSet());
+            }
+            for (Priority priority : Priority.values()) {
+                priorities.put(priority, new BitSet());
+            }
+        }
+
+        void put(int bit, Topic topic, Priority priority, boolean isDone) {
+            lock.writeLock().lock();
+            try {
+                clear(bit);
+                live.set(bit);
+                done.set(bit, isDone);
+                if (topic != null) {
+                    topics.get(topic).set(bit);
+                }
+                if (priority != null) {
+                    priorities.get(priority).set(bit);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(int bit) {
+            lock.writeLock().lock();
+            try {
+                clear(bit);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        BitSet select(Topic topic, Priority priority, Boolean isDone) {
+            lock.readLock().lock();
+            try {
+                BitSet result = (BitSet) (topic != null ? topics.get(topic) : live).clone();
+                if (priority != null) {
+                    result.and(priorities.get(priority));
+                }
+                if (isDone != null) {
+                    if (isDone) {
+                        result.and(done);
+                    } else {
+                        result.andNot(done);
+                    }
+                }
+                return result;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void clear(int bit) {
+            live.clear(bit);
+            done.clear(bit);
+            topics.values().forEach(bits -> bits.clear(bit));
+            priorities.values().forEach(bits -> bits.clear(bit));
+        }
+    }
+}
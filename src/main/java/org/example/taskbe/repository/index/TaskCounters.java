@@ -0,0 +1,134 @@
+package org.example.taskbe.repository.index;
+
+import org.example.taskbe.domain.Priority;
+import org.example.taskbe.domain.Topic;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts stored tasks per topic, priority and state. Every put and remove adjusts the counts in
+ * O(1), so reading them needs no scan. Overdue tasks are counted by {@link OverdueCounter}.
+ *
+ * <p>Callers must serialize puts and removes of the same ID, as the task store does. The counts
+ * are weakly consistent with concurrent writers.
+ */
+public class TaskCounters {
+    private static final int PAGE_BITS = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private static final int PRESENT = 1;
+    private static final int DONE = 1 << 1;
+    private static final int TOPIC_SHIFT = 2;
+    private static final int PRIORITY_SHIFT = 8;
+    private static final int ORDINAL_MASK = 0x3f;
+
+    private static final Topic[] TOPICS = Topic.values();
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    private final LongAdder total = new LongAdder();
+    private final LongAdder done = new LongAdder();
+    private final LongAdder[] topics = adders(TOPICS.length);
+    private final LongAdder[] priorities = adders(PRIORITIES.length);
+    /**
+     * What each ID was last counted as, so a put can take back the old contribution.
+     */
+    private volatile int[][] states = new int[16][];
+
+    public void put(int id, Topic topic, Priority priority, boolean isDone) {
+        int state = PRESENT
+                | (isDone ? DONE : 0)
+                | (topic == null ? 0 : topic.ordinal() + 1) << TOPIC_SHIFT
+                | (priority == null ? 0 : priority.ordinal() + 1) << PRIORITY_SHIFT;
+        int[] page = allocate(id);
+        int previous = page[id & PAGE_MASK];
+        page[id & PAGE_MASK] = state;
+        count(previous, -1);
+        count(state, 1);
+    }
+
+    public void remove(int id) {
+        int[][] snapshot = states;
+        int[] page = (id >>> PAGE_BITS) < snapshot.length ? snapshot[id >>> PAGE_BITS] : null;
+        if (page != null) {
+            count(page[id & PAGE_MASK], -1);
+            page[id & PAGE_MASK] = 0;
+        }
+    }
+
+    public long total() {
+        return total.sum();
+    }
+
+    public long done() {
+        return done.sum();
+    }
+
+    public Map<Topic, Long> byTopic() {
+        Map<Topic, Long> counts = new EnumMap<>(Topic.class);
+        for (Topic topic : TOPICS) {
+            counts.put(topic, topics[topic.ordinal()].sum());
+        }
+        return counts;
+    }
+
+    public Map<Priority, Long> byPriority() {
+        Map<Priority, Long> counts = new EnumMap<>(Priority.class);
+        for (Priority priority : PRIORITIES) {
+            counts.put(priority, priorities[priority.ordinal()].sum());
+        }
+        return counts;
+    }
+
+    private void count(int state, int delta) {
+        if ((state & PRESENT) == 0) {
+            return;
+        }
+        total.add(delta);
+        int topic = (state >>> TOPIC_SHIFT & ORDINAL_MASK) - 1;
+        if (topic >= 0) {
+            topics[topic].add(delta);
+        }
+        int priority = (state >>> PRIORITY_SHIFT & ORDINAL_MASK) - 1;
+        if (priority >= 0) {
+            priorities[priority].add(delta);
+        }
+        if ((state & DONE) != 0) {
+            done.add(delta);
+        }
+    }
+
+    private int[] allocate(int id) {
+        int[][] snapshot = states;
+        int index = id >>> PAGE_BITS;
+        if (index < snapshot.length && snapshot[index] != null) {
+            return snapshot[index];
+        }
+        return allocatePage(index);
+    }
+
+    private synchronized int[] allocatePage(int index) {
+        int[][] snapshot = states;
+        if (index >= snapshot.length) {
+            snapshot = Arrays.copyOf(snapshot, Math.max(index + 1, snapshot.length * 2));
+        } else if (snapshot[index] != null) {
+            return snapshot[index];
+        } else {
+            snapshot = snapshot.clone();
+        }
+        snapshot[index] = new int[PAGE_SIZE];
+        states = snapshot;
+        return snapshot[index];
+    }
+
+    private static LongAdder[] adders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
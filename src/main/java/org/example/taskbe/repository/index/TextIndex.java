@@ -0,0 +1,285 @@
+package org.example.taskbe.repository.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index from lower-cased words of a task's title and description to term frequencies,
+ * ranked with Okapi BM25. Title words count {@link #TITLE_WEIGHT} times, a simple form of BM25F.
+ */
+public class TextIndex {
+    public static final int TITLE_WEIGHT = 2;
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final Comparator<Hit> RANK = Comparator.comparingDouble(Hit::score).reversed().thenComparingInt(Hit::id);
+
+    /**
+     * Term to task ID to the term frequency in the high and the document length in the low 32 bits,
+     * so scoring a posting needs no second lookup.
+     */
+    private final ConcurrentMap<String, Posting> postings = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, Document> documents = new ConcurrentHashMap<>();
+    private final AtomicLong totalLength = new AtomicLong();
+    private final AtomicInteger maxId = new AtomicInteger(-1);
+
+    public void put(int id, String title, String description) {
+        Document document = Document.of(title, description);
+        Document previous = document == null ? documents.remove(id) : documents.put(id, document);
+        if (previous != null) {
+            if (previous.sameText(title, description)) {
+                return;
+            }
+            removePostings(id, previous);
+        }
+        if (document != null) {
+            document.terms().forEach((term, frequency) -> postings.compute(term, (key, posting) -> {
+                Posting target = posting == null ? new Posting() : posting;
+                target.put(id, (long) frequency << 32 | document.length());
+                return target;
+            }));
+            totalLength.addAndGet(document.length());
+            maxId.accumulateAndGet(id, Math::max);
+        }
+    }
+
+    public void remove(int id) {
+        Document previous = documents.remove(id);
+        if (previous != null) {
+            removePostings(id, previous);
+        }
+    }
+
+    /**
+     * Returns the {@code limit} best-scoring tasks for the words of {@code query}, best first and
+     * ties broken by ID. A task matches if it contains any of the words.
+     */
+    public List<Hit> search(String query, int limit) {
+        int count = documents.size();
+        if (count == 0 || limit <= 0) {
+            return List.of();
+        }
+        double averageLength = Math.max(1, totalLength.get()) / (double) count;
+
+        List<Posting> matched = new ArrayList<>();
+        List<Double> idfs = new ArrayList<>();
+        long matches = 0;
+        for (String term : new LinkedHashSet<>(tokenize(query))) {
+            Posting posting = postings.get(term);
+            int frequency = posting == null ? 0 : posting.size();
+            if (frequency > 0) {
+                matched.add(posting);
+                idfs.add(Math.log(1 + (count - frequency + 0.5) / (frequency + 0.5)));
+                matches += frequency;
+            }
+        }
+
+        // Common terms touch a large share of all tasks: accumulate into an array indexed by ID then.
+        PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, RANK.reversed());
+        if (matches > count / 8) {
+            double[] scores = new double[maxId.get() + 1];
+            for (int i = 0; i < matched.size(); i++) {
+                double idf = idfs.get(i);
+                matched.get(i).forEach((id, packed) -> {
+                    if (id < scores.length) {
+                        scores[id] += score(idf, packed, averageLength);
+                    }
+                });
+            }
+            for (int id = 0; id < scores.length; id++) {
+                if (scores[id] > 0 && (best.size() < limit || scores[id] >= best.peek().score())) {
+                    offer(best, new Hit(id, scores[id]), limit);
+                }
+            }
+        } else {
+            Map<Integer, double[]> scores = new HashMap<>();
+            for (int i = 0; i < matched.size(); i++) {
+                double idf = idfs.get(i);
+                matched.get(i).forEach((id, packed) ->
+                        scores.computeIfAbsent(id, key -> new double[1])[0] += score(idf, packed, averageLength));
+            }
+            scores.forEach((id, score) -> offer(best, new Hit(id, score[0]), limit));
+        }
+        List<Hit> ranked = new ArrayList<>(best);
+        ranked.sort(RANK);
+        return ranked;
+    }
+
+    private static double score(double idf, long packed, double averageLength) {
+        int frequency = (int) (packed >>> 32);
+        int length = (int) packed;
+        return idf * frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * length / averageLength));
+    }
+
+    /**
+     * Keeps the {@code limit} best hits in a min-heap, O(log k) per hit instead of sorting all matches.
+     */
+    private static void offer(PriorityQueue<Hit> best, Hit hit, int limit) {
+        if (best.size() < limit) {
+            best.add(hit);
+        } else if (RANK.compare(hit, best.peek()) < 0) {
+            best.poll();
+            best.add(hit);
+        }
+    }
+
+    private void removePostings(int id, Document document) {
+        for (String term : document.terms().keySet()) {
+            postings.computeIfPresent(term, (key, posting) -> posting.remove(id) ? null : posting);
+        }
+        totalLength.addAndGet(-document.length());
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    public record Hit(int id, double score) {
+    }
+
+    @FunctionalInterface
+    private interface PostingVisitor {
+        void visit(int id, long packed);
+    }
+
+    /**
+     * Task IDs containing a term, kept sorted in primitive arrays so that scanning a term held by
+     * most tasks costs about a millisecond per million. New IDs are the highest yet and append;
+     * removals leave a zero value behind until more than half the slots are empty.
+     */
+    private static final class Posting {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private int[] ids = new int[4];
+        private long[] values = new long[4];
+        private int slots;
+        private int live;
+
+        void put(int id, long packed) {
+            lock.writeLock().lock();
+            try {
+                int slot = Arrays.binarySearch(ids, 0, slots, id);
+                if (slot >= 0) {
+                    if (values[slot] == 0) {
+                        live++;
+                    }
+                    values[slot] = packed;
+                    return;
+                }
+                slot = -slot - 1;
+                if (slots == ids.length) {
+                    ids = Arrays.copyOf(ids, slots * 2);
+                    values = Arrays.copyOf(values, slots * 2);
+                }
+                System.arraycopy(ids, slot, ids, slot + 1, slots - slot);
+                System.arraycopy(values, slot, values, slot + 1, slots - slot);
+                ids[slot] = id;
+                values[slot] = packed;
+                slots++;
+                live++;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * @return whether the posting is now empty
+         */
+        boolean remove(int id) {
+            lock.writeLock().lock();
+            try {
+                int slot = Arrays.binarySearch(ids, 0, slots, id);
+                if (slot >= 0 && values[slot] != 0) {
+                    values[slot] = 0;
+                    live--;
+                    if (live < slots / 2) {
+                        compact();
+                    }
+                }
+                return live == 0;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return live;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void forEach(PostingVisitor visitor) {
+            lock.readLock().lock();
+            try {
+                for (int slot = 0; slot < slots; slot++) {
+                    if (values[slot] != 0) {
+                        visitor.visit(ids[slot], values[slot]);
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void compact() {
+            int kept = 0;
+            for (int slot = 0; slot < slots; slot++) {
+                if (values[slot] != 0) {
+                    ids[kept] = ids[slot];
+                    values[kept++] = values[slot];
+                }
+            }
+            slots = kept;
+        }
+    }
+
+    private record Document(String title, String description, Map<String, Integer> terms, int length) {
+        static Document of(String title, String description) {
+            Map<String, Integer> terms = new HashMap<>();
+            int length = 0;
+            for (String token : tokenize(title)) {
+                terms.merge(token, TITLE_WEIGHT, Integer::sum);
+                length += TITLE_WEIGHT;
+            }
+            for (String token : tokenize(description)) {
+                terms.merge(token, 1, Integer::sum);
+                length++;
+            }
+            return terms.isEmpty() ? null : new Document(title, description, terms, length);
+        }
+
+        boolean sameText(String title, String description) {
+            return Objects.equals(this.title, title) && Objects.equals(this.description, description);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.taskbe.repository.index;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Inverted index from character trigrams to the IDs of the tasks whose text contains them.
+ * Lookups only narrow the candidate set; callers still have to verify each candidate.
+ */
+public class TrigramIndex {
+    public static final int GRAM_LENGTH = 3;
+
+    private final ConcurrentMap<Long, Set<Integer>> postings = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, String> indexedText = new ConcurrentHashMap<>();
+
+    public void put(int id, String text) {
+        String previous = text == null ? indexedText.remove(id) : indexedText.put(id, text);
+        if (previous != null) {
+            if (previous.equals(text)) {
+                return;
+            }
+            removePostings(id, previous);
+        }
+        if (text != null) {
+            addPostings(id, text);
+        }
+    }
+
+    public void remove(int id) {
+        String previous = indexedText.remove(id);
+        if (previous != null) {
+            removePostings(id, previous);
+        }
+    }
+
+    /**
+     * Returns the IDs of all tasks whose text contains every trigram of {@code query}, or {@code null}
+     * if the query is too short to be answered from the index.
+     */
+    public List<Integer> candidates(String query) {
+        if (query == null || query.length() < GRAM_LENGTH) {
+            return null;
+        }
+
+        List<Set<Integer>> lists = new ArrayList<>();
+        for (long gram : grams(query)) {
+            Set<Integer> posting = postings.get(gram);
+            if (posting == null || posting.isEmpty()) {
+                return List.of();
+            }
+            lists.add(posting);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        Set<Integer> smallest = lists.get(0);
+        List<Integer> result = new ArrayList<>(smallest.size());
+        for (Integer id : smallest) {
+            boolean inAll = true;
+            for (int i = 1; i < lists.size() && inAll; i++) {
+                inAll = lists.get(i).contains(id);
+            }
+            if (inAll) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    private void addPostings(int id, String text) {
+        for (long gram : grams(text)) {
+            postings.compute(gram, (key, ids) -> {
+                Set<Integer> target = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+                target.add(id);
+                return target;
+            });
+        }
+    }
+
+    private void removePostings(int id, String text) {
+        for (long gram : grams(text)) {
+            postings.computeIfPresent(gram, (key, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    private static Set<Long> grams(String text) {
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return grams;
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.taskbe.repository.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.taskbe.repository.TaskMetrics;
+import org.example.taskbe.repository.TaskRepository;
+
+/**
+ * Publishes repository counts to Micrometer. Counters are adders and the scan histogram has fixed
+ * buckets, so recording never takes a lock; the task count is only read when the registry is scraped.
+ */
+public class MicrometerTaskMetrics implements TaskMetrics {
+    private final Counter created;
+    private final Counter updated;
+    private final Counter deleted;
+    private final DistributionSummary titleScanned;
+
+    public MicrometerTaskMetrics(MeterRegistry meterRegistry, TaskRepository taskRepository) {
+        created = operationCounter(meterRegistry, "create");
+        updated = operationCounter(meterRegistry, "edit");
+        deleted = operationCounter(meterRegistry, "delete");
+        titleScanned = DistributionSummary.builder("tasks.search.scanned")
+                .description("Tasks looked at per search")
+                .baseUnit("tasks")
+                .tag("search", "title")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(10_000_000.0)
+                .register(meterRegistry);
+        Gauge.builder("tasks.count", taskRepository, TaskRepository::count)
+                .description("Tasks currently stored")
+                .baseUnit("tasks")
+                .register(meterRegistry);
+    }
+
+    private static Counter operationCounter(MeterRegistry meterRegistry, String operation) {
+        return Counter.builder("tasks.operations")
+                .description("Applied task changes")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void created() {
+        created.increment();
+    }
+
+    @Override
+    public void updated() {
+        updated.increment();
+    }
+
+    @Override
+    public void deleted() {
+        deleted.increment();
+    }
+
+    @Override
+    public void titleSearched(int scanned) {
+        titleScanned.record(scanned);
+    }
+}
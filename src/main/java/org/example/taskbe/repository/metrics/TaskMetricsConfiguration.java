@@ -0,0 +1,17 @@
+package org.example.taskbe.repository.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.taskbe.repository.TaskRepository;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class TaskMetricsConfiguration {
+
+    @Bean
+    public MicrometerTaskMetrics taskMetrics(MeterRegistry meterRegistry, TaskRepository taskRepository) {
+        MicrometerTaskMetrics taskMetrics = new MicrometerTaskMetrics(meterRegistry, taskRepository);
+        taskRepository.setMetrics(taskMetrics);
+        return taskMetrics;
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.taskbe.repository.persistence;
+
+public enum FsyncPolicy {
+    /**
+     * Every record is forced to disk on its own before its writer returns.
+     */
+    ALWAYS,
+
+    /**
+     * Records from concurrent writers are written and forced together; writers wait for their batch.
+     */
+    BATCHED,
+
+    /**
+     * Writers return immediately; the log is forced at most once per configured interval.
+     */
+    PERIODIC
+}
@@ -0,0 +1,187 @@
+package org.example.taskbe.repository.persistence;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskbe.domain.entity.TaskEntity;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Reads and writes full-state snapshot files.
+ * <p>
+ * Layout: {@code magic | version | lsn | sequence}, then one {@code length | task} entry per task,
+ * then {@code -1 | count | crc32c}. The LSN is the first write-ahead log record not covered by the
+ * snapshot; the checksum covers everything before it. Snapshots are written to a temporary file
+ * and renamed into place once forced, so a visible snapshot is always complete.
+ */
+@Slf4j
+public final class SnapshotFiles {
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+    private static final int MAGIC = 0x5441534B;
+    private static final int VERSION = 1;
+    private static final int END_OF_TASKS = -1;
+    private static final int TRAILER_SIZE = 2 * Integer.BYTES + Long.BYTES;
+    private static final int READ_BUFFER_SIZE = 256 * 1024;
+
+    public record Snapshot(Path path, long lsn, int sequence, int count) {
+    }
+
+    private SnapshotFiles() {
+    }
+
+    public static Snapshot write(Path directory, long lsn, int sequence, Stream<TaskEntity> tasks) throws IOException {
+        Path target = directory.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, lsn, SNAPSHOT_SUFFIX));
+        Path temporary = directory.resolve(target.getFileName() + ".tmp");
+        int count = 0;
+
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            CRC32C crc = new CRC32C();
+            OutputStream channelStream = Channels.newOutputStream(channel);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(channelStream, crc), 256 * 1024));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(lsn);
+            out.writeInt(sequence);
+
+            Iterator<TaskEntity> iterator = tasks.iterator();
+            while (iterator.hasNext()) {
+                byte[] task = TaskRecordCodec.encode(iterator.next());
+                out.writeInt(task.length);
+                out.write(task);
+                count++;
+            }
+            out.writeInt(END_OF_TASKS);
+            out.writeInt(count);
+            out.flush();
+            channelStream.write(ByteBuffer.allocate(Long.BYTES).putLong(crc.getValue()).array());
+            channel.force(true);
+        } finally {
+            tasks.close();
+        }
+
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        forceDirectory(directory);
+        return new Snapshot(target, lsn, sequence, count);
+    }
+
+    /**
+     * Loads the newest intact snapshot, passing each task to {@code restore}. Snapshots that fail
+     * their checksum are skipped in favour of older ones. Files are read through a fixed-size
+     * buffer, so a snapshot of any size loads without mapping it.
+     */
+    public static Optional<Snapshot> loadLatest(Path directory, Consumer<TaskEntity> restore) throws IOException {
+        for (Path path : snapshots(directory).reversed()) {
+            if (!isIntact(path)) {
+                log.warn("Ignoring snapshot {} with a bad checksum", path);
+                continue;
+            }
+
+            try (InputStream fileStream = Files.newInputStream(path);
+                 DataInputStream in = new DataInputStream(new BufferedInputStream(fileStream, READ_BUFFER_SIZE))) {
+                in.skipNBytes(2 * Integer.BYTES);
+                long lsn = in.readLong();
+                int sequence = in.readInt();
+                int count = 0;
+                byte[] task = new byte[1024];
+                for (int length = in.readInt(); length != END_OF_TASKS; length = in.readInt()) {
+                    if (length > task.length) {
+                        task = new byte[Math.max(length, 2 * task.length)];
+                    }
+                    in.readFully(task, 0, length);
+                    restore.accept(TaskRecordCodec.read(ByteBuffer.wrap(task, 0, length)));
+                    count++;
+                }
+                return Optional.of(new Snapshot(path, lsn, sequence, count));
+            }
+        }
+        return Optional.empty();
+    }
+
+    public static void deleteSnapshotsBefore(Path directory, long lsn) throws IOException {
+        for (Path path : snapshots(directory)) {
+            if (lsnOf(path) < lsn) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    static void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            log.debug("Could not force directory {}", directory, e);
+        }
+    }
+
+    private static boolean isIntact(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 2 * Integer.BYTES + Long.BYTES + Integer.BYTES + TRAILER_SIZE) {
+                return false;
+            }
+            long checked = size - Long.BYTES;
+            ByteBuffer buffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+            readFully(channel, buffer.limit(2 * Integer.BYTES), 0);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != VERSION) {
+                return false;
+            }
+
+            CRC32C crc = new CRC32C();
+            for (long position = 0; position < checked; position += buffer.limit()) {
+                readFully(channel, buffer.clear().limit((int) Math.min(buffer.capacity(), checked - position)), position);
+                crc.update(buffer.flip());
+            }
+            readFully(channel, buffer.clear().limit(Long.BYTES), checked);
+            return crc.getValue() == buffer.getLong(0);
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException();
+            }
+        }
+    }
+
+    private static List<Path> snapshots(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(path -> path.getFileName().toString().startsWith(SNAPSHOT_PREFIX) && path.getFileName().toString().endsWith(SNAPSHOT_SUFFIX))
+                    .sorted(Comparator.comparingLong(SnapshotFiles::lsnOf))
+                    .toList();
+        }
+    }
+
+    private static long lsnOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SNAPSHOT_PREFIX.length(), name.length() - SNAPSHOT_SUFFIX.length()));
+    }
+}
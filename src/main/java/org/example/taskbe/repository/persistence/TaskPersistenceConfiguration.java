@@ -0,0 +1,54 @@
+package org.example.taskbe.repository.persistence;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskbe.domain.entity.TaskEntity;
+import org.example.taskbe.repository.TaskRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.util.Optional;
+
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(TaskPersistenceProperties.class)
+@ConditionalOnProperty(prefix = "taskbe.persistence", name = "enabled", havingValue = "true")
+public class TaskPersistenceConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public WriteAheadLog writeAheadLog(TaskPersistenceProperties properties, TaskRepository taskRepository) throws IOException {
+        long started = System.nanoTime();
+        Optional<SnapshotFiles.Snapshot> snapshot = SnapshotFiles.loadLatest(properties.getDirectory(), taskRepository::restore);
+        snapshot.ifPresent(loaded -> taskRepository.restoreSequence(loaded.sequence()));
+
+        WriteAheadLog writeAheadLog = WriteAheadLog.open(
+                properties.getDirectory(),
+                snapshot.map(SnapshotFiles.Snapshot::lsn).orElse(1L),
+                properties.getFsync(),
+                properties.getFsyncInterval(),
+                properties.getSegmentSize().toBytes(),
+                new WriteAheadLog.Replay() {
+                    @Override
+                    public void upsert(TaskEntity taskEntity) {
+                        taskRepository.restore(taskEntity);
+                    }
+
+                    @Override
+                    public void delete(int id) {
+                        taskRepository.restoreDelete(id);
+                    }
+                });
+        taskRepository.setJournal(writeAheadLog);
+        taskRepository.setInstanceId(writeAheadLog.getInstanceId());
+        log.info("Recovered {} tasks from {} ({} from snapshot) in {} ms", taskRepository.count(), properties.getDirectory(),
+                snapshot.map(SnapshotFiles.Snapshot::count).orElse(0), (System.nanoTime() - started) / 1_000_000);
+        return writeAheadLog;
+    }
+
+    @Bean(destroyMethod = "close")
+    public TaskSnapshotter taskSnapshotter(TaskPersistenceProperties properties, TaskRepository taskRepository, WriteAheadLog writeAheadLog) {
+        return new TaskSnapshotter(properties.getDirectory(), taskRepository, writeAheadLog, properties.getSnapshotInterval());
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.taskbe.repository.persistence;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "taskbe.persistence")
+public class TaskPersistenceProperties {
+    private boolean enabled = false;
+    private Path directory = Path.of("data");
+    private FsyncPolicy fsync = FsyncPolicy.BATCHED;
+    private Duration fsyncInterval = Duration.ofMillis(100);
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+    private Duration snapshotInterval = Duration.ofMinutes(10);
+}
@@ -0,0 +1,105 @@
+package org.example.taskbe.repository.persistence;
+
+import org.example.taskbe.domain.Priority;
+import org.example.taskbe.domain.Topic;
+import org.example.taskbe.domain.entity.TaskEntity;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Binary encoding of a {@link TaskEntity} shared by the write-ahead log and snapshots.
+ */
+public final class TaskRecordCodec {
+    private static final int FIXED_SIZE = Integer.BYTES + 3 + 2 * (Long.BYTES + Integer.BYTES) + 2 * Integer.BYTES + Long.BYTES;
+    private static final long NO_DATE = Long.MIN_VALUE;
+    private static final int NO_STRING = -1;
+
+    private static final Topic[] TOPICS = Topic.values();
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    private TaskRecordCodec() {
+    }
+
+    public static byte[] encode(TaskEntity taskEntity) {
+        byte[] title = utf8(taskEntity.getTitle());
+        byte[] description = utf8(taskEntity.getDescription());
+        ByteBuffer buffer = ByteBuffer.allocate(FIXED_SIZE + length(title) + length(description));
+        buffer.putInt(taskEntity.getId());
+        buffer.put(taskEntity.getTopic() == null ? -1 : (byte) taskEntity.getTopic().ordinal());
+        buffer.put(taskEntity.getPriority() == null ? -1 : (byte) taskEntity.getPriority().ordinal());
+        buffer.put(taskEntity.isDone() ? (byte) 1 : 0);
+        writeDateTime(buffer, taskEntity.getDueAt());
+        writeDateTime(buffer, taskEntity.getCreatedAt());
+        writeBytes(buffer, title);
+        writeBytes(buffer, description);
+        buffer.putLong(taskEntity.getVersion());
+        return buffer.array();
+    }
+
+    public static TaskEntity read(ByteBuffer buffer) {
+        int id = buffer.getInt();
+        byte topic = buffer.get();
+        byte priority = buffer.get();
+        boolean done = buffer.get() == 1;
+        LocalDateTime dueAt = readDateTime(buffer);
+        LocalDateTime createdAt = readDateTime(buffer);
+        String title = readString(buffer);
+        String description = readString(buffer);
+        // Records written before tasks were versioned end after the description.
+        long version = buffer.remaining() >= Long.BYTES ? buffer.getLong() : 0;
+        return new TaskEntity(
+                id,
+                topic < 0 ? null : TOPICS[topic],
+                title,
+                description,
+                dueAt,
+                done,
+                createdAt,
+                priority < 0 ? null : PRIORITIES[priority],
+                version
+        );
+    }
+
+    private static void writeDateTime(ByteBuffer buffer, LocalDateTime dateTime) {
+        if (dateTime == null) {
+            buffer.putLong(NO_DATE).putInt(0);
+        } else {
+            buffer.putLong(dateTime.toEpochSecond(ZoneOffset.UTC)).putInt(dateTime.getNano());
+        }
+    }
+
+    private static LocalDateTime readDateTime(ByteBuffer buffer) {
+        long seconds = buffer.getLong();
+        int nanos = buffer.getInt();
+        return seconds == NO_DATE ? null : LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    private static void writeBytes(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(NO_STRING);
+        } else {
+            buffer.putInt(bytes.length).put(bytes);
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == NO_STRING) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+}
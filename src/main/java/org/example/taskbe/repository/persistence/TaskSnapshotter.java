@@ -0,0 +1,71 @@
+package org.example.taskbe.repository.persistence;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskbe.repository.TaskRepository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically writes the repository to a snapshot file and drops the log segments it supersedes.
+ * <p>
+ * Writers are never stopped. The log is rotated first, then the snapshotter waits for writes that
+ * were already in flight, so every record before the rotation point is reflected in memory. The
+ * tasks are then copied while writers continue; changes made during the copy are also in the log
+ * after the rotation point, and replaying those full-state records over the snapshot yields the
+ * state as of the last record.
+ */
+@Slf4j
+public class TaskSnapshotter implements Closeable {
+    private final Path directory;
+    private final TaskRepository taskRepository;
+    private final WriteAheadLog writeAheadLog;
+    private final ScheduledExecutorService scheduler;
+
+    public TaskSnapshotter(Path directory, TaskRepository taskRepository, WriteAheadLog writeAheadLog, Duration interval) {
+        this.directory = directory;
+        this.taskRepository = taskRepository;
+        this.writeAheadLog = writeAheadLog;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("task-snapshotter").daemon().factory());
+        if (!interval.isZero() && !interval.isNegative()) {
+            scheduler.scheduleWithFixedDelay(this::snapshotQuietly, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public synchronized SnapshotFiles.Snapshot snapshot() throws IOException {
+        long started = System.nanoTime();
+        long lsn = writeAheadLog.rotate();
+        taskRepository.awaitInFlightWrites();
+
+        SnapshotFiles.Snapshot snapshot = SnapshotFiles.write(directory, lsn, taskRepository.getSequence(), taskRepository.streamAll());
+        writeAheadLog.deleteSegmentsBefore(lsn);
+        SnapshotFiles.deleteSnapshotsBefore(directory, lsn);
+
+        log.info("Wrote snapshot of {} tasks at LSN {} in {} ms", snapshot.count(), lsn, (System.nanoTime() - started) / 1_000_000);
+        return snapshot;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        snapshotQuietly();
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            log.error("Snapshot failed; the write-ahead log is kept in full", e);
+        }
+    }
+}
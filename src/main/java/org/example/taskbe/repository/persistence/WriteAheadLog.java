@@ -0,0 +1,456 @@
+package org.example.taskbe.repository.persistence;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskbe.domain.entity.TaskEntity;
+import org.example.taskbe.repository.TaskJournal;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only binary log of task mutations with group commit.
+ * <p>
+ * The log is a sequence of segment files named after the LSN of their first record. Each record is
+ * framed as {@code length | crc32c | lsn | type | payload}. Writers only enqueue records; a single
+ * writer thread drains the queue, assigns LSNs, writes everything pending in one go and forces the
+ * channel according to the {@link FsyncPolicy}. On open, the segments are replayed and a torn or
+ * corrupt tail left by a crash is truncated.
+ */
+@Slf4j
+public class WriteAheadLog implements TaskJournal, Closeable {
+    private static final String SEGMENT_PREFIX = "tasks-";
+    private static final String SEGMENT_SUFFIX = ".wal";
+    private static final String INSTANCE_FILE = "instance-id";
+
+    private static final byte UPSERT = 1;
+    private static final byte DELETE = 2;
+    private static final int FRAME_HEADER_SIZE = 2 * Integer.BYTES;
+    private static final int RECORD_HEADER_SIZE = Long.BYTES + 1;
+    private static final int MAX_RECORD_SIZE = 16 * 1024 * 1024;
+    private static final int MAX_BATCH_RECORDS = 4096;
+
+    public interface Replay {
+        void upsert(TaskEntity taskEntity);
+
+        void delete(int id);
+    }
+
+    private record Segment(Path path, long firstLsn) {
+    }
+
+    private static final class Pending {
+        private final byte type;
+        private final byte[] payload;
+        private volatile boolean durable;
+
+        private Pending(byte type, byte[] payload) {
+            this.type = type;
+            this.payload = payload;
+        }
+    }
+
+    private final Path directory;
+    private final long instanceId;
+    private final FsyncPolicy policy;
+    private final long fsyncIntervalNanos;
+    private final long segmentSize;
+    private final Queue<Pending> pending = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Pending> lastAppended = new ThreadLocal<>();
+    private final ReentrantLock durableLock = new ReentrantLock();
+    private final Condition recordsDurable = durableLock.newCondition();
+    private final Thread writer;
+
+    private FileChannel channel;
+    private volatile CompletableFuture<Long> rotation;
+    private volatile long writtenLsn;
+    private volatile IOException failure;
+    private volatile boolean closed;
+
+    private WriteAheadLog(Path directory, long instanceId, FileChannel channel, long lastLsn, FsyncPolicy policy, Duration fsyncInterval,
+                          long segmentSize) {
+        this.directory = directory;
+        this.instanceId = instanceId;
+        this.channel = channel;
+        this.policy = policy;
+        this.fsyncIntervalNanos = fsyncInterval.toNanos();
+        this.segmentSize = segmentSize;
+        this.writtenLsn = lastLsn;
+        this.writer = Thread.ofPlatform().name("task-wal-writer").daemon().start(this::runWriter);
+    }
+
+    /**
+     * Replays every record with an LSN of at least {@code fromLsn} and opens the log for appending.
+     */
+    public static WriteAheadLog open(Path directory, long fromLsn, FsyncPolicy policy, Duration fsyncInterval, long segmentSize,
+                                     Replay replay) throws IOException {
+        Files.createDirectories(directory);
+        long instanceId = loadInstanceId(directory);
+        List<Segment> segments = segments(directory);
+        long lastLsn = fromLsn - 1;
+        long validLength = 0;
+
+        for (int i = 0; i < segments.size(); i++) {
+            Segment segment = segments.get(i);
+            long[] segmentLastLsn = {segment.firstLsn() - 1};
+            validLength = replay(segment.path(), fromLsn, replay, segmentLastLsn);
+            lastLsn = Math.max(lastLsn, segmentLastLsn[0]);
+
+            long size = Files.size(segment.path());
+            if (validLength < size) {
+                if (i < segments.size() - 1) {
+                    throw new IOException("Corrupt record at offset " + validLength + " of " + segment.path() + ", which is followed by newer segments");
+                }
+                log.warn("Truncating {} bytes of torn or corrupt records from {}", size - validLength, segment.path());
+                try (FileChannel truncated = FileChannel.open(segment.path(), StandardOpenOption.WRITE)) {
+                    truncated.truncate(validLength);
+                    truncated.force(true);
+                }
+            }
+        }
+
+        FileChannel channel;
+        if (segments.isEmpty()) {
+            channel = createSegment(directory, lastLsn + 1);
+        } else {
+            channel = FileChannel.open(segments.get(segments.size() - 1).path(), StandardOpenOption.WRITE);
+            channel.position(validLength);
+        }
+        return new WriteAheadLog(directory, instanceId, channel, lastLsn, policy, fsyncInterval, segmentSize);
+    }
+
+    @Override
+    public void appendUpsert(TaskEntity taskEntity) {
+        append(UPSERT, TaskRecordCodec.encode(taskEntity));
+    }
+
+    @Override
+    public void appendDelete(int id) {
+        append(DELETE, ByteBuffer.allocate(Integer.BYTES).putInt(id).array());
+    }
+
+    @Override
+    public void awaitDurable() {
+        Pending record = lastAppended.get();
+        if (record == null) {
+            return;
+        }
+        lastAppended.remove();
+        if (policy != FsyncPolicy.PERIODIC && !record.durable) {
+            durableLock.lock();
+            try {
+                while (!record.durable && failure == null) {
+                    recordsDurable.awaitUninterruptibly();
+                }
+            } finally {
+                durableLock.unlock();
+            }
+        }
+        if (failure != null && !record.durable) {
+            throw new UncheckedIOException("Write-ahead log is no longer writable", failure);
+        }
+    }
+
+    /**
+     * Returns the LSN of the last record written to the log file.
+     */
+    public long getWrittenLsn() {
+        return writtenLsn;
+    }
+
+    /**
+     * Returns an ID written once into the log directory. Every process that recovers the same
+     * tasks sees the same ID; a new directory gets a new one.
+     */
+    public long getInstanceId() {
+        return instanceId;
+    }
+
+    /**
+     * Forces the current segment, starts a new one and returns the LSN its first record will get.
+     * Every record appended before this call has a smaller LSN or lands in the new segment.
+     */
+    public synchronized long rotate() throws IOException {
+        if (closed || failure != null) {
+            throw new IOException("Write-ahead log is no longer writable", failure);
+        }
+        CompletableFuture<Long> request = new CompletableFuture<>();
+        rotation = request;
+        LockSupport.unpark(writer);
+        try {
+            return request.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while rotating the write-ahead log", e);
+        }
+    }
+
+    /**
+     * Deletes the segments that only hold records with an LSN below {@code lsn}.
+     */
+    public void deleteSegmentsBefore(long lsn) throws IOException {
+        List<Segment> segments = segments(directory);
+        for (int i = 0; i + 1 < segments.size() && segments.get(i + 1).firstLsn() <= lsn; i++) {
+            Files.deleteIfExists(segments.get(i).path());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+
+    /**
+     * Enqueues a record without blocking. Callers hold the task's map entry lock, so this must never
+     * park: a parked virtual thread inside {@code synchronized} pins its carrier.
+     */
+    private void append(byte type, byte[] payload) {
+        if (closed || failure != null) {
+            throw new UncheckedIOException("Write-ahead log is no longer writable", failure == null ? new IOException("closed") : failure);
+        }
+        Pending record = new Pending(type, payload);
+        pending.add(record);
+        lastAppended.set(record);
+        LockSupport.unpark(writer);
+    }
+
+    private void runWriter() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+        CRC32C crc = new CRC32C();
+        List<Pending> batch = new ArrayList<>();
+        long lsn = writtenLsn;
+        long lastForce = System.nanoTime();
+        boolean unforced = false;
+
+        try {
+            while (true) {
+                Pending record = batch.size() < MAX_BATCH_RECORDS ? pending.poll() : null;
+                if (record != null) {
+                    buffer = write(buffer, crc, ++lsn, record);
+                    batch.add(record);
+                    if (policy == FsyncPolicy.ALWAYS) {
+                        flush(buffer);
+                        channel.force(false);
+                        completed(batch, lsn);
+                    }
+                    continue;
+                }
+
+                if (!batch.isEmpty()) {
+                    flush(buffer);
+                    if (policy == FsyncPolicy.BATCHED) {
+                        channel.force(false);
+                        lastForce = System.nanoTime();
+                    } else {
+                        unforced = true;
+                    }
+                    completed(batch, lsn);
+                }
+
+                CompletableFuture<Long> requested = rotation;
+                if (requested != null || channel.position() >= segmentSize) {
+                    channel.force(false);
+                    unforced = false;
+                    channel.close();
+                    channel = createSegment(directory, lsn + 1);
+                    if (requested != null) {
+                        rotation = null;
+                        requested.complete(lsn + 1);
+                    }
+                    continue;
+                }
+                if (!pending.isEmpty()) {
+                    continue;
+                }
+
+                boolean stopping = closed;
+                if (unforced && (stopping || System.nanoTime() - lastForce >= fsyncIntervalNanos)) {
+                    channel.force(false);
+                    lastForce = System.nanoTime();
+                    unforced = false;
+                }
+                if (stopping) {
+                    return;
+                }
+                if (unforced) {
+                    LockSupport.parkNanos(this, fsyncIntervalNanos - (System.nanoTime() - lastForce));
+                } else {
+                    LockSupport.park(this);
+                }
+            }
+        } catch (IOException e) {
+            log.error("Write-ahead log write failed; rejecting further writes", e);
+            failure = e;
+            CompletableFuture<Long> requested = rotation;
+            if (requested != null) {
+                requested.completeExceptionally(e);
+            }
+            signalDurable();
+        }
+    }
+
+    private void completed(List<Pending> batch, long lsn) {
+        writtenLsn = lsn;
+        for (Pending record : batch) {
+            record.durable = true;
+        }
+        batch.clear();
+        signalDurable();
+    }
+
+    private void signalDurable() {
+        durableLock.lock();
+        try {
+            recordsDurable.signalAll();
+        } finally {
+            durableLock.unlock();
+        }
+    }
+
+    private ByteBuffer write(ByteBuffer buffer, CRC32C crc, long lsn, Pending record) throws IOException {
+        int bodyLength = RECORD_HEADER_SIZE + record.payload.length;
+        if (buffer.remaining() < FRAME_HEADER_SIZE + bodyLength) {
+            flush(buffer);
+            if (buffer.capacity() < FRAME_HEADER_SIZE + bodyLength) {
+                buffer = ByteBuffer.allocateDirect(FRAME_HEADER_SIZE + bodyLength);
+            }
+        }
+
+        int frameStart = buffer.position();
+        buffer.putInt(bodyLength).putInt(0);
+        int bodyStart = buffer.position();
+        buffer.putLong(lsn).put(record.type).put(record.payload);
+
+        crc.reset();
+        crc.update(buffer.duplicate().position(bodyStart).limit(buffer.position()));
+        buffer.putInt(frameStart + Integer.BYTES, (int) crc.getValue());
+        return buffer;
+    }
+
+    private void flush(ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static long loadInstanceId(Path directory) throws IOException {
+        Path file = directory.resolve(INSTANCE_FILE);
+        if (Files.exists(file)) {
+            try {
+                return Long.parseLong(Files.readString(file).trim());
+            } catch (NumberFormatException e) {
+                throw new IOException("Corrupt " + file, e);
+            }
+        }
+        long instanceId = System.currentTimeMillis();
+        Path temporary = directory.resolve(INSTANCE_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(Long.toString(instanceId).getBytes(StandardCharsets.US_ASCII)));
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+        return instanceId;
+    }
+
+    private static FileChannel createSegment(Path directory, long firstLsn) throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstLsn, SEGMENT_SUFFIX));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        SnapshotFiles.forceDirectory(directory);
+        return channel;
+    }
+
+    private static List<Segment> segments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX) && path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .map(path -> {
+                        String name = path.getFileName().toString();
+                        return new Segment(path, Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+                    })
+                    .sorted((a, b) -> Long.compare(a.firstLsn(), b.firstLsn()))
+                    .toList();
+        }
+    }
+
+    private static long replay(Path file, long fromLsn, Replay replay, long[] lastLsn) throws IOException {
+        long validLength = 0;
+        CRC32C crc = new CRC32C();
+        try (InputStream fileStream = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(fileStream, 64 * 1024))) {
+            while (true) {
+                int bodyLength;
+                int checksum;
+                byte[] body;
+                try {
+                    bodyLength = in.readInt();
+                    checksum = in.readInt();
+                    if (bodyLength < RECORD_HEADER_SIZE || bodyLength > MAX_RECORD_SIZE) {
+                        break;
+                    }
+                    body = in.readNBytes(bodyLength);
+                } catch (EOFException e) {
+                    break;
+                }
+                if (body.length < bodyLength) {
+                    break;
+                }
+                crc.reset();
+                crc.update(body);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+
+                ByteBuffer record = ByteBuffer.wrap(body);
+                long lsn = record.getLong();
+                byte type = record.get();
+                if (type != UPSERT && type != DELETE) {
+                    break;
+                }
+                if (lsn >= fromLsn) {
+                    if (type == UPSERT) {
+                        replay.upsert(TaskRecordCodec.read(record));
+                    } else {
+                        replay.delete(record.getInt());
+                    }
+                }
+                lastLsn[0] = lsn;
+                validLength += FRAME_HEADER_SIZE + bodyLength;
+            }
+        }
+        return validLength;
+    }
+}
@@ -0,0 +1,249 @@
+package org.example.taskbe.repository.store;
+
+import org.example.taskbe.domain.Priority;
+import org.example.taskbe.domain.Topic;
+import org.example.taskbe.domain.entity.TaskEntity;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+/**
+ * Stores tasks in primitive columns instead of one object graph per task. IDs are dense, so the
+ * ID is the row number: rows live in fixed-size pages that are allocated as the ID sequence
+ * grows, timestamps are kept as epoch seconds plus nanos, enums as ordinal bytes, {@code done}
+ * and row liveness as bitsets and text as UTF-8 bytes. A {@link TaskEntity} is materialized
+ * on every read.
+ */
+public class ColumnarTaskStore implements TaskStore {
+    private static final int PAGE_SHIFT = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    private static final int STRIPES = 256;
+    private static final long NO_DATE = Long.MIN_VALUE;
+    private static final byte NO_ENUM = -1;
+    private static final byte[] EMPTY = new byte[0];
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private static final Topic[] TOPICS = Topic.values();
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    private final Object[] locks = new Object[STRIPES];
+    private final AtomicInteger size = new AtomicInteger();
+    private volatile Page[] pages = new Page[16];
+
+    public ColumnarTaskStore() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @Override
+    public TaskEntity get(int id) {
+        Page page = page(id);
+        if (page == null) {
+            return null;
+        }
+        synchronized (lock(id)) {
+            return page.read(id, id & PAGE_MASK);
+        }
+    }
+
+    @Override
+    public long version(int id) {
+        Page page = page(id);
+        if (page == null) {
+            return -1;
+        }
+        int row = id & PAGE_MASK;
+        synchronized (lock(id)) {
+            return page.isLive(row) ? page.versions[row] : -1;
+        }
+    }
+
+    @Override
+    public TaskEntity compute(int id, Supplier<TaskEntity> remapping) {
+        return write(id, false, version -> remapping.get());
+    }
+
+    @Override
+    public TaskEntity computeIfPresent(int id, LongFunction<TaskEntity> remapping) {
+        return write(id, true, remapping);
+    }
+
+    @Override
+    public void forEach(Consumer<TaskEntity> action) {
+        Page[] snapshot = pages;
+        for (int p = 0; p < snapshot.length; p++) {
+            Page page = snapshot[p];
+            if (page == null) {
+                continue;
+            }
+            for (int word = 0; word < page.live.length; word++) {
+                for (long bits = (long) WORDS.getVolatile(page.live, word); bits != 0; bits &= bits - 1) {
+                    int id = (p << PAGE_SHIFT) | (word << 6) | Long.numberOfTrailingZeros(bits);
+                    TaskEntity taskEntity = get(id);
+                    if (taskEntity != null) {
+                        action.accept(taskEntity);
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    private TaskEntity write(int id, boolean onlyIfPresent, LongFunction<TaskEntity> remapping) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Task ID must not be negative: " + id);
+        }
+        int row = id & PAGE_MASK;
+        synchronized (lock(id)) {
+            Page page = page(id);
+            if (page == null && !onlyIfPresent) {
+                page = allocate(id);
+            }
+            boolean present = page != null && page.isLive(row);
+            if (onlyIfPresent && !present) {
+                return null;
+            }
+
+            TaskEntity taskEntity = remapping.apply(present ? page.versions[row] : 0);
+            if (taskEntity != null) {
+                page.write(row, taskEntity);
+                if (!present) {
+                    size.incrementAndGet();
+                }
+            } else if (present) {
+                page.clear(row);
+                size.decrementAndGet();
+            }
+            return taskEntity;
+        }
+    }
+
+    private Object lock(int id) {
+        return locks[id & (STRIPES - 1)];
+    }
+
+    private Page page(int id) {
+        Page[] snapshot = pages;
+        int index = id >>> PAGE_SHIFT;
+        return index < snapshot.length ? snapshot[index] : null;
+    }
+
+    // Only reached when the page is missing; existing pages are found through the volatile table.
+    private synchronized Page allocate(int id) {
+        int index = id >>> PAGE_SHIFT;
+        Page[] snapshot = pages;
+        if (index >= snapshot.length) {
+            snapshot = Arrays.copyOf(snapshot, Math.max(index + 1, snapshot.length * 2));
+        } else if (snapshot[index] != null) {
+            return snapshot[index];
+        } else {
+            snapshot = snapshot.clone();
+        }
+        Page page = new Page();
+        snapshot[index] = page;
+        pages = snapshot;
+        return page;
+    }
+
+    private static final class Page {
+        private final long[] live = new long[PAGE_SIZE / Long.SIZE];
+        private final long[] done = new long[PAGE_SIZE / Long.SIZE];
+        private final byte[] topics = new byte[PAGE_SIZE];
+        private final byte[] priorities = new byte[PAGE_SIZE];
+        private final long[] dueSeconds = new long[PAGE_SIZE];
+        private final int[] dueNanos = new int[PAGE_SIZE];
+        private final long[] createdSeconds = new long[PAGE_SIZE];
+        private final int[] createdNanos = new int[PAGE_SIZE];
+        private final long[] versions = new long[PAGE_SIZE];
+        private final byte[][] titles = new byte[PAGE_SIZE][];
+        private final byte[][] descriptions = new byte[PAGE_SIZE][];
+
+        boolean isLive(int row) {
+            return test(live, row);
+        }
+
+        TaskEntity read(int id, int row) {
+            if (!isLive(row)) {
+                return null;
+            }
+            return new TaskEntity(
+                    id,
+                    topics[row] == NO_ENUM ? null : TOPICS[topics[row]],
+                    string(titles[row]),
+                    string(descriptions[row]),
+                    dateTime(dueSeconds[row], dueNanos[row]),
+                    test(done, row),
+                    dateTime(createdSeconds[row], createdNanos[row]),
+                    priorities[row] == NO_ENUM ? null : PRIORITIES[priorities[row]],
+                    versions[row]
+            );
+        }
+
+        void write(int row, TaskEntity taskEntity) {
+            topics[row] = taskEntity.getTopic() == null ? NO_ENUM : (byte) taskEntity.getTopic().ordinal();
+            priorities[row] = taskEntity.getPriority() == null ? NO_ENUM : (byte) taskEntity.getPriority().ordinal();
+            dueSeconds[row] = seconds(taskEntity.getDueAt());
+            dueNanos[row] = taskEntity.getDueAt() == null ? 0 : taskEntity.getDueAt().getNano();
+            createdSeconds[row] = seconds(taskEntity.getCreatedAt());
+            createdNanos[row] = taskEntity.getCreatedAt() == null ? 0 : taskEntity.getCreatedAt().getNano();
+            titles[row] = utf8(taskEntity.getTitle());
+            descriptions[row] = utf8(taskEntity.getDescription());
+            versions[row] = taskEntity.getVersion();
+            assign(done, row, taskEntity.isDone());
+            assign(live, row, true);
+        }
+
+        void clear(int row) {
+            assign(live, row, false);
+            assign(done, row, false);
+            titles[row] = null;
+            descriptions[row] = null;
+        }
+
+        // Neighbouring rows share a bitset word but not a stripe lock, so words are updated atomically.
+        private static boolean test(long[] words, int row) {
+            return ((long) WORDS.getVolatile(words, row >>> 6) & (1L << row)) != 0;
+        }
+
+        private static void assign(long[] words, int row, boolean value) {
+            if (value) {
+                WORDS.getAndBitwiseOr(words, row >>> 6, 1L << row);
+            } else {
+                WORDS.getAndBitwiseAnd(words, row >>> 6, ~(1L << row));
+            }
+        }
+
+        private static long seconds(LocalDateTime dateTime) {
+            return dateTime == null ? NO_DATE : dateTime.toEpochSecond(ZoneOffset.UTC);
+        }
+
+        private static LocalDateTime dateTime(long seconds, int nanos) {
+            return seconds == NO_DATE ? null : LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+        }
+
+        private static byte[] utf8(String value) {
+            if (value == null) {
+                return null;
+            }
+            return value.isEmpty() ? EMPTY : value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        private static String string(byte[] bytes) {
+            return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
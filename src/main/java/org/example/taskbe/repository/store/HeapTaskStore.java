@@ -0,0 +1,47 @@
+package org.example.taskbe.repository.store;
+
+import org.example.taskbe.domain.entity.TaskEntity;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+/**
+ * Keeps every {@link TaskEntity} as is in a concurrent map.
+ */
+public class HeapTaskStore implements TaskStore {
+    private final ConcurrentMap<Integer, TaskEntity> tasks = new ConcurrentHashMap<>();
+
+    @Override
+    public TaskEntity get(int id) {
+        return tasks.get(id);
+    }
+
+    @Override
+    public long version(int id) {
+        TaskEntity taskEntity = tasks.get(id);
+        return taskEntity == null ? -1 : taskEntity.getVersion();
+    }
+
+    @Override
+    public TaskEntity compute(int id, Supplier<TaskEntity> remapping) {
+        return tasks.compute(id, (key, previous) -> remapping.get());
+    }
+
+    @Override
+    public TaskEntity computeIfPresent(int id, LongFunction<TaskEntity> remapping) {
+        return tasks.computeIfPresent(id, (key, previous) -> remapping.apply(previous.getVersion()));
+    }
+
+    @Override
+    public void forEach(Consumer<TaskEntity> action) {
+        tasks.values().forEach(action);
+    }
+
+    @Override
+    public int size() {
+        return tasks.size();
+    }
+}
@@ -0,0 +1,95 @@
+package org.example.taskbe.repository.store;
+
+import org.example.taskbe.domain.entity.TaskEntity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+/**
+ * Shards tasks by ID into independent {@link HeapTaskStore} partitions. A single-task operation
+ * only touches the partition of its ID, and reading every task gathers the partitions in parallel.
+ * Consecutive IDs land in different partitions, so concurrent creates spread out evenly.
+ */
+public class PartitionedTaskStore implements TaskStore {
+    private final TaskStore[] partitions;
+    private final int mask;
+
+    public PartitionedTaskStore() {
+        this(defaultPartitions());
+    }
+
+    public PartitionedTaskStore(int partitions) {
+        if (partitions <= 0 || Integer.bitCount(partitions) != 1) {
+            throw new IllegalArgumentException("Partition count must be a power of two, got " + partitions);
+        }
+        this.partitions = new TaskStore[partitions];
+        for (int i = 0; i < partitions; i++) {
+            this.partitions[i] = new HeapTaskStore();
+        }
+        this.mask = partitions - 1;
+    }
+
+    /**
+     * Returns the smallest power of two that is at least twice the number of available processors.
+     */
+    public static int defaultPartitions() {
+        return Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1) << 1;
+    }
+
+    @Override
+    public TaskEntity get(int id) {
+        return partition(id).get(id);
+    }
+
+    @Override
+    public long version(int id) {
+        return partition(id).version(id);
+    }
+
+    @Override
+    public TaskEntity compute(int id, Supplier<TaskEntity> remapping) {
+        return partition(id).compute(id, remapping);
+    }
+
+    @Override
+    public TaskEntity computeIfPresent(int id, LongFunction<TaskEntity> remapping) {
+        return partition(id).computeIfPresent(id, remapping);
+    }
+
+    @Override
+    public void forEach(Consumer<TaskEntity> action) {
+        for (TaskStore partition : partitions) {
+            partition.forEach(action);
+        }
+    }
+
+    @Override
+    public List<TaskEntity> values() {
+        List<List<TaskEntity>> gathered = Arrays.stream(partitions).parallel().map(TaskStore::values).toList();
+        List<TaskEntity> all = new ArrayList<>(gathered.stream().mapToInt(List::size).sum());
+        gathered.forEach(all::addAll);
+        return all;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (TaskStore partition : partitions) {
+            size += partition.size();
+        }
+        return size;
+    }
+
+    @Override
+    public int partitions() {
+        return partitions.length;
+    }
+
+    private TaskStore partition(int id) {
+        return partitions[id & mask];
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.taskbe.repository.store;
+
+import org.example.taskbe.domain.entity.TaskEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+/**
+ * Primary storage of tasks by ID. Writes to one ID are serialized, so indexes can be updated
+ * inside {@code remapping} without further locking.
+ */
+public interface TaskStore {
+
+    TaskEntity get(int id);
+
+    /**
+     * Returns the stored version without materializing the task, or -1 if there is no task with that ID.
+     */
+    long version(int id);
+
+    /**
+     * Stores the task returned by {@code remapping}, or removes the ID when it returns null.
+     */
+    TaskEntity compute(int id, Supplier<TaskEntity> remapping);
+
+    /**
+     * Same as {@link #compute} but only runs {@code remapping}, with the stored version, when the ID is present.
+     */
+    TaskEntity computeIfPresent(int id, LongFunction<TaskEntity> remapping);
+
+    void forEach(Consumer<TaskEntity> action);
+
+    /**
+     * Returns a new, modifiable list of every stored task in no particular order.
+     */
+    default List<TaskEntity> values() {
+        List<TaskEntity> all = new ArrayList<>(size());
+        forEach(all::add);
+        return all;
+    }
+
+    int size();
+
+    /**
+     * Returns the number of independent partitions, a power of two. ID {@code id} belongs to
+     * partition {@code id & (partitions() - 1)}, so indexes can be striped the same way.
+     */
+    default int partitions() {
+        return 1;
+    }
+}
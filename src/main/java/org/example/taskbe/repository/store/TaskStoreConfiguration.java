@@ -0,0 +1,35 @@
+package org.example.taskbe.repository.store;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Selects the task storage engine with {@code taskbe.storage.engine} ({@code heap}, {@code columnar}
+ * or {@code partitioned}).
+ */
+@Configuration
+public class TaskStoreConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "taskbe.storage", name = "engine", havingValue = "heap", matchIfMissing = true)
+    public TaskStore heapTaskStore() {
+        return new HeapTaskStore();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "taskbe.storage", name = "engine", havingValue = "columnar")
+    public TaskStore columnarTaskStore() {
+        return new ColumnarTaskStore();
+    }
+
+    /**
+     * Uses {@code taskbe.storage.partitions} partitions, or twice the processor count rounded up to a power of two.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "taskbe.storage", name = "engine", havingValue = "partitioned")
+    public TaskStore partitionedTaskStore(@Value("${taskbe.storage.partitions:0}") int partitions) {
+        return partitions == 0 ? new PartitionedTaskStore() : new PartitionedTaskStore(partitions);
+    }
+}
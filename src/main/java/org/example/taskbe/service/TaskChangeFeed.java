@@ -0,0 +1,148 @@
+package org.example.taskbe.service;
+
+import org.example.taskbe.domain.dto.TaskChangeEvent;
+import org.example.taskbe.domain.dto.TaskDto;
+import org.example.taskbe.domain.entity.TaskEntity;
+import org.example.taskbe.repository.TaskChangeListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Keeps the most recent task changes in a ring buffer, numbered from 1. A change claims its
+ * sequence number while the repository holds the task's lock, so the events of one task are
+ * numbered in the order they were applied. The event is stored and waiting readers are woken once
+ * the change is durable; readers wait at a claimed but unpublished number, so they never see
+ * changes out of order. Publishing never blocks, so a slow reader only ever loses events that
+ * were overwritten.
+ *
+ * <p>Numbers start over with every process, so they are only meaningful together with
+ * {@link #getInstanceId()}.
+ */
+public class TaskChangeFeed implements TaskChangeListener {
+    private final long instanceId = System.currentTimeMillis();
+    private final AtomicReferenceArray<TaskChangeEvent> slots;
+    private final int mask;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Set<Thread> waiters = ConcurrentHashMap.newKeySet();
+    private final ThreadLocal<List<TaskChangeEvent>> pending = ThreadLocal.withInitial(ArrayList::new);
+
+    public TaskChangeFeed(int bufferSize) {
+        if (bufferSize <= 0 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("Change buffer size must be a power of two, got " + bufferSize);
+        }
+        slots = new AtomicReferenceArray<>(bufferSize);
+        mask = bufferSize - 1;
+    }
+
+    /**
+     * Claims the next sequence number for a stored task; a task at version 1 was just created.
+     */
+    @Override
+    public void changed(TaskEntity taskEntity) {
+        TaskChangeEvent.Type type = taskEntity.getVersion() == 1 ? TaskChangeEvent.Type.CREATED : TaskChangeEvent.Type.UPDATED;
+        claim(type, taskEntity.getId(), TaskDto.toDto(taskEntity));
+    }
+
+    @Override
+    public void deleted(int id) {
+        claim(TaskChangeEvent.Type.DELETED, id, null);
+    }
+
+    /**
+     * Publishes the events the calling thread has claimed.
+     */
+    @Override
+    public void durable() {
+        List<TaskChangeEvent> events = pending.get();
+        if (events.isEmpty()) {
+            return;
+        }
+        for (TaskChangeEvent event : events) {
+            store(event);
+        }
+        events.clear();
+        for (Thread waiter : waiters) {
+            LockSupport.unpark(waiter);
+        }
+    }
+
+    /**
+     * Identifies this feed's numbering; it changes whenever the numbers start over.
+     */
+    public long getInstanceId() {
+        return instanceId;
+    }
+
+    /**
+     * Returns the sequence number of the latest published, or still being published, event.
+     */
+    public long head() {
+        return sequence.get();
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Returns the event at {@code sequence}, or null if it has not been published yet. If the
+     * reader fell more than {@link #capacity()} events behind, a newer event is returned instead.
+     */
+    public TaskChangeEvent poll(long sequence) {
+        TaskChangeEvent event = slots.get((int) (sequence & mask));
+        return event == null || event.getSequence() < sequence ? null : event;
+    }
+
+    /**
+     * Waits until the event at {@code sequence} is published, the timeout passes or the thread is
+     * interrupted, and returns it as {@link #poll} would.
+     */
+    public TaskChangeEvent await(long sequence, Duration timeout) {
+        TaskChangeEvent event = poll(sequence);
+        if (event != null) {
+            return event;
+        }
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Thread current = Thread.currentThread();
+        waiters.add(current);
+        try {
+            // Polled again after registering, so a publish in between is not missed.
+            while ((event = poll(sequence)) == null && !current.isInterrupted()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                LockSupport.parkNanos(this, remaining);
+            }
+            return event;
+        } finally {
+            waiters.remove(current);
+        }
+    }
+
+    /**
+     * Stores an event unless a newer one already took its slot: a writer delayed by its durability
+     * wait may publish after the buffer wrapped past its number, and must not replace the newer event.
+     */
+    private void store(TaskChangeEvent event) {
+        int slot = (int) (event.getSequence() & mask);
+        TaskChangeEvent current = slots.get(slot);
+        while (current == null || current.getSequence() < event.getSequence()) {
+            if (slots.compareAndSet(slot, current, event)) {
+                return;
+            }
+            current = slots.get(slot);
+        }
+    }
+
+    private void claim(TaskChangeEvent.Type type, int id, TaskDto taskDto) {
+        pending.get().add(new TaskChangeEvent(sequence.incrementAndGet(), type, id, taskDto));
+    }
+}
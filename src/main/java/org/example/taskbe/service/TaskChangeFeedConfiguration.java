@@ -0,0 +1,17 @@
+package org.example.taskbe.service;
+
+import org.example.taskbe.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class TaskChangeFeedConfiguration {
+
+    @Bean
+    public TaskChangeFeed taskChangeFeed(@Value("${taskbe.changes.buffer-size:4096}") int bufferSize, TaskRepository taskRepository) {
+        TaskChangeFeed taskChangeFeed = new TaskChangeFeed(bufferSize);
+        taskRepository.setChangeListener(taskChangeFeed);
+        return taskChangeFeed;
+    }
+}
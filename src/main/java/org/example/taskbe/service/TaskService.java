@@ -1,28 +1,79 @@
 package org.example.taskbe.service;
 
+import org.example.taskbe.domain.Priority;
+import org.example.taskbe.domain.Topic;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.example.taskbe.domain.dto.TaskBatchOperation;
+import org.example.taskbe.domain.dto.TaskBatchResult;
 import org.example.taskbe.domain.dto.TaskDto;
+import org.example.taskbe.domain.dto.TaskQueryDto;
+import org.example.taskbe.domain.dto.TaskStatsDto;
 import org.example.taskbe.domain.entity.TaskEntity;
+import org.example.taskbe.repository.TaskQueryResult;
 import org.example.taskbe.repository.TaskRepository;
+import org.example.taskbe.repository.TaskSort;
+import org.example.taskbe.repository.VersionConflictException;
+import org.example.taskbe.repository.index.OrderedIndex;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Service
 public class TaskService {
+    static final int DEFAULT_QUERY_LIMIT = 1000;
+
     @Autowired
     TaskRepository taskRepository;
 
+    @Autowired
+    Validator validator;
+
+    /**
+     * Runs the {@code *Async} variants, each call on its own virtual thread, so a caller can
+     * fan out several lookups that block on locks or the journal without tying up a pool.
+     */
+    ExecutorService asyncExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
     public List<TaskEntity> getAllTasks() {
         return taskRepository.findAll();
     }
 
-    public Optional<TaskEntity> getById(int id) throws IndexOutOfBoundsException {
+    public Stream<TaskEntity> streamAllTasks() {
+        return taskRepository.streamAll();
+    }
+
+    public List<TaskEntity> getTaskPage(TaskSort sort, OrderedIndex.Entry after, int limit) {
+        return taskRepository.findPage(sort, after, limit);
+    }
+
+    public Optional<TaskEntity> getById(int id) {
         return taskRepository.findById(id);
     }
 
+    public long getVersion(int id) {
+        return taskRepository.findVersion(id);
+    }
+
+    public long getInstanceId() {
+        return taskRepository.getInstanceId();
+    }
+
+    public long getChangeStamp() {
+        return taskRepository.getChangeStamp();
+    }
+
     public TaskEntity saveTask(TaskDto taskDto) {
         taskDto.setCreatedAt(LocalDateTime.now());
         return taskRepository.create(TaskEntity.toEntity(taskDto));
@@ -32,13 +83,245 @@ public class TaskService {
         return taskRepository.findByTitle(title);
     }
 
-    public TaskEntity editTask(TaskDto taskDto, int id) {
+    public List<TaskEntity> searchTasks(String query, int limit) {
+        return taskRepository.search(query, limit);
+    }
+
+    public List<TaskEntity> getFilteredTasks(Topic topic, Priority priority, Boolean done) {
+        return taskRepository.findByFilter(topic, priority, done);
+    }
+
+    public List<TaskEntity> getTasksDueBetween(LocalDateTime from, LocalDateTime to) {
+        return taskRepository.findDueBetween(from, to);
+    }
+
+    public List<TaskEntity> getOverdueTasks() {
+        return taskRepository.findOverdue(LocalDateTime.now());
+    }
+
+    public List<TaskEntity> getUpcomingTasks(int limit) {
+        return taskRepository.findNextDue(LocalDateTime.now(), limit);
+    }
+
+    public List<TaskEntity> getUrgentTasks(int limit) {
+        return taskRepository.findMostUrgent(limit);
+    }
+
+    public TaskQueryResult queryTasks(TaskQueryDto query) {
+        TaskSort sort = query.getSort() == null ? TaskSort.ID : TaskSort.fromParameter(query.getSort());
+        int limit = query.getLimit() == null ? DEFAULT_QUERY_LIMIT : query.getLimit();
+        return taskRepository.query(query.getWhere(), sort, limit);
+    }
+
+    public TaskStatsDto getStatistics() {
+        return taskRepository.getStatistics(LocalDateTime.now());
+    }
+
+    public Optional<TaskEntity> editTask(TaskDto taskDto, int id) {
+        return editTask(taskDto, id, null);
+    }
+
+    /**
+     * Replaces a task, or returns empty if there is no task with that ID. With an
+     * {@code expectedVersion} the task must exist at that version, otherwise a
+     * {@link VersionConflictException} is thrown.
+     */
+    public Optional<TaskEntity> editTask(TaskDto taskDto, int id, Long expectedVersion) {
         taskDto.setId(id);
         taskDto.setCreatedAt(LocalDateTime.now());
-        return taskRepository.create(TaskEntity.toEntity(taskDto));
+        TaskEntity taskEntity = TaskEntity.toEntity(taskDto);
+        Optional<TaskEntity> updated = taskRepository.update(taskEntity, expectedVersion == null ? TaskRepository.ANY_VERSION : expectedVersion);
+        if (updated.isEmpty() && expectedVersion != null) {
+            throw new VersionConflictException("Task " + id + " does not exist");
+        }
+        return updated;
+    }
+
+    public boolean deleteTask(int id) {
+        return taskRepository.delete(id);
+    }
+
+    /**
+     * Deletes a task, returning whether there was one. With an {@code expectedVersion} the task
+     * must exist at that version, otherwise a {@link VersionConflictException} is thrown.
+     */
+    public boolean deleteTask(int id, Long expectedVersion) {
+        if (expectedVersion == null) {
+            return deleteTask(id);
+        }
+        if (!taskRepository.delete(id, expectedVersion)) {
+            throw new VersionConflictException("Task " + id + " does not exist");
+        }
+        return true;
+    }
+
+    /**
+     * Applies the valid operations in order and waits for the journal once for all of them.
+     */
+    public List<TaskBatchResult> applyBatch(List<TaskBatchOperation> operations) {
+        TaskBatchResult[] results = new TaskBatchResult[operations.size()];
+        for (int i = 0; i < operations.size(); i++) {
+            String error = validate(operations.get(i));
+            if (error != null) {
+                results[i] = new TaskBatchResult(i, HttpStatus.BAD_REQUEST.value(), null, error);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        taskRepository.batch(() -> {
+            for (int i = 0; i < operations.size(); i++) {
+                if (results[i] == null) {
+                    results[i] = apply(i, operations.get(i), now);
+                }
+            }
+            return null;
+        });
+        return List.of(results);
+    }
+
+    public CompletableFuture<List<TaskEntity>> getAllTasksAsync() {
+        return async(this::getAllTasks);
+    }
+
+    public CompletableFuture<List<TaskEntity>> getTaskPageAsync(TaskSort sort, OrderedIndex.Entry after, int limit) {
+        return async(() -> getTaskPage(sort, after, limit));
+    }
+
+    public CompletableFuture<Optional<TaskEntity>> getByIdAsync(int id) {
+        return async(() -> getById(id));
+    }
+
+    public CompletableFuture<Long> getVersionAsync(int id) {
+        return async(() -> getVersion(id));
+    }
+
+    public CompletableFuture<Long> getChangeStampAsync() {
+        return async(this::getChangeStamp);
+    }
+
+    public CompletableFuture<TaskEntity> saveTaskAsync(TaskDto taskDto) {
+        return async(() -> saveTask(taskDto));
+    }
+
+    public CompletableFuture<List<TaskEntity>> getTaskByTitleAsync(String title) {
+        return async(() -> getTaskByTitle(title));
+    }
+
+    public CompletableFuture<List<TaskEntity>> searchTasksAsync(String query, int limit) {
+        return async(() -> searchTasks(query, limit));
+    }
+
+    public CompletableFuture<List<TaskEntity>> getFilteredTasksAsync(Topic topic, Priority priority, Boolean done) {
+        return async(() -> getFilteredTasks(topic, priority, done));
+    }
+
+    public CompletableFuture<List<TaskEntity>> getTasksDueBetweenAsync(LocalDateTime from, LocalDateTime to) {
+        return async(() -> getTasksDueBetween(from, to));
+    }
+
+    public CompletableFuture<List<TaskEntity>> getOverdueTasksAsync() {
+        return async(this::getOverdueTasks);
+    }
+
+    public CompletableFuture<List<TaskEntity>> getUpcomingTasksAsync(int limit) {
+        return async(() -> getUpcomingTasks(limit));
+    }
+
+    public CompletableFuture<List<TaskEntity>> getUrgentTasksAsync(int limit) {
+        return async(() -> getUrgentTasks(limit));
+    }
+
+    public CompletableFuture<TaskQueryResult> queryTasksAsync(TaskQueryDto query) {
+        return async(() -> queryTasks(query));
+    }
+
+    public CompletableFuture<TaskStatsDto> getStatisticsAsync() {
+        return async(this::getStatistics);
+    }
+
+    public CompletableFuture<Optional<TaskEntity>> editTaskAsync(TaskDto taskDto, int id) {
+        return async(() -> editTask(taskDto, id));
+    }
+
+    public CompletableFuture<Optional<TaskEntity>> editTaskAsync(TaskDto taskDto, int id, Long expectedVersion) {
+        return async(() -> editTask(taskDto, id, expectedVersion));
+    }
+
+    public CompletableFuture<Boolean> deleteTaskAsync(int id) {
+        return async(() -> deleteTask(id));
+    }
+
+    public CompletableFuture<Boolean> deleteTaskAsync(int id, Long expectedVersion) {
+        return async(() -> deleteTask(id, expectedVersion));
+    }
+
+    public CompletableFuture<List<TaskBatchResult>> applyBatchAsync(List<TaskBatchOperation> operations) {
+        return async(() -> applyBatch(operations));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        asyncExecutor.shutdown();
+    }
+
+    private <T> CompletableFuture<T> async(Supplier<T> work) {
+        return CompletableFuture.supplyAsync(work, asyncExecutor);
+    }
+
+    private String validate(TaskBatchOperation operation) {
+        if (operation == null || operation.getType() == null) {
+            return "type: must not be null";
+        }
+        if (operation.getType() != TaskBatchOperation.Type.CREATE && operation.getId() == null) {
+            return "id: must not be null";
+        }
+        if (operation.getType() == TaskBatchOperation.Type.DELETE) {
+            return null;
+        }
+        if (operation.getTask() == null) {
+            return "task: must not be null";
+        }
+
+        List<String> violations = new ArrayList<>();
+        for (ConstraintViolation<TaskDto> violation : validator.validate(operation.getTask())) {
+            violations.add("task." + violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        violations.sort(null);
+        return violations.isEmpty() ? null : String.join(", ", violations);
+    }
+
+    private TaskBatchResult apply(int index, TaskBatchOperation operation, LocalDateTime now) {
+        try {
+            return applyUnchecked(index, operation, now);
+        } catch (VersionConflictException e) {
+            return new TaskBatchResult(index, HttpStatus.PRECONDITION_FAILED.value(), null, e.getMessage());
+        }
     }
 
-    public void deleteTask(int id) {
-        taskRepository.delete(id);
+    private TaskBatchResult applyUnchecked(int index, TaskBatchOperation operation, LocalDateTime now) {
+        long expectedVersion = operation.getVersion() == null ? TaskRepository.ANY_VERSION : operation.getVersion();
+        switch (operation.getType()) {
+            case CREATE -> {
+                TaskDto taskDto = operation.getTask();
+                taskDto.setId(null);
+                taskDto.setCreatedAt(now);
+                TaskEntity created = taskRepository.create(TaskEntity.toEntity(taskDto));
+                return new TaskBatchResult(index, HttpStatus.CREATED.value(), TaskDto.toDto(created), null);
+            }
+            case EDIT -> {
+                TaskDto taskDto = operation.getTask();
+                taskDto.setId(operation.getId());
+                taskDto.setCreatedAt(now);
+                return taskRepository.update(TaskEntity.toEntity(taskDto), expectedVersion)
+                        .map(updated -> new TaskBatchResult(index, HttpStatus.OK.value(), TaskDto.toDto(updated), null))
+                        .orElseGet(() -> new TaskBatchResult(index, HttpStatus.NOT_FOUND.value(), null, "Task not found"));
+            }
+            default -> {
+                if (!taskRepository.delete(operation.getId(), expectedVersion) && operation.getVersion() != null) {
+                    throw new VersionConflictException("Task " + operation.getId() + " does not exist");
+                }
+                return new TaskBatchResult(index, HttpStatus.NO_CONTENT.value(), null, null);
+            }
+        }
     }
 }
@@ -0,0 +1,209 @@
+package org.example.taskbe;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares Tomcat on platform threads with Tomcat on virtual threads while 10k keep-alive
+ * connections create tasks with persistence enabled, so every request waits for a group commit.
+ * The server runs in its own JVM so client and server sockets do not share one file-descriptor
+ * limit. Run with {@code mvn test -Pbenchmark}; {@code -Dload.connections} changes the load.
+ *
+ * <p>Measured on a 1-CPU sandbox with 10k connections of 5 creates each and the
+ * batched fsync default:
+ * <pre>
+ *   threads    req/s   p50      p99      failed
+ *   platform   1053    7.8 s    16.3 s   0
+ *   virtual     869    9.6 s    20.1 s   0
+ * </pre>
+ * With one CPU the run is bound by request processing rather than by the group-commit wait, so
+ * the 200 platform threads already keep the CPU busy and virtual threads only add scheduling
+ * cost. Virtual threads are expected to pay off where requests spend their time blocked, for
+ * example with {@code taskbe.persistence.fsync=always} or on more cores; measure there before
+ * enabling {@code spring.threads.virtual.enabled}.
+ */
+@Tag("benchmark")
+class VirtualThreadLoadBenchmark {
+    private static final int CONNECTIONS = Integer.getInteger("load.connections", 10_000);
+    private static final int REQUESTS_PER_CONNECTION = 5;
+    private static final byte[] BODY = """
+            {"topic":"MATHEMATICS","title":"Load test","description":"Created under load","dueAt":"2030-01-01T00:00:00","priority":"MINOR"}"""
+            .getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path directory;
+
+    @ParameterizedTest(name = "virtual threads: {0}")
+    @ValueSource(booleans = {false, true})
+    void createUnderLoad(boolean virtualThreads) throws Exception {
+        int port;
+        try (ServerSocket probe = new ServerSocket(0)) {
+            port = probe.getLocalPort();
+        }
+        Process server = new ProcessBuilder(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"),
+                TaskBeApplication.class.getName(),
+                "--server.port=" + port,
+                "--server.tomcat.max-connections=" + (CONNECTIONS + 1_000),
+                "--server.tomcat.accept-count=" + CONNECTIONS,
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--spring.devtools.restart.enabled=false",
+                "--taskbe.persistence.enabled=true",
+                "--taskbe.persistence.directory=" + directory.resolve("data"),
+                "--taskbe.persistence.snapshot-interval=0",
+                "--logging.level.root=warn")
+                .redirectErrorStream(true)
+                .redirectOutput(directory.resolve("server.log").toFile())
+                .start();
+        try {
+            awaitStarted(port);
+            run(virtualThreads, port);
+        } finally {
+            server.destroy();
+            server.waitFor(30, TimeUnit.SECONDS);
+        }
+    }
+
+    private void run(boolean virtualThreads, int port) throws InterruptedException {
+        long[] latencies = new long[CONNECTIONS * REQUESTS_PER_CONNECTION];
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        CountDownLatch connected = new CountDownLatch(CONNECTIONS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        long started;
+        long elapsed;
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CONNECTIONS; c++) {
+                clients.submit(() -> {
+                    try (Socket socket = new Socket()) {
+                        socket.connect(new InetSocketAddress("localhost", port), 60_000);
+                        connected.countDown();
+                        start.await();
+                        OutputStream out = socket.getOutputStream();
+                        InputStream in = socket.getInputStream();
+                        for (int r = 0; r < REQUESTS_PER_CONNECTION; r++) {
+                            long sent = System.nanoTime();
+                            post(out, port);
+                            int status = readStatus(in);
+                            latencies[completed.getAndIncrement()] = System.nanoTime() - sent;
+                            if (status != 201) {
+                                failed.incrementAndGet();
+                            }
+                        }
+                    } catch (IOException | InterruptedException e) {
+                        connected.countDown();
+                        failed.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            connected.await();
+            started = System.nanoTime();
+            start.countDown();
+        }
+        elapsed = System.nanoTime() - started;
+
+        long[] sorted = Arrays.copyOf(latencies, completed.get());
+        Arrays.sort(sorted);
+        System.out.printf("%s threads, %d connections: %d requests in %d ms (%.0f req/s), p50 %.1f ms, p99 %.1f ms, max %.1f ms, %d failed%n",
+                virtualThreads ? "virtual" : "platform", CONNECTIONS, sorted.length, elapsed / 1_000_000,
+                sorted.length * 1e9 / elapsed, percentile(sorted, 0.50), percentile(sorted, 0.99),
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6, failed.get());
+        assertEquals(0, failed.get(), "Every request should succeed");
+    }
+
+    private static void post(OutputStream out, int port) throws IOException {
+        String head = "POST /api/v1/tasks HTTP/1.1\r\nHost: localhost:" + port
+                + "\r\nContent-Type: application/json\r\nContent-Length: " + BODY.length + "\r\n\r\n";
+        out.write(head.getBytes(StandardCharsets.US_ASCII));
+        out.write(BODY);
+        out.flush();
+    }
+
+    private static int readStatus(InputStream in) throws IOException {
+        ByteArrayOutputStream head = new ByteArrayOutputStream();
+        int matched = 0;
+        while (matched < 4) {
+            int b = in.read();
+            if (b < 0) {
+                throw new IOException("Connection closed");
+            }
+            head.write(b);
+            matched = b == "\r\n\r\n".charAt(matched) ? matched + 1 : (b == '\r' ? 1 : 0);
+        }
+        String[] lines = head.toString(StandardCharsets.US_ASCII).split("\r\n");
+        int length = 0;
+        boolean chunked = false;
+        for (String line : lines) {
+            String lower = line.toLowerCase();
+            if (lower.startsWith("content-length:")) {
+                length = Integer.parseInt(lower.substring(15).trim());
+            } else if (lower.startsWith("transfer-encoding:") && lower.contains("chunked")) {
+                chunked = true;
+            }
+        }
+        if (chunked) {
+            skipChunked(in);
+        } else {
+            in.readNBytes(length);
+        }
+        return Integer.parseInt(lines[0].split(" ")[1]);
+    }
+
+    private static void skipChunked(InputStream in) throws IOException {
+        while (true) {
+            StringBuilder size = new StringBuilder();
+            for (int b = in.read(); b != '\n'; b = in.read()) {
+                if (b < 0) {
+                    throw new IOException("Connection closed");
+                }
+                if (b != '\r') {
+                    size.append((char) b);
+                }
+            }
+            int length = Integer.parseInt(size.toString().trim(), 16);
+            in.readNBytes(length + 2);
+            if (length == 0) {
+                return;
+            }
+        }
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, sorted.length * percentile)] / 1e6;
+    }
+
+    private static void awaitStarted(int port) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (System.nanoTime() < deadline) {
+            try (Socket ignored = new Socket("localhost", port)) {
+                return;
+            } catch (IOException e) {
+                Thread.sleep(200);
+            }
+        }
+        throw new IllegalStateException("Server did not start on port " + port);
+    }
+}
@@ -0,0 +1,206 @@
+package org.example.taskbe.api.v1;
+
+import com.github.luben.zstd.ZstdInputStream;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.example.taskbe.api.v1.TaskCompressionFilter.Encoding;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class TaskCompressionFilterTest {
+
+    private final TaskCompressionFilter filter = new TaskCompressionFilter(true, DataSize.ofBytes(64), 3);
+
+    @Test
+    void testNegotiatesEncoding() {
+        assertEquals(Encoding.ZSTD, Encoding.negotiate("gzip, zstd", true));
+        assertEquals(Encoding.GZIP, Encoding.negotiate("gzip, zstd", false));
+        assertEquals(Encoding.GZIP, Encoding.negotiate("zstd;q=0.5, gzip", true));
+        assertEquals(Encoding.ZSTD, Encoding.negotiate("*", true));
+        assertEquals(Encoding.GZIP, Encoding.negotiate("zstd;q=0, *;q=0.1", true));
+        assertNull(Encoding.negotiate("gzip;q=0, zstd;q=0", true));
+        assertNull(Encoding.negotiate("br, identity", true));
+        assertNull(Encoding.negotiate(null, true));
+    }
+
+    @Test
+    void testCompressesLargeBody() throws Exception {
+        String body = "{\"title\":\"Algebra\"}".repeat(20);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/tasks");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, zstd");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, write(body));
+
+        assertEquals("zstd", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertTrue(response.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT_ENCODING));
+        assertNull(response.getHeader(HttpHeaders.CONTENT_LENGTH), "Declared length no longer matches the body");
+        try (ZstdInputStream in = new ZstdInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertEquals(body, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testLeavesGzipToContainer() throws Exception {
+        String body = "x".repeat(256);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/tasks");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, zstd;q=0.5");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> {
+            assertSame(response, res, "A response the container gzips should not be wrapped");
+            write(body).doFilter(req, res);
+        });
+
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY));
+        assertEquals(body, response.getContentAsString());
+    }
+
+    @Test
+    void testLeavesSmallBodyAlone() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/tasks/stats");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "zstd");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, write("{\"total\":1}"));
+
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("{\"total\":1}", response.getContentAsString());
+        assertEquals(11, response.getContentLength());
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY),
+                "A larger body of the same resource may be compressed");
+    }
+
+    @Test
+    void testAddsCodingToETag() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/tasks");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "zstd");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> {
+            ((HttpServletResponse) res).setHeader(HttpHeaders.ETAG, "\"1.2\"");
+            write("x".repeat(256)).doFilter(req, res);
+        });
+
+        assertEquals("\"1.2+zstd\"", response.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void testStripsCodingFromConditionalRequests() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/tasks");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "zstd");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"1.1\", \"1.2+zstd\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> {
+            HttpServletRequest filtered = (HttpServletRequest) req;
+            assertEquals("\"1.1\", \"1.2\"", filtered.getHeader(HttpHeaders.IF_NONE_MATCH));
+            HttpServletResponse notModified = (HttpServletResponse) res;
+            notModified.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            notModified.addHeader(HttpHeaders.ETAG, "\"1.2\"");
+        });
+
+        assertEquals(HttpServletResponse.SC_NOT_MODIFIED, response.getStatus());
+        assertEquals("\"1.2+zstd\"", response.getHeader(HttpHeaders.ETAG), "A 304 should confirm the tag the client has");
+    }
+
+    @Test
+    void testHandsNonBlockingWritesToContainer() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/tasks");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "zstd");
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        List<WriteListener> registered = new ArrayList<>();
+        HttpServletResponse response = new HttpServletResponseWrapper(new MockHttpServletResponse()) {
+            private final ServletOutputStream outputStream = new ServletOutputStream() {
+                @Override
+                public void write(int b) {
+                    written.write(b);
+                }
+
+                @Override
+                public boolean isReady() {
+                    return false;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                    registered.add(writeListener);
+                }
+            };
+
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return outputStream;
+            }
+        };
+        WriteListener listener = mock(WriteListener.class);
+
+        filter.doFilter(request, response, (req, res) -> {
+            res.getOutputStream().write("head".getBytes(StandardCharsets.UTF_8));
+            res.getOutputStream().setWriteListener(listener);
+            assertFalse(res.getOutputStream().isReady(), "Readiness should come from the container's stream");
+            res.getOutputStream().write("tail".getBytes(StandardCharsets.UTF_8));
+        });
+
+        assertEquals(List.of(listener), registered);
+        assertEquals("headtail", written.toString(StandardCharsets.UTF_8), "A non-blocking body should not be compressed");
+    }
+
+    @Test
+    void testPassesThroughEncodedBody() throws Exception {
+        byte[] body = new byte[256];
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/tasks/export");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "zstd, gzip");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> {
+            res.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            ((HttpServletResponse) res).setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            res.getOutputStream().write(body);
+        });
+
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(body, response.getContentAsByteArray());
+    }
+
+    @Test
+    void testSkipsClientsWithoutSupportedEncoding() throws Exception {
+        String body = "x".repeat(256);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/tasks");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "br");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, write(body));
+
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(body, response.getContentAsString());
+    }
+
+    private static FilterChain write(String body) {
+        return (request, response) -> {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setContentLength(bytes.length);
+            response.getOutputStream().write(bytes);
+            response.getOutputStream().flush();
+        };
+    }
+}
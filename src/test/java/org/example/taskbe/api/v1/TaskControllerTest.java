@@ -1,29 +1,64 @@
 package org.example.taskbe.api.v1;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.github.luben.zstd.ZstdInputStream;
 import org.example.taskbe.domain.Priority;
 import org.example.taskbe.domain.Topic;
+import org.example.taskbe.domain.dto.TaskBatchResult;
 import org.example.taskbe.domain.dto.TaskDto;
+import org.example.taskbe.domain.dto.TaskQueryDto;
+import org.example.taskbe.domain.dto.TaskStatsDto;
 import org.example.taskbe.domain.entity.TaskEntity;
+import org.example.taskbe.repository.TaskQueryResult;
+import org.example.taskbe.repository.TaskRepository;
+import org.example.taskbe.repository.TaskSort;
+import org.example.taskbe.repository.VersionConflictException;
+import org.example.taskbe.repository.index.OrderedIndex;
+import org.example.taskbe.service.TaskChangeFeed;
+import org.example.taskbe.service.TaskChangeFeedConfiguration;
 import org.example.taskbe.service.TaskService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(TaskController.class)
+@Import({TaskNdjsonWriter.class, TaskJsonCache.class, TaskChangeStream.class, TaskChangeFeedConfiguration.class, TaskFormats.class, TaskFormatConfiguration.class})
 public class TaskControllerTest {
 
     @Autowired
@@ -32,6 +67,24 @@ public class TaskControllerTest {
     @MockBean
     private TaskService taskService;
 
+    @MockBean
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskJsonCache taskJsonCache;
+
+    @Autowired
+    private TaskChangeFeed taskChangeFeed;
+
+    private static final long INSTANCE_ID = 42;
+
+    @BeforeEach
+    void setUp() {
+        // Mocks reuse IDs and versions across tests, so cached JSON must not leak between them.
+        taskJsonCache.invalidateAll();
+        Mockito.when(taskService.getInstanceId()).thenReturn(INSTANCE_ID);
+    }
+
     private TaskEntity createSampleTaskEntity() {
         return new TaskEntity(
                 1,
@@ -41,7 +94,8 @@ public class TaskControllerTest {
                 LocalDateTime.now().plusDays(3),
                 false,
                 LocalDateTime.now(),
-                Priority.CRITICAL
+                Priority.CRITICAL,
+                0
         );
     }
 
@@ -54,7 +108,8 @@ public class TaskControllerTest {
                 LocalDateTime.now().plusDays(3),
                 false,
                 null,
-                Priority.CRITICAL
+                Priority.CRITICAL,
+                0
         );
     }
 
@@ -72,6 +127,121 @@ public class TaskControllerTest {
                 .andExpect(jsonPath("$[0].title").value("Sample Task"));
     }
 
+    @Test
+    void shouldReturnPageWithNextCursor() throws Exception {
+        // Arrange
+        TaskEntity first = createSampleTaskEntity();
+        TaskEntity second = createSampleTaskEntity();
+        second.setId(2);
+        Mockito.when(taskService.getTaskPage(eq(TaskSort.ID), eq(null), eq(2))).thenReturn(List.of(first, second));
+        String cursor = TaskCursor.after(TaskSort.ID, first).encode();
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/tasks")
+                        .param("limit", "1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(TaskController.NEXT_CURSOR_HEADER, cursor))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(1));
+    }
+
+    @Test
+    void shouldResumePageFromCursor() throws Exception {
+        // Arrange
+        TaskEntity taskEntity = createSampleTaskEntity();
+        String cursor = TaskCursor.after(TaskSort.DUE_AT, taskEntity).encode();
+        Mockito.when(taskService.getTaskPage(eq(TaskSort.DUE_AT), eq(new OrderedIndex.Entry(TaskSort.DUE_AT.key(taskEntity), 1)), eq(11)))
+                .thenReturn(List.of());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/tasks")
+                        .param("limit", "10")
+                        .param("sort", "dueAt")
+                        .param("after", cursor)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(TaskController.NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void shouldRejectCursorForDifferentSort() throws Exception {
+        // Arrange
+        String cursor = TaskCursor.after(TaskSort.ID, createSampleTaskEntity()).encode();
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/tasks")
+                        .param("sort", "priority")
+                        .param("after", cursor)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldExportTasksAsNdjson() throws Exception {
+        // Arrange
+        TaskEntity second = createSampleTaskEntity();
+        second.setId(2);
+        Mockito.when(taskService.streamAllTasks()).thenReturn(Stream.of(createSampleTaskEntity(), second));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/v1/tasks/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        Assertions.assertEquals(2, lines.length);
+        Assertions.assertTrue(lines[1].contains("\"id\":2"));
+    }
+
+    @Test
+    void shouldExportTasksWithGzip() throws Exception {
+        // Arrange
+        Mockito.when(taskService.streamAllTasks()).thenReturn(Stream.of(createSampleTaskEntity()));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/v1/tasks/export")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+                .andReturn().getResponse().getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            Assertions.assertTrue(new String(in.readAllBytes(), StandardCharsets.UTF_8).contains("Sample Task"));
+        }
+    }
+
+    @Test
+    void shouldExportTasksUncompressedWhenGzipIsRefused() throws Exception {
+        // Arrange
+        Mockito.when(taskService.streamAllTasks()).thenReturn(Stream.of(createSampleTaskEntity()));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/v1/tasks/export")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, x-gzipped"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+                .andExpect(content().string(containsString("Sample Task")));
+    }
+
     @Test
     void shouldReturnTaskById() throws Exception {
         // Arrange
@@ -110,6 +280,335 @@ public class TaskControllerTest {
                 .andExpect(jsonPath("$[0].title").value("Sample Task"));
     }
 
+    @Test
+    void shouldReturnFilteredTasks() throws Exception {
+        // Arrange
+        List<TaskEntity> taskEntities = List.of(createSampleTaskEntity());
+        Mockito.when(taskService.getFilteredTasks(eq(Topic.MATHEMATICS), eq(Priority.CRITICAL), eq(false))).thenReturn(taskEntities);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/tasks/filter")
+                        .param("topic", "MATHEMATICS")
+                        .param("priority", "CRITICAL")
+                        .param("done", "false")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].topic").value("MATHEMATICS"))
+                .andExpect(jsonPath("$[0].priority").value("CRITICAL"));
+    }
+
+    @Test
+    void shouldReturnTasksDueBetween() throws Exception {
+        // Arrange
+        List<TaskEntity> taskEntities = List.of(createSampleTaskEntity());
+        Mockito.when(taskService.getTasksDueBetween(eq(LocalDateTime.of(2024, 1, 1, 0, 0)), eq(LocalDateTime.of(2024, 12, 31, 23, 59, 59))))
+                .thenReturn(taskEntities);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/tasks/due")
+                        .param("from", "2024-01-01T00:00:00")
+                        .param("to", "2024-12-31T23:59:59")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Sample Task"));
+    }
+
+    @Test
+    void shouldReturnOverdueTasks() throws Exception {
+        // Arrange
+        Mockito.when(taskService.getOverdueTasks()).thenReturn(List.of(createSampleTaskEntity()));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/tasks/overdue")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1));
+    }
+
+    @Test
+    void shouldReturnBadRequestForInvalidUpcomingLimit() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/tasks/upcoming")
+                        .param("limit", "0")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldSearchTasks() throws Exception {
+        // Arrange
+        Mockito.when(taskService.searchTasks("sample task", 20)).thenReturn(List.of(createSampleTaskEntity()));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/tasks/search")
+                        .param("q", "sample task"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].title").value("Sample Task"));
+        mockMvc.perform(get("/api/v1/tasks/search"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldGetUrgentTasks() throws Exception {
+        // Arrange
+        Mockito.when(taskService.getUrgentTasks(5)).thenReturn(List.of(createSampleTaskEntity()));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/tasks/urgent")
+                        .param("k", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].priority").value("CRITICAL"));
+        mockMvc.perform(get("/api/v1/tasks/urgent")
+                        .param("k", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldStreamChangesAfterLastEventId() throws Exception {
+        // Arrange
+        taskChangeFeed.deleted(41);
+        taskChangeFeed.durable();
+        long lastEventId = taskChangeFeed.head();
+        TaskEntity updated = createSampleTaskEntity();
+        updated.setVersion(2);
+        taskChangeFeed.changed(updated);
+        taskChangeFeed.durable();
+        String instance = taskChangeFeed.getInstanceId() + "-";
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/v1/tasks/changes")
+                        .header("Last-Event-ID", instance + lastEventId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        String body = "";
+        for (int attempt = 0; attempt < 100 && !body.contains("\n\n"); attempt++) {
+            Thread.sleep(20);
+            body = result.getResponse().getContentAsString();
+        }
+        result.getRequest().getAsyncContext().complete();
+        Assertions.assertTrue(body.startsWith("id:" + instance + (lastEventId + 1) + "\nevent:UPDATED\ndata:"), body);
+        Assertions.assertTrue(body.contains("\"title\":\"Sample Task\""), body);
+        Assertions.assertFalse(body.contains("\"id\":41"), "Events up to Last-Event-ID should not be sent again");
+    }
+
+    @Test
+    void shouldAskClientToResyncWhenEventsAreGone() throws Exception {
+        assertResync(taskChangeFeed.getInstanceId() + "-" + (taskChangeFeed.head() + 100));
+    }
+
+    @Test
+    void shouldAskClientToResyncForEventIdsOfAnotherInstance() throws Exception {
+        assertResync((taskChangeFeed.getInstanceId() - 1) + "-0");
+        assertResync("0");
+        assertResync("not-an-event-id");
+    }
+
+    private void assertResync(String lastEventId) throws Exception {
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/v1/tasks/changes")
+                        .header("Last-Event-ID", lastEventId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // The emitter never times out, so asyncDispatch would not wait for the subscriber thread to complete it.
+        result.getAsyncResult(5000);
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(startsWith("id:" + taskChangeFeed.getInstanceId() + "-" + taskChangeFeed.head()
+                        + "\nevent:" + TaskChangeStream.RESYNC_EVENT + "\n")));
+    }
+
+    @Test
+    void shouldReturnStatistics() throws Exception {
+        // Arrange
+        Map<Topic, Long> byTopic = new EnumMap<>(Topic.class);
+        byTopic.put(Topic.MATHEMATICS, 2L);
+        Map<Priority, Long> byPriority = new EnumMap<>(Priority.class);
+        byPriority.put(Priority.CRITICAL, 2L);
+        Mockito.when(taskService.getStatistics()).thenReturn(new TaskStatsDto(2, 1, 1, 1, byTopic, byPriority));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/tasks/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.overdue").value(1))
+                .andExpect(jsonPath("$.byTopic.MATHEMATICS").value(2))
+                .andExpect(jsonPath("$.byPriority.CRITICAL").value(2));
+    }
+
+    @Test
+    void shouldCombineTheOverviewLookups() throws Exception {
+        // Arrange
+        TaskEntity overdue = createSampleTaskEntity();
+        overdue.setId(2);
+        TaskEntity upcoming = createSampleTaskEntity();
+        upcoming.setId(3);
+        TaskEntity alsoUpcoming = createSampleTaskEntity();
+        alsoUpcoming.setId(4);
+        Mockito.when(taskService.getStatisticsAsync()).thenReturn(CompletableFuture.completedFuture(
+                new TaskStatsDto(3, 3, 0, 1, Map.of(), Map.of())));
+        Mockito.when(taskService.getOverdueTasksAsync()).thenReturn(CompletableFuture.completedFuture(List.of(overdue, upcoming)));
+        Mockito.when(taskService.getUpcomingTasksAsync(1)).thenReturn(CompletableFuture.completedFuture(List.of(upcoming, alsoUpcoming)));
+        Mockito.when(taskService.getUrgentTasksAsync(1)).thenReturn(CompletableFuture.completedFuture(List.of()));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/tasks/overview").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stats.total").value(3))
+                .andExpect(jsonPath("$.stats.overdue").value(1))
+                .andExpect(jsonPath("$.overdue.length()").value(1))
+                .andExpect(jsonPath("$.overdue[0].id").value(2))
+                .andExpect(jsonPath("$.upcoming.length()").value(1))
+                .andExpect(jsonPath("$.upcoming[0].id").value(3))
+                .andExpect(jsonPath("$.urgent").isEmpty());
+    }
+
+    @Test
+    void shouldQueryTasks() throws Exception {
+        // Arrange
+        Mockito.when(taskService.queryTasks(any(TaskQueryDto.class))).thenReturn(new TaskQueryResult(
+                "BitmapScan(topic=MATHEMATICS) -> Filter -> Limit(10)", 1, 1, List.of(createSampleTaskEntity())));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/tasks/query")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"where\": {\"and\": [{\"topic\": \"MATHEMATICS\"}, {\"done\": false}]}, \"limit\": 10}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].title").value("Sample Task"));
+    }
+
+    @Test
+    void shouldExplainQuery() throws Exception {
+        // Arrange
+        Mockito.when(taskService.queryTasks(any(TaskQueryDto.class))).thenReturn(new TaskQueryResult(
+                "BitmapScan(topic=MATHEMATICS) -> Filter -> Sort(dueAt) -> Limit(10)", 3, 3, List.of(createSampleTaskEntity())));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/tasks/query")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"where\": {\"topic\": \"MATHEMATICS\"}, \"sort\": \"dueAt\", \"limit\": 10, \"explain\": true}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.plan").value(startsWith("BitmapScan(topic=MATHEMATICS)")))
+                .andExpect(jsonPath("$.rowsExamined").value(3))
+                .andExpect(jsonPath("$.rowsReturned").value(1))
+                .andExpect(jsonPath("$.tasks[0].id").value(1));
+    }
+
+    @Test
+    void shouldRejectInvalidQuery() throws Exception {
+        // Arrange
+        Mockito.when(taskService.queryTasks(any(TaskQueryDto.class)))
+                .thenThrow(new IllegalArgumentException("A predicate needs exactly one of and, or, not"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/tasks/query")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"where\": {\"topic\": \"MATHEMATICS\", \"done\": true}}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/v1/tasks/query")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"limit\": 0}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldNegotiateBinaryFormats() throws Exception {
+        // Arrange
+        TaskEntity taskEntity = createSampleTaskEntity();
+        Mockito.when(taskService.getVersion(1)).thenReturn(0L);
+        Mockito.when(taskService.getById(1)).thenReturn(Optional.of(taskEntity));
+        Mockito.when(taskService.getFilteredTasks(Topic.MATHEMATICS, null, null)).thenReturn(List.of(taskEntity));
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+        ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+
+        // Act & Assert
+        byte[] smile = mockMvc.perform(get("/api/v1/tasks/1")
+                        .accept(TaskFormats.SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(TaskFormats.SMILE))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getContentAsByteArray();
+        JsonNode task = smileMapper.readTree(smile);
+        Assertions.assertEquals("Sample Task", task.get("title").asText());
+        Assertions.assertEquals(taskEntity.getDueAt().toString().substring(0, 19), task.get("dueAt").asText().substring(0, 19));
+
+        byte[] cbor = mockMvc.perform(get("/api/v1/tasks/filter")
+                        .param("topic", "MATHEMATICS")
+                        .header(HttpHeaders.ACCEPT, "application/json;q=0.5, application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        Assertions.assertEquals(1, cborMapper.readTree(cbor).get(0).get("id").asInt());
+
+        mockMvc.perform(get("/api/v1/tasks/1")
+                        .header(HttpHeaders.ACCEPT, "*/*"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void shouldReadAndWriteBinaryDtos() throws Exception {
+        // Arrange
+        Mockito.when(taskService.saveTask(any(TaskDto.class))).thenAnswer(invocation -> {
+            TaskEntity created = TaskEntity.toEntity(invocation.getArgument(0));
+            created.setId(7);
+            return created;
+        });
+        Mockito.when(taskService.getStatistics()).thenReturn(new TaskStatsDto(2, 1, 1, 0, Map.of(), Map.of()));
+        ObjectMapper smileMapper = Jackson2ObjectMapperBuilder.smile().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        TaskDto toSave = new TaskDto(null, Topic.ENGLISH, "Essay", null, LocalDateTime.of(2024, 12, 1, 12, 0), false, null, Priority.MINOR, 0);
+
+        // Act & Assert
+        byte[] created = mockMvc.perform(post("/api/v1/tasks")
+                        .contentType(TaskFormats.SMILE)
+                        .accept(TaskFormats.SMILE)
+                        .content(smileMapper.writeValueAsBytes(toSave)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(TaskFormats.SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+        TaskDto createdDto = smileMapper.readValue(created, TaskDto.class);
+        Assertions.assertEquals(7, createdDto.getId());
+        Assertions.assertEquals(LocalDateTime.of(2024, 12, 1, 12, 0), createdDto.getDueAt());
+
+        byte[] stats = mockMvc.perform(get("/api/v1/tasks/stats")
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        Assertions.assertEquals(2, new ObjectMapper(new CBORFactory()).readTree(stats).get("total").asInt());
+    }
+
+    @Test
+    void shouldCompressLargeResponses() throws Exception {
+        // Arrange
+        List<TaskEntity> taskEntities = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            TaskEntity taskEntity = createSampleTaskEntity();
+            taskEntity.setId(i);
+            taskEntities.add(taskEntity);
+        }
+        Mockito.when(taskService.getFilteredTasks(null, null, null)).thenReturn(taskEntities);
+
+        // Act & Assert
+        byte[] zstd = mockMvc.perform(get("/api/v1/tasks/filter")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, zstd"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "zstd"))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] json = new ZstdInputStream(new ByteArrayInputStream(zstd)).readAllBytes();
+        Assertions.assertArrayEquals(taskJsonCache.getList(taskEntities), json);
+
+        mockMvc.perform(get("/api/v1/tasks/stats")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, zstd"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+    }
+
     @Test
     void shouldCreateTaskSuccessfully() throws Exception {
         // Arrange
@@ -143,17 +642,60 @@ public class TaskControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void shouldApplyBatch() throws Exception {
+        // Arrange
+        Mockito.when(taskService.applyBatch(any())).thenReturn(List.of(
+                new TaskBatchResult(0, 201, TaskDto.toDto(createSampleTaskEntity()), null),
+                new TaskBatchResult(1, 204, null, null)
+        ));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\n" +
+                                "  {\"type\": \"CREATE\", \"task\": {\"topic\": \"MATHEMATICS\", \"title\": \"Sample Task\", \"priority\": \"CRITICAL\"}},\n" +
+                                "  {\"type\": \"DELETE\", \"id\": 3}\n" +
+                                "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value(201))
+                .andExpect(jsonPath("$[0].task.title").value("Sample Task"))
+                .andExpect(jsonPath("$[1].status").value(204));
+    }
+
+    @Test
+    void shouldReturnBadRequestForEmptyBatch() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void shouldDeleteTaskSuccessfully() throws Exception {
+        // Arrange
+        Mockito.when(taskService.deleteTask(1, null)).thenReturn(true);
+
         // Act & Assert
         mockMvc.perform(delete("/api/v1/tasks/1"))
                 .andExpect(status().isNoContent());
     }
 
+    @Test
+    void shouldReturnNotFoundWhenDeletingUnknownTask() throws Exception {
+        // Arrange
+        Mockito.when(taskService.deleteTask(999, null)).thenReturn(false);
+
+        // Act & Assert
+        mockMvc.perform(delete("/api/v1/tasks/999"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void shouldUpdateTaskSuccessfully() throws Exception {
         // Arrange
-        Mockito.when(taskService.editTask(any(TaskDto.class), eq(1))).thenReturn(createSampleTaskEntity());
+        Mockito.when(taskService.editTask(any(TaskDto.class), eq(1), isNull())).thenReturn(Optional.of(createSampleTaskEntity()));
 
         // Act & Assert
         mockMvc.perform(put("/api/v1/tasks/1")
@@ -169,4 +711,188 @@ public class TaskControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.title").value("Sample Task")); // Verify the mock response
     }
+
+    @Test
+    void shouldReturnNotFoundWhenUpdatingUnknownTask() throws Exception {
+        // Arrange
+        Mockito.when(taskService.editTask(any(TaskDto.class), eq(999), isNull())).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(put("/api/v1/tasks/999")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"topic\": \"MATHEMATICS\", \"title\": \"Updated Task\", \"priority\": \"MAJOR\"}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldReturnETagWithTask() throws Exception {
+        // Arrange
+        TaskEntity taskEntity = createSampleTaskEntity();
+        taskEntity.setVersion(4);
+        Mockito.when(taskService.getVersion(1)).thenReturn(4L);
+        Mockito.when(taskService.getById(1)).thenReturn(Optional.of(taskEntity));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/tasks/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"42-4\""))
+                .andExpect(jsonPath("$.version").value(4));
+    }
+
+    @Test
+    void shouldServeUnchangedTaskFromJsonCache() throws Exception {
+        // Arrange
+        TaskEntity taskEntity = createSampleTaskEntity();
+        taskEntity.setVersion(2);
+        Mockito.when(taskService.getVersion(1)).thenReturn(2L);
+        Mockito.when(taskService.getById(1)).thenReturn(Optional.of(taskEntity));
+
+        // Act & Assert
+        String first = mockMvc.perform(get("/api/v1/tasks/1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(get("/api/v1/tasks/1"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().string(first));
+        Mockito.verify(taskService, Mockito.times(1)).getById(1);
+
+        taskEntity.setTitle("Renamed");
+        taskEntity.setVersion(3);
+        Mockito.when(taskService.getVersion(1)).thenReturn(3L);
+        mockMvc.perform(get("/api/v1/tasks/1"))
+                .andExpect(jsonPath("$.title").value("Renamed"));
+    }
+
+    @Test
+    void shouldReturnNotModifiedWhenNoTaskChanged() throws Exception {
+        // Arrange
+        Mockito.when(taskService.getChangeStamp()).thenReturn(7L);
+        Mockito.when(taskService.getAllTasks()).thenReturn(List.of(createSampleTaskEntity()));
+        String eTag = mockMvc.perform(get("/api/v1/tasks"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/tasks").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/v1/tasks").param("limit", "1").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        Mockito.verify(taskService, Mockito.times(1)).getAllTasks();
+        Mockito.verify(taskService, Mockito.never()).getTaskPage(any(), any(), Mockito.anyInt());
+
+        Mockito.when(taskService.getChangeStamp()).thenReturn(8L);
+        mockMvc.perform(get("/api/v1/tasks").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Sample Task"));
+    }
+
+    @Test
+    void shouldTagEachFormatSeparately() throws Exception {
+        // Arrange
+        TaskEntity taskEntity = createSampleTaskEntity();
+        taskEntity.setVersion(3);
+        Mockito.when(taskService.getVersion(1)).thenReturn(3L);
+        Mockito.when(taskService.getById(1)).thenReturn(Optional.of(taskEntity));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/tasks/1").accept(TaskFormats.SMILE).header(HttpHeaders.IF_NONE_MATCH, "\"42-3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"42-3+smile\""))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)));
+        mockMvc.perform(get("/api/v1/tasks/1").accept(TaskFormats.SMILE).header(HttpHeaders.IF_NONE_MATCH, "\"42-3+smile\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"42-3+smile\""))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)));
+        mockMvc.perform(get("/api/v1/tasks/1").header(HttpHeaders.IF_NONE_MATCH, "\"42-3+cbor\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"42-3\""));
+    }
+
+    @Test
+    void shouldReturnNotModifiedForUnchangedTask() throws Exception {
+        // Arrange
+        TaskEntity taskEntity = createSampleTaskEntity();
+        taskEntity.setVersion(3);
+        Mockito.when(taskService.getVersion(1)).thenReturn(3L);
+        Mockito.when(taskService.getVersion(2)).thenReturn(-1L);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/tasks/1").header(HttpHeaders.IF_NONE_MATCH, "\"42-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"42-3\""));
+        mockMvc.perform(get("/api/v1/tasks/2").header(HttpHeaders.IF_NONE_MATCH, "*"))
+                .andExpect(status().isNotFound());
+        Mockito.verify(taskService, Mockito.never()).getById(1);
+
+        // A tag from before a restart names another task that happened to get the same ID and version.
+        Mockito.when(taskService.getById(1)).thenReturn(Optional.of(taskEntity));
+        mockMvc.perform(get("/api/v1/tasks/1").header(HttpHeaders.IF_NONE_MATCH, "\"41-3\", \"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"42-3\""));
+    }
+
+    @Test
+    void shouldUpdateTaskWhenIfMatchMatches() throws Exception {
+        // Arrange
+        TaskEntity updated = createSampleTaskEntity();
+        updated.setVersion(5);
+        Mockito.when(taskService.editTask(any(TaskDto.class), eq(1), eq(4L))).thenReturn(Optional.of(updated));
+
+        // Act & Assert
+        mockMvc.perform(put("/api/v1/tasks/1")
+                        .header(HttpHeaders.IF_MATCH, "\"42-4\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"topic\": \"MATHEMATICS\", \"title\": \"Updated Task\", \"priority\": \"MAJOR\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"42-5\""));
+    }
+
+    @Test
+    void shouldDeleteTaskWhenAnyIfMatchTagMatches() throws Exception {
+        // Arrange
+        Mockito.when(taskService.deleteTask(1, 3L)).thenReturn(true);
+
+        // Act & Assert
+        mockMvc.perform(delete("/api/v1/tasks/1").header(HttpHeaders.IF_MATCH, "\"a-1\", \"42-3\""))
+                .andExpect(status().isNoContent());
+        Mockito.verify(taskService).deleteTask(1, 3L);
+    }
+
+    @Test
+    void shouldReturnPreconditionFailedOnVersionConflict() throws Exception {
+        // Arrange
+        Mockito.when(taskService.editTask(any(TaskDto.class), eq(1), eq(3L)))
+                .thenThrow(new VersionConflictException("Task 1 is at version 4, not 3"));
+        Mockito.doThrow(new VersionConflictException("Task 2 does not exist")).when(taskService).deleteTask(2, 7L);
+
+        // Act & Assert
+        mockMvc.perform(put("/api/v1/tasks/1")
+                        .header(HttpHeaders.IF_MATCH, "\"42-3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"topic\": \"MATHEMATICS\", \"title\": \"Updated Task\", \"priority\": \"MAJOR\"}"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete("/api/v1/tasks/2").header(HttpHeaders.IF_MATCH, "\"42-7\""))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void shouldFailPreconditionForIfMatchThatCannotMatch() throws Exception {
+        // Act & Assert
+        mockMvc.perform(delete("/api/v1/tasks/1").header(HttpHeaders.IF_MATCH, "W/\"42-3\""))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete("/api/v1/tasks/1").header(HttpHeaders.IF_MATCH, "\"41-3\", W/\"42-4\""))
+                .andExpect(status().isPreconditionFailed());
+        // A tag from before a restart must not overwrite the task that now has the same ID and version.
+        mockMvc.perform(put("/api/v1/tasks/1")
+                        .header(HttpHeaders.IF_MATCH, "\"41-1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"topic\": \"MATHEMATICS\", \"title\": \"Updated Task\", \"priority\": \"MAJOR\"}"))
+                .andExpect(status().isPreconditionFailed());
+        Mockito.verify(taskService, Mockito.never()).deleteTask(Mockito.anyInt(), any());
+        Mockito.verify(taskService, Mockito.never()).editTask(any(TaskDto.class), Mockito.anyInt(), any());
+    }
 }
\ No newline at end of file
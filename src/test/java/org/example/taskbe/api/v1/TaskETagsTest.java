@@ -0,0 +1,64 @@
+package org.example.taskbe.api.v1;
+
+import org.example.taskbe.repository.TaskRepository;
+import org.example.taskbe.repository.VersionConflictException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskETagsTest {
+
+    @Test
+    void testMatchesVersion() {
+        assertEquals("\"7-3\"", TaskETags.forVersion(7, 3));
+        assertTrue(TaskETags.matchesVersion("\"7-3\"", 7, 3));
+        assertTrue(TaskETags.matchesVersion("W/\"7-3\"", 7, 3), "If-None-Match uses weak comparison");
+        assertTrue(TaskETags.matchesVersion("\"7-1\", \"7-2\" ,\"7-3\"", 7, 3), "Any tag in the list may match");
+        assertTrue(TaskETags.matchesVersion("*", 7, 3));
+        assertFalse(TaskETags.matchesVersion(null, 7, 3));
+        assertFalse(TaskETags.matchesVersion("\"7-4\"", 7, 3));
+        assertFalse(TaskETags.matchesVersion("\"6-3\", \"3\"", 7, 3), "Tags from another instance should not match");
+        assertFalse(TaskETags.matchesVersion("\"7-03x\", \"\", 7-3, \"-3\"", 7, 3), "Malformed tags should never match");
+        assertFalse(TaskETags.matchesVersion(TaskETags.forChangeStamp(3), 7, 3), "List tags should not match task versions");
+    }
+
+    @Test
+    void testVariants() {
+        assertEquals("\"7-3+smile\"", TaskETags.forVersion(7, 3, "smile"));
+        assertEquals("W/\"7-3+zstd\"", TaskETags.withVariant("W/\"7-3\"", "zstd"));
+        assertEquals(TaskETags.forChangeStamp(4).replace("\"", "") + "+cbor", TaskETags.forChangeStamp(4, "cbor").replace("\"", ""));
+        assertTrue(TaskETags.matchesVersion("\"7-3\", \"7-3+smile\"", 7, 3, "smile"));
+        assertFalse(TaskETags.matchesVersion("\"7-3\"", 7, 3, "smile"), "Another format's tag should not match");
+        assertFalse(TaskETags.matchesVersion("\"7-3+smile\"", 7, 3), "A variant tag should not match plain JSON");
+        assertFalse(TaskETags.matchesVersion("\"7-3+smil\", \"7-3+smilex\"", 7, 3, "smile"));
+        assertTrue(TaskETags.matchesChangeStamp(TaskETags.forChangeStamp(4, "cbor"), 4, "cbor"));
+        assertEquals(3L, TaskETags.parseIfMatch("\"7-3+smile\"", 7), "The version holds for every representation");
+    }
+
+    @Test
+    void testMatchesChangeStamp() {
+        String eTag = TaskETags.forChangeStamp(42);
+
+        assertTrue(TaskETags.matchesChangeStamp(eTag, 42));
+        assertTrue(TaskETags.matchesChangeStamp("\"x\", " + eTag, 42));
+        assertFalse(TaskETags.matchesChangeStamp(eTag, 43));
+        assertFalse(TaskETags.matchesChangeStamp("\"42\"", 42), "Bare numbers should not match list stamps");
+        assertFalse(TaskETags.matchesChangeStamp(eTag.replace('.', '-'), 42), "Version tags should not match list stamps");
+        assertFalse(TaskETags.matchesChangeStamp("\"1.42\"", 42), "Tags from an earlier process should not match");
+        assertSame(eTag, TaskETags.forChangeStamp(42), "The tag of an unchanged stamp should be reused");
+    }
+
+    @Test
+    void testParseIfMatch() {
+        assertNull(TaskETags.parseIfMatch(null, 7));
+        assertEquals(TaskRepository.ANY_VERSION, TaskETags.parseIfMatch("*", 7));
+        assertEquals(5L, TaskETags.parseIfMatch(" \"7-5\" ", 7));
+        assertThrows(VersionConflictException.class, () -> TaskETags.parseIfMatch("\"6-5\"", 7), "Tags of another instance never match");
+        assertThrows(VersionConflictException.class, () -> TaskETags.parseIfMatch("W/\"7-5\"", 7), "Weak tags never match strongly");
+        assertEquals(5L, TaskETags.parseIfMatch("\"7-5\", \"7-6\"", 7), "The first tag of this instance should be taken");
+        assertEquals(3L, TaskETags.parseIfMatch("\"a-1\", W/\"7-2\",\"6-9\" , \"7-3\"", 7), "Tags that cannot match should be skipped");
+        assertThrows(VersionConflictException.class, () -> TaskETags.parseIfMatch("\"6-5\", W/\"7-5\", \"7-x\"", 7));
+        assertThrows(VersionConflictException.class, () -> TaskETags.parseIfMatch("\"7-five\"", 7));
+        assertThrows(VersionConflictException.class, () -> TaskETags.parseIfMatch("\"5\"", 7));
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.taskbe.api.v1;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.taskbe.domain.Priority;
+import org.example.taskbe.domain.Topic;
+import org.example.taskbe.domain.dto.TaskDto;
+import org.example.taskbe.domain.entity.TaskEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskJsonCacheTest {
+
+    private ObjectMapper objectMapper;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule()).disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private TaskJsonCache createCache(DataSize maximumSize) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", meterRegistry);
+        return new TaskJsonCache(objectMapper, maximumSize, beanFactory.getBeanProvider(MeterRegistry.class));
+    }
+
+    private static TaskEntity createTaskEntity(int id, long version) {
+        return new TaskEntity(id, Topic.ENGLISH, "Task " + id, "Description " + id, LocalDateTime.of(2030, 1, 2, 3, 4, 5),
+                false, LocalDateTime.of(2024, 1, 1, 12, 0), Priority.MINOR, version);
+    }
+
+    @Test
+    void testRendersSameJsonAsJackson() throws Exception {
+        TaskJsonCache cache = createCache(DataSize.ofMegabytes(1));
+        TaskEntity taskEntity = createTaskEntity(1, 1);
+
+        byte[] json = cache.get(taskEntity);
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(TaskDto.toDto(taskEntity)), json);
+        assertSame(json, cache.get(1, 1), "The second read should be served from the cache");
+    }
+
+    @Test
+    void testIgnoresFragmentsOfOtherVersions() {
+        TaskJsonCache cache = createCache(DataSize.ofMegabytes(1));
+        cache.get(createTaskEntity(1, 2));
+
+        assertNull(cache.get(1, 3), "A newer version should miss");
+        cache.get(createTaskEntity(1, 1));
+        assertNotNull(cache.get(1, 2), "An older render should not replace a newer one");
+
+        cache.invalidate(1);
+        assertNull(cache.get(1, 2));
+    }
+
+    @Test
+    void testListIsAssembledFromFragments() throws Exception {
+        TaskJsonCache cache = createCache(DataSize.ofMegabytes(1));
+        List<TaskEntity> taskEntities = List.of(createTaskEntity(1, 1), createTaskEntity(2, 4), createTaskEntity(3, 1));
+        List<TaskDto> taskDtos = taskEntities.stream().map(TaskDto::toDto).toList();
+
+        assertEquals(objectMapper.writeValueAsString(taskDtos), new String(cache.getList(taskEntities), StandardCharsets.UTF_8));
+        assertEquals("[]", new String(cache.getList(List.of()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testEvictsBySizeAndReportsMetrics() {
+        TaskJsonCache cache = createCache(DataSize.ofKilobytes(16));
+        List<TaskEntity> taskEntities = new ArrayList<>();
+        for (int id = 0; id < 1_000; id++) {
+            taskEntities.add(createTaskEntity(id, 1));
+        }
+        // Hit before the cache overflows: admission may reject any entry added after that.
+        cache.getList(taskEntities.subList(0, 1));
+        cache.getList(taskEntities.subList(0, 1));
+        cache.getList(taskEntities.subList(1, 1_000));
+        cache.cleanUp();
+
+        assertTrue(cache.stats().evictionCount() > 0, "Entries beyond the size bound should be evicted");
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(1_000, cache.stats().missCount());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "tasks.json").tag("result", "hit").functionCounter().count());
+    }
+}
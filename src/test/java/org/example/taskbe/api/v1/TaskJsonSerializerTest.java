@@ -0,0 +1,44 @@
+package org.example.taskbe.api.v1;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.example.taskbe.domain.Priority;
+import org.example.taskbe.domain.Topic;
+import org.example.taskbe.domain.dto.TaskDto;
+import org.example.taskbe.domain.entity.TaskEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskJsonSerializerTest {
+
+    // Configured like Spring Boot's ObjectMapper, which writes dates as ISO-8601 strings.
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+
+    @Test
+    void testWritesSameJsonAsJacksonDto() throws Exception {
+        LocalDateTime dateTime = LocalDateTime.of(2024, 2, 29, 7, 5);
+        List<TaskEntity> taskEntities = List.of(
+                new TaskEntity(1, Topic.MATHEMATICS, "Algebra", "Chapter 3", dateTime, false, dateTime, Priority.CRITICAL, 1),
+                new TaskEntity(null, null, null, null, null, true, null, null, 0),
+                new TaskEntity(2, Topic.GERMAN, "\"Übung\" \\ Nr.\t2 ☃ 📚", "Zeile 1\nZeile 2\u0001", dateTime.withNano(500_000_000),
+                        false, dateTime.withNano(123_456_000), Priority.MINOR, Long.MAX_VALUE),
+                new TaskEntity(3, Topic.FRENCH, "", "", dateTime.withNano(1), false, LocalDateTime.of(10_000, 1, 1, 0, 0),
+                        Priority.MAJOR, 3),
+                new TaskEntity(4, Topic.ENGLISH, "Old", null, LocalDateTime.of(-1, 12, 31, 23, 59, 59, 999_999_999), false,
+                        LocalDateTime.of(0, 1, 1, 0, 0, 1), Priority.MAJOR, 4)
+        );
+
+        for (TaskEntity taskEntity : taskEntities) {
+            // Byte output escapes surrogate pairs, unlike writeValueAsString, so compare bytes.
+            String expected = new String(objectMapper.writeValueAsBytes(TaskDto.toDto(taskEntity)), StandardCharsets.UTF_8);
+            String actual = new String(TaskJsonSerializer.toBytes(objectMapper.getFactory(), taskEntity), StandardCharsets.UTF_8);
+            assertEquals(expected, actual, "Hand-written JSON should match Jackson's for task " + taskEntity.getId());
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package org.example.taskbe.api.v1;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.example.taskbe.domain.Priority;
+import org.example.taskbe.domain.Topic;
+import org.example.taskbe.domain.entity.TaskEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskNdjsonWriterTest {
+
+    private static final int STREAMED_TASKS = 10_000;
+    private static final int EXPORTED_TASKS = 1_000_000;
+    private static final long ALLOWED_HEAP_GROWTH = 32L * 1024 * 1024;
+
+    private ObjectMapper objectMapper;
+    private TaskNdjsonWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        writer = new TaskNdjsonWriter(objectMapper);
+    }
+
+    private static TaskEntity createTaskEntity(int id) {
+        return new TaskEntity(
+                id,
+                Topic.values()[id % Topic.values().length],
+                "Task " + id,
+                "Exported task " + id,
+                LocalDateTime.of(2024, 12, 31, 23, 59, 59),
+                id % 2 == 0,
+                LocalDateTime.of(2024, 1, 1, 12, 0),
+                Priority.values()[id % Priority.values().length],
+                0
+        );
+    }
+
+    @Test
+    void testWritesOneTaskPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = writer.write(IntStream.range(0, 3).mapToObj(TaskNdjsonWriterTest::createTaskEntity), out, false);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(3, written, "All tasks should be written");
+        assertEquals(4, lines.length, "Every task should be terminated by a newline");
+        assertEquals("", lines[3], "Output should end with a newline");
+        for (int i = 0; i < 3; i++) {
+            JsonNode task = objectMapper.readTree(lines[i]);
+            assertEquals(i, task.get("id").asInt(), "Tasks should be written in order");
+            assertEquals("Task " + i, task.get("title").asText(), "Task fields should be serialized");
+        }
+    }
+
+    @Test
+    void testWritesNothingForNoTasks() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(0, writer.write(Stream.empty(), out, false), "No tasks should be written");
+        assertEquals(0, out.size(), "Output should be empty");
+    }
+
+    @Test
+    void testGzipOutput() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        writer.write(IntStream.range(0, 100).mapToObj(TaskNdjsonWriterTest::createTaskEntity), out, true);
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            String[] lines = new String(in.readAllBytes(), StandardCharsets.UTF_8).split("\n");
+            assertEquals(100, lines.length, "Decompressed output should contain every task");
+            assertEquals(99, objectMapper.readTree(lines[99]).get("id").asInt(), "Last line should be the last task");
+        }
+    }
+
+    @Test
+    void testWritesTasksOutBeforeReadingTheRest() throws Exception {
+        CountingOutputStream out = new CountingOutputStream();
+        long[] writtenBeforeLastTask = {0};
+
+        Stream<TaskEntity> tasks = IntStream.range(0, STREAMED_TASKS)
+                .mapToObj(TaskNdjsonWriterTest::createTaskEntity)
+                .peek(task -> {
+                    if (task.getId() == STREAMED_TASKS - 1) {
+                        writtenBeforeLastTask[0] = out.count;
+                    }
+                });
+        writer.write(tasks, out, false);
+
+        assertTrue(writtenBeforeLastTask[0] > out.count / 2,
+                "Only " + writtenBeforeLastTask[0] + " of " + out.count + " bytes were written before the last task was read");
+    }
+
+    /**
+     * Runs with {@code -Pbenchmark}: it exports a million tasks and forces a GC at each checkpoint.
+     */
+    @Test
+    @Tag("benchmark")
+    void testHeapStaysFlatWhenExportingOneMillionTasks() throws Exception {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long[] maxUsedAfterGc = {0};
+        long baseline = usedHeapAfterGc(memory);
+        CountingOutputStream out = new CountingOutputStream();
+
+        Stream<TaskEntity> tasks = IntStream.range(0, EXPORTED_TASKS)
+                .mapToObj(TaskNdjsonWriterTest::createTaskEntity)
+                .peek(task -> {
+                    if (task.getId() % 250_000 == 0) {
+                        maxUsedAfterGc[0] = Math.max(maxUsedAfterGc[0], usedHeapAfterGc(memory));
+                    }
+                });
+        long written = writer.write(tasks, out, false);
+
+        assertEquals(EXPORTED_TASKS, written, "Every task should be exported");
+        assertTrue(out.count > 100L * EXPORTED_TASKS, "Export should have produced the full payload");
+        assertTrue(maxUsedAfterGc[0] - baseline < ALLOWED_HEAP_GROWTH,
+                "Retained heap grew by " + (maxUsedAfterGc[0] - baseline) + " bytes while exporting");
+    }
+
+    private static long usedHeapAfterGc(MemoryMXBean memory) {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
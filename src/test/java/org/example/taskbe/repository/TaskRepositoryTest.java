@@ -2,14 +2,31 @@ package org.example.taskbe.repository;
 
 import org.example.taskbe.domain.Priority;
 import org.example.taskbe.domain.Topic;
+import org.example.taskbe.domain.dto.TaskDto;
+import org.example.taskbe.domain.dto.TaskPredicateDto;
+import org.example.taskbe.domain.dto.TaskRangeDto;
+import org.example.taskbe.domain.dto.TaskStatsDto;
 import org.example.taskbe.domain.entity.TaskEntity;
+import org.example.taskbe.repository.index.OrderedIndex;
+import org.example.taskbe.repository.index.TaskBitmapIndex;
+import org.example.taskbe.repository.index.TrigramIndex;
+import org.example.taskbe.repository.store.HeapTaskStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.function.Executable;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Predicate;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -29,7 +46,8 @@ class TaskRepositoryTest {
                 LocalDateTime.now().plusDays(1),
                 false,
                 LocalDateTime.now(),
-                Priority.CRITICAL
+                Priority.CRITICAL,
+                0
         );
     }
 
@@ -64,10 +82,9 @@ class TaskRepositoryTest {
     }
 
     @Test
-    void testFindById_IndexOutOfBounds() {
-        Executable findInvalidId = () -> taskRepository.findById(-1);
-
-        assertThrows(IndexOutOfBoundsException.class, findInvalidId, "Negative ID should throw IndexOutOfBoundsException");
+    void testFindById_Missing() {
+        assertTrue(taskRepository.findById(-1).isEmpty(), "Negative ID should not resolve to a task");
+        assertTrue(taskRepository.findById(42).isEmpty(), "Unknown ID should not resolve to a task");
     }
 
     @Test
@@ -81,7 +98,8 @@ class TaskRepositoryTest {
                 LocalDateTime.now().plusDays(2),
                 false,
                 LocalDateTime.now(),
-                Priority.MAJOR
+                Priority.MAJOR,
+                0
         ));
 
         List<TaskEntity> tasksWithTitle = taskRepository.findByTitle("Task");
@@ -112,7 +130,8 @@ class TaskRepositoryTest {
                 LocalDateTime.now().plusDays(3),
                 false,
                 LocalDateTime.now(),
-                Priority.MINOR
+                Priority.MINOR,
+                0
         ));
 
         taskRepository.delete(createdTask.getId());
@@ -120,7 +139,141 @@ class TaskRepositoryTest {
         List<TaskEntity> tasks = taskRepository.findAll();
         assertEquals(1, tasks.size(), "One task should remain after deletion");
         assertEquals("Task 2", tasks.get(0).getTitle(), "Remaining task should have title 'Task 2'");
-        assertEquals(0, tasks.get(0).getId(), "Remaining task ID should be reset to 0");
+        assertEquals(1, tasks.get(0).getId(), "Remaining task should keep its ID");
+        assertTrue(taskRepository.findById(createdTask.getId()).isEmpty(), "Deleted task should no longer be found");
+    }
+
+    @Test
+    void testUpdate_ComparesAndBumpsVersion() {
+        TaskEntity createdTask = taskRepository.create(sampleTaskEntity);
+        assertEquals(1, createdTask.getVersion(), "New tasks should start at version 1");
+
+        TaskEntity edit = TaskEntity.toEntity(TaskDto.toDto(createdTask));
+        edit.setTitle("Edited");
+        assertEquals(2, taskRepository.update(edit, 1).orElseThrow().getVersion(), "A matching version should be bumped");
+
+        TaskEntity staleEdit = TaskEntity.toEntity(TaskDto.toDto(createdTask));
+        staleEdit.setTitle("Lost update");
+        assertThrows(VersionConflictException.class, () -> taskRepository.update(staleEdit, 1), "A stale version should be rejected");
+        assertEquals("Edited", taskRepository.findById(createdTask.getId()).orElseThrow().getTitle());
+        staleEdit.setId(42);
+        assertTrue(taskRepository.update(staleEdit, 1).isEmpty(), "Missing tasks should not be updated");
+    }
+
+    @Test
+    void testChangeStamp_GrowsWithEveryChange() {
+        long initial = taskRepository.getChangeStamp();
+        TaskEntity createdTask = taskRepository.create(sampleTaskEntity);
+        assertEquals(initial + 1, taskRepository.getChangeStamp(), "Creating should bump the stamp");
+        assertEquals(1, taskRepository.findVersion(createdTask.getId()));
+
+        taskRepository.update(createdTask);
+        taskRepository.delete(createdTask.getId());
+        assertEquals(initial + 3, taskRepository.getChangeStamp(), "Updating and deleting should bump the stamp");
+
+        taskRepository.delete(createdTask.getId());
+        taskRepository.update(createdTask);
+        assertEquals(initial + 3, taskRepository.getChangeStamp(), "No-op writes should not bump the stamp");
+        assertTrue(taskRepository.findVersion(createdTask.getId()) < 0, "Deleted tasks have no version");
+    }
+
+    @Test
+    void testBatch_AwaitsJournalOnce() {
+        int[] appends = new int[1];
+        int[] awaits = new int[1];
+        taskRepository.setJournal(new TaskJournal() {
+            @Override
+            public void appendUpsert(TaskEntity taskEntity) {
+                appends[0]++;
+            }
+
+            @Override
+            public void appendDelete(int id) {
+                appends[0]++;
+            }
+
+            @Override
+            public void awaitDurable() {
+                awaits[0]++;
+            }
+        });
+
+        TaskEntity createdTask = taskRepository.create(sampleTaskEntity);
+        assertEquals(1, awaits[0], "A single write should wait for its own record");
+
+        taskRepository.batch(() -> {
+            for (int i = 0; i < 10; i++) {
+                taskRepository.update(createdTask);
+            }
+            return taskRepository.delete(createdTask.getId());
+        });
+        assertEquals(12, appends[0], "Every write in the batch should be journaled");
+        assertEquals(2, awaits[0], "The batch should wait once for all of its records");
+
+        taskRepository.create(sampleTaskEntity);
+        assertEquals(3, awaits[0], "Writes after the batch should wait again");
+    }
+
+    @Test
+    void testChangeListener_SeesChangesInOrderBeforeDurable() {
+        List<String> calls = new ArrayList<>();
+        taskRepository.setChangeListener(new TaskChangeListener() {
+            @Override
+            public void changed(TaskEntity taskEntity) {
+                calls.add("changed " + taskEntity.getId() + "@" + taskEntity.getVersion());
+            }
+
+            @Override
+            public void deleted(int id) {
+                calls.add("deleted " + id);
+            }
+
+            @Override
+            public void durable() {
+                calls.add("durable");
+            }
+        });
+
+        TaskEntity createdTask = taskRepository.create(sampleTaskEntity);
+        taskRepository.batch(() -> {
+            taskRepository.update(createdTask);
+            return taskRepository.delete(createdTask.getId());
+        });
+        taskRepository.restore(createdTask);
+
+        assertEquals(List.of("changed 0@1", "durable", "changed 0@2", "deleted 0", "durable"), calls,
+                "Recovery should not be reported");
+    }
+
+    @Test
+    void testDelete_ComparesVersion() {
+        TaskEntity createdTask = taskRepository.create(sampleTaskEntity);
+
+        assertThrows(VersionConflictException.class, () -> taskRepository.delete(createdTask.getId(), 2));
+        assertTrue(taskRepository.findById(createdTask.getId()).isPresent(), "A stale delete should keep the task");
+        assertTrue(taskRepository.delete(createdTask.getId(), 1));
+        assertFalse(taskRepository.delete(createdTask.getId(), 1), "Deleting a missing task should report it");
+    }
+
+    @Test
+    void testCreateAfterDelete_DoesNotReuseIds() {
+        TaskEntity first = taskRepository.create(sampleTaskEntity);
+        taskRepository.delete(first.getId());
+
+        TaskEntity second = taskRepository.create(new TaskEntity(
+                null,
+                Topic.GERMAN,
+                "Task 2",
+                "Description 2",
+                LocalDateTime.now().plusDays(3),
+                false,
+                LocalDateTime.now(),
+                Priority.MINOR,
+                0
+        ));
+
+        assertEquals(1, second.getId(), "IDs should be allocated monotonically");
+        assertEquals(1, taskRepository.count(), "Only the second task should remain");
     }
 
     @Test
@@ -140,4 +293,479 @@ class TaskRepositoryTest {
         assertEquals(1, tasks.size(), "findAll should return one task after update");
         assertEquals(updatedTask, tasks.get(0), "findAll should return the updated task");
     }
+
+    @Test
+    void testFindByTitle_MatchesSubstringScan() {
+        Random random = new Random(42);
+        String[] words = {"Algebra", "Essay", "Grammar", "Vokabeln", "Lecture", "Review", "Task", "a", "ab"};
+        List<TaskEntity> created = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            String title = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)] + " " + i;
+            created.add(taskRepository.create(new TaskEntity(
+                    null,
+                    Topic.values()[random.nextInt(Topic.values().length)],
+                    title,
+                    "Description",
+                    LocalDateTime.now(),
+                    false,
+                    LocalDateTime.now(),
+                    Priority.MINOR,
+                    0
+            )));
+        }
+        for (int i = 0; i < created.size(); i += 3) {
+            taskRepository.delete(created.get(i).getId());
+        }
+        for (int i = 1; i < created.size(); i += 5) {
+            TaskEntity edited = created.get(i);
+            edited.setTitle("Renamed " + edited.getTitle().toLowerCase());
+            taskRepository.create(edited);
+        }
+
+        for (String query : List.of("", "a", "ab", "Alg", "Essay Task", "renamed", "Renamed es", "ammar Rev", " 1", "42", "xyz")) {
+            List<Integer> expected = taskRepository.findAll().stream()
+                    .filter(task -> task.getTitle().contains(query))
+                    .map(TaskEntity::getId)
+                    .toList();
+            List<Integer> actual = taskRepository.findByTitle(query).stream().map(TaskEntity::getId).toList();
+            assertEquals(expected, actual, "Indexed search should match a substring scan for '" + query + "'");
+        }
+    }
+
+    @Test
+    void testSearch_RanksTitleAndDescriptionWithBm25() {
+        LocalDateTime now = LocalDateTime.now();
+        TaskEntity titleMatch = taskRepository.create(new TaskEntity(
+                null, Topic.MATHEMATICS, "Algebra homework", "Linear functions", now, false, now, Priority.MINOR, 0));
+        TaskEntity descriptionMatch = taskRepository.create(new TaskEntity(
+                null, Topic.MATHEMATICS, "Homework", "Revise the algebra chapter before the exam", now, false, now, Priority.MINOR, 0));
+        TaskEntity bothWords = taskRepository.create(new TaskEntity(
+                null, Topic.MATHEMATICS, "Algebra exam", "Linear equations", now, false, now, Priority.MINOR, 0));
+        TaskEntity unrelated = taskRepository.create(new TaskEntity(
+                null, Topic.ENGLISH, "Essay", null, now, false, now, Priority.MINOR, 0));
+
+        assertEquals(List.of(titleMatch, bothWords, descriptionMatch), taskRepository.search("ALGEBRA", 10),
+                "Matching should ignore case and rank title words above description words");
+        assertEquals(List.of(bothWords, descriptionMatch, titleMatch), taskRepository.search("algebra, exam!", 10),
+                "Tasks containing more of the query words should rank higher");
+        assertEquals(List.of(bothWords), taskRepository.search("algebra exam", 1), "The limit should be honoured");
+        assertTrue(taskRepository.search("geometry", 10).isEmpty(), "Unknown words should match nothing");
+
+        unrelated.setDescription("Compare algebra textbooks");
+        taskRepository.create(unrelated);
+        taskRepository.delete(titleMatch.getId());
+        bothWords.setTitle("Exam");
+        taskRepository.create(bothWords);
+
+        assertEquals(List.of(unrelated, descriptionMatch), taskRepository.search("algebra", 10),
+                "Edits and deletes should be reflected in the index");
+        assertEquals(List.of(bothWords, descriptionMatch), taskRepository.search("exam", 10));
+    }
+
+    @Test
+    void testFindByFilter() {
+        TaskEntity openCriticalMaths = taskRepository.create(sampleTaskEntity);
+        TaskEntity doneCriticalMaths = taskRepository.create(new TaskEntity(
+                null, Topic.MATHEMATICS, "Task 2", "Description 2", LocalDateTime.now(), true, LocalDateTime.now(), Priority.CRITICAL, 0));
+        TaskEntity openMinorEnglish = taskRepository.create(new TaskEntity(
+                null, Topic.ENGLISH, "Task 3", "Description 3", LocalDateTime.now(), false, LocalDateTime.now(), Priority.MINOR, 0));
+
+        assertEquals(List.of(openCriticalMaths), taskRepository.findByFilter(Topic.MATHEMATICS, Priority.CRITICAL, false));
+        assertEquals(List.of(openCriticalMaths, doneCriticalMaths), taskRepository.findByFilter(Topic.MATHEMATICS, null, null));
+        assertEquals(List.of(openCriticalMaths, openMinorEnglish), taskRepository.findByFilter(null, null, false));
+        assertEquals(3, taskRepository.findByFilter(null, null, null).size(), "No criteria should match every task");
+
+        openCriticalMaths.setDone(true);
+        taskRepository.create(openCriticalMaths);
+        taskRepository.delete(openMinorEnglish.getId());
+
+        assertTrue(taskRepository.findByFilter(null, null, false).isEmpty(), "Edits and deletes should be reflected in the index");
+        assertEquals(List.of(openCriticalMaths, doneCriticalMaths), taskRepository.findByFilter(null, Priority.CRITICAL, true));
+    }
+
+    @Test
+    void testDueDateQueries() {
+        LocalDateTime now = LocalDateTime.of(2024, 6, 1, 12, 0);
+        TaskEntity overdue = taskRepository.create(new TaskEntity(
+                null, Topic.MATHEMATICS, "Overdue", null, now.minusDays(2), false, now, Priority.MAJOR, 0));
+        TaskEntity overdueDone = taskRepository.create(new TaskEntity(
+                null, Topic.MATHEMATICS, "Overdue done", null, now.minusDays(1), true, now, Priority.MAJOR, 0));
+        TaskEntity later = taskRepository.create(new TaskEntity(
+                null, Topic.ENGLISH, "Later", null, now.plusDays(5), false, now, Priority.MINOR, 0));
+        TaskEntity soon = taskRepository.create(new TaskEntity(
+                null, Topic.FRENCH, "Soon", null, now.plusHours(1), false, now, Priority.CRITICAL, 0));
+        taskRepository.create(new TaskEntity(
+                null, Topic.GERMAN, "No due date", null, null, false, now, Priority.MINOR, 0));
+
+        assertEquals(List.of(overdue, overdueDone, soon), taskRepository.findDueBetween(now.minusDays(2), now.plusHours(1)),
+                "Range query should be inclusive and ordered by due date");
+        assertTrue(taskRepository.findDueBetween(now, now.minusDays(1)).isEmpty(), "Inverted range should be empty");
+        assertEquals(List.of(overdue), taskRepository.findOverdue(now), "Only open tasks should be overdue");
+        assertEquals(List.of(soon, later), taskRepository.findNextDue(now, 10), "Tasks without due date should not be upcoming");
+        assertEquals(List.of(soon), taskRepository.findNextDue(now, 1), "Upcoming tasks should honour the limit");
+
+        overdue.setDone(true);
+        taskRepository.create(overdue);
+        soon.setDueAt(now.plusDays(10));
+        taskRepository.create(soon);
+        taskRepository.delete(later.getId());
+
+        assertTrue(taskRepository.findOverdue(now).isEmpty(), "Completed tasks should leave the overdue list");
+        assertEquals(List.of(soon), taskRepository.findNextDue(now, 10), "Edits and deletes should be reflected in the index");
+    }
+
+    @Test
+    void testFindMostUrgent_FollowsPriorityDueDateAndDoneFlips() {
+        LocalDateTime now = LocalDateTime.of(2024, 6, 1, 12, 0);
+        TaskEntity minorSoon = taskRepository.create(new TaskEntity(
+                null, Topic.MATHEMATICS, "Minor soon", null, now.plusHours(1), false, now, Priority.MINOR, 0));
+        TaskEntity criticalLater = taskRepository.create(new TaskEntity(
+                null, Topic.MATHEMATICS, "Critical later", null, now.plusDays(3), false, now, Priority.CRITICAL, 0));
+        TaskEntity criticalUndated = taskRepository.create(new TaskEntity(
+                null, Topic.ENGLISH, "Critical undated", null, null, false, now, Priority.CRITICAL, 0));
+        TaskEntity criticalLongAgo = taskRepository.create(new TaskEntity(
+                null, Topic.ENGLISH, "Critical long ago", null, LocalDateTime.of(1900, 1, 1, 0, 0), false, now, Priority.CRITICAL, 0));
+        TaskEntity majorDone = taskRepository.create(new TaskEntity(
+                null, Topic.FRENCH, "Major done", null, now, true, now, Priority.MAJOR, 0));
+        TaskEntity major = taskRepository.create(new TaskEntity(
+                null, Topic.FRENCH, "Major", null, now.plusDays(1), false, now, Priority.MAJOR, 0));
+
+        assertEquals(List.of(criticalLongAgo, criticalLater, criticalUndated, major, minorSoon), taskRepository.findMostUrgent(10),
+                "Open tasks should be ordered by priority, then due date, with undated tasks last");
+        assertEquals(List.of(criticalLongAgo, criticalLater), taskRepository.findMostUrgent(2), "The limit should be honoured");
+
+        criticalLongAgo.setDone(true);
+        taskRepository.create(criticalLongAgo);
+        majorDone.setDone(false);
+        taskRepository.create(majorDone);
+        minorSoon.setPriority(Priority.CRITICAL);
+        taskRepository.create(minorSoon);
+        taskRepository.delete(criticalLater.getId());
+
+        assertEquals(List.of(minorSoon, criticalUndated, majorDone, major), taskRepository.findMostUrgent(10),
+                "Done flips, edits and deletes should be reflected in the order");
+    }
+
+    @Test
+    void testGetStatistics_FollowsCreatesEditsAndDeletes() {
+        LocalDateTime now = LocalDateTime.of(2024, 6, 1, 12, 0);
+        TaskEntity overdueToday = taskRepository.create(new TaskEntity(
+                null, Topic.MATHEMATICS, "Due this morning", null, now.minusHours(3), false, now, Priority.MAJOR, 0));
+        TaskEntity overdue = taskRepository.create(new TaskEntity(
+                null, Topic.MATHEMATICS, "Due last week", null, now.minusDays(7), false, now, Priority.CRITICAL, 0));
+        taskRepository.create(new TaskEntity(
+                null, Topic.ENGLISH, "Done late", null, now.minusDays(1), true, now, Priority.MINOR, 0));
+        taskRepository.create(new TaskEntity(
+                null, Topic.FRENCH, "Due tonight", null, now.plusHours(6), false, now, Priority.MINOR, 0));
+        taskRepository.create(new TaskEntity(
+                null, Topic.GERMAN, "No due date", null, null, false, now, Priority.MINOR, 0));
+
+        TaskStatsDto stats = taskRepository.getStatistics(now);
+        assertEquals(5, stats.getTotal());
+        assertEquals(4, stats.getOpen());
+        assertEquals(1, stats.getDone());
+        assertEquals(2, stats.getOverdue(), "Open tasks due earlier today and on earlier days should be overdue");
+        assertEquals(2, stats.getByTopic().get(Topic.MATHEMATICS));
+        assertEquals(3, stats.getByPriority().get(Priority.MINOR));
+
+        overdue.setDone(true);
+        overdue.setTopic(Topic.ENGLISH);
+        taskRepository.create(overdue);
+        taskRepository.delete(overdueToday.getId());
+
+        stats = taskRepository.getStatistics(now);
+        assertEquals(4, stats.getTotal());
+        assertEquals(2, stats.getDone());
+        assertEquals(0, stats.getOverdue(), "Completed and deleted tasks should leave the overdue count");
+        assertEquals(0, stats.getByTopic().get(Topic.MATHEMATICS));
+        assertEquals(2, stats.getByTopic().get(Topic.ENGLISH));
+        assertEquals(taskRepository.findOverdue(now.plusHours(7)).size(), taskRepository.getStatistics(now.plusHours(7)).getOverdue(),
+                "The overdue count should match the overdue list");
+    }
+
+    @Test
+    void testGetStatistics_CountsTasksAsTheyBecomeOverdue() {
+        LocalDateTime now = LocalDateTime.of(2024, 6, 1, 12, 0);
+        TaskEntity dueSoon = taskRepository.create(new TaskEntity(
+                null, Topic.MATHEMATICS, "Due in an hour", null, now.plusHours(1), false, now, Priority.MAJOR, 0));
+        taskRepository.create(new TaskEntity(
+                null, Topic.MATHEMATICS, "Due in two hours", null, now.plusHours(2), false, now, Priority.MAJOR, 0));
+        assertEquals(0, taskRepository.getStatistics(now).getOverdue());
+        assertEquals(2, taskRepository.getStatistics(now.plusHours(3)).getOverdue(), "Passed due times should be counted");
+
+        dueSoon.setDueAt(now.plusHours(5));
+        taskRepository.create(dueSoon);
+        assertEquals(1, taskRepository.getStatistics(now.plusHours(3)).getOverdue(), "Moving a counted task forward should take it back");
+
+        taskRepository.create(new TaskEntity(
+                null, Topic.FRENCH, "Created late", null, now.minusDays(1), false, now, Priority.MINOR, 0));
+        assertEquals(2, taskRepository.getStatistics(now.plusHours(3)).getOverdue(), "A task already past due should be counted at once");
+        assertEquals(1, taskRepository.getStatistics(now).getOverdue(), "An earlier time should not count tasks due after it");
+
+        dueSoon.setDone(true);
+        taskRepository.create(dueSoon);
+        assertEquals(2, taskRepository.getStatistics(now.plusHours(6)).getOverdue(), "A completed task should not be counted");
+    }
+
+    @Test
+    void testFindPage_KeysetPagination() {
+        LocalDateTime now = LocalDateTime.of(2024, 6, 1, 12, 0);
+        for (int i = 0; i < 10; i++) {
+            taskRepository.create(new TaskEntity(
+                    null, Topic.MATHEMATICS, "Task " + i, null, now.minusHours(i), false, now, Priority.values()[i % 3], 0));
+        }
+
+        List<TaskEntity> firstPage = taskRepository.findPage(TaskSort.DUE_AT, null, 4);
+        assertEquals(List.of(9, 8, 7, 6), firstPage.stream().map(TaskEntity::getId).toList(), "First page should follow due date order");
+
+        TaskEntity last = firstPage.get(firstPage.size() - 1);
+        taskRepository.delete(5);
+        List<TaskEntity> secondPage = taskRepository.findPage(TaskSort.DUE_AT, new OrderedIndex.Entry(TaskSort.DUE_AT.key(last), last.getId()), 4);
+        assertEquals(List.of(4, 3, 2, 1), secondPage.stream().map(TaskEntity::getId).toList(), "Next page should resume after the cursor");
+
+        List<TaskEntity> byPriority = taskRepository.findPage(TaskSort.PRIORITY, null, 20);
+        assertEquals(List.of(0, 3, 6, 9, 1, 4, 7, 2, 8), byPriority.stream().map(TaskEntity::getId).toList(), "Priority order should break ties by ID");
+    }
+
+    @Test
+    void testQuery_MatchesBruteForce() {
+        Random random = new Random(7);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        String[] words = {"Algebra", "Essay", "Grammar", "Review"};
+        for (int i = 0; i < 2000; i++) {
+            taskRepository.create(new TaskEntity(
+                    null,
+                    Topic.values()[random.nextInt(Topic.values().length)],
+                    words[random.nextInt(words.length)] + " " + i,
+                    null,
+                    random.nextInt(10) == 0 ? null : start.plusHours(random.nextInt(24 * 60)),
+                    random.nextBoolean(),
+                    start.plusMinutes(i),
+                    Priority.values()[random.nextInt(Priority.values().length)],
+                    0
+            ));
+        }
+        for (int i = 0; i < 2000; i += 7) {
+            taskRepository.delete(i);
+        }
+
+        TaskRangeDto january = new TaskRangeDto(start, start.plusDays(30));
+        List<TaskPredicateDto> predicates = List.of(
+                topic(Topic.MATHEMATICS),
+                and(topic(Topic.MATHEMATICS), done(false)),
+                and(topic(Topic.MATHEMATICS), topic(Topic.ENGLISH)),
+                and(priority(Priority.CRITICAL), title("Essay")),
+                and(due(january), done(true)),
+                and(due(new TaskRangeDto(start.plusDays(3), start.plusDays(4))), title("Review")),
+                or(topic(Topic.ENGLISH), title("Algebra 1")),
+                or(topic(Topic.ENGLISH), not(done(true))),
+                not(topic(Topic.MATHEMATICS)),
+                and(title("Gr"), createdAt(new TaskRangeDto(null, start.plusMinutes(500)))),
+                due(new TaskRangeDto(start.plusDays(50), null))
+        );
+        for (TaskPredicateDto where : predicates) {
+            for (TaskSort sort : TaskSort.values()) {
+                for (int limit : new int[]{1, 25, 5000}) {
+                    Predicate<TaskEntity> matches = bruteForce(where);
+                    List<Integer> expected = taskRepository.findAll().stream()
+                            .filter(matches)
+                            .sorted(Comparator.<TaskEntity>comparingLong(sort::key).thenComparing(TaskEntity::getId))
+                            .limit(limit)
+                            .map(TaskEntity::getId)
+                            .toList();
+                    TaskQueryResult result = taskRepository.query(where, sort, limit);
+                    assertEquals(expected, result.tasks().stream().map(TaskEntity::getId).toList(),
+                            "Query should match a brute force filter for " + result.plan());
+                }
+            }
+        }
+    }
+
+    @Test
+    void testQuery_ChoosesCheapestAccessPath() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = 0; i < 1000; i++) {
+            taskRepository.create(new TaskEntity(
+                    null, i % 100 == 0 ? Topic.ENGLISH : Topic.MATHEMATICS, "Task " + i, null, start.plusHours(i),
+                    i % 2 == 0, start, Priority.MINOR, 0));
+        }
+
+        TaskQueryResult bitmap = taskRepository.query(and(topic(Topic.ENGLISH), done(true)), TaskSort.DUE_AT, 5);
+        assertEquals("BitmapScan(topic=ENGLISH, done=true) -> Filter -> Sort(dueAt) -> Limit(5)", bitmap.plan());
+        assertEquals(10, bitmap.rowsExamined(), "Only the bitmap matches should be examined");
+        assertEquals(5, bitmap.tasks().size());
+
+        TaskQueryResult scan = taskRepository.query(done(false), TaskSort.ID, 5);
+        assertEquals("IndexScan(id) -> Filter -> Limit(5)", scan.plan(), "A common value should be found sooner by walking the sort order");
+        assertEquals(10, scan.rowsExamined());
+
+        TaskQueryResult title = taskRepository.query(and(title("Task 99"), done(true)), TaskSort.ID, 100);
+        assertTrue(title.plan().startsWith("TrigramScan(title contains \"Task 99\")"), title.plan());
+        assertEquals(List.of(990, 992, 994, 996, 998), title.tasks().stream().map(TaskEntity::getId).toList());
+
+        TaskQueryResult range = taskRepository.query(
+                and(topic(Topic.MATHEMATICS), due(new TaskRangeDto(start.plusHours(10), start.plusHours(14)))), TaskSort.DUE_AT, 100);
+        assertTrue(range.plan().startsWith("RangeScan(dueAt"), range.plan());
+        assertEquals(5, range.rowsExamined());
+
+        TaskQueryResult empty = taskRepository.query(and(topic(Topic.ENGLISH), topic(Topic.MATHEMATICS)), TaskSort.ID, 100);
+        assertEquals(0, empty.rowsExamined(), "Contradicting equalities should not examine any task");
+
+        TaskQueryResult all = taskRepository.query(null, TaskSort.DUE_AT, 3);
+        assertEquals("IndexScan(dueAt) -> Limit(3)", all.plan());
+        assertEquals(List.of(0, 1, 2), all.tasks().stream().map(TaskEntity::getId).toList());
+    }
+
+    @Test
+    void testQuery_StopsCountingRangeThatCannotWin() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        HeapTaskStore store = new HeapTaskStore();
+        Map<TaskSort, OrderedIndex> sortIndexes = new EnumMap<>(TaskSort.class);
+        long[] walked = new long[1];
+        for (TaskSort sort : TaskSort.values()) {
+            sortIndexes.put(sort, new OrderedIndex());
+        }
+        sortIndexes.put(TaskSort.DUE_AT, new OrderedIndex() {
+            @Override
+            public NavigableSet<Entry> between(long fromInclusive, long toInclusive) {
+                return new ConcurrentSkipListSet<>(super.between(fromInclusive, toInclusive)) {
+                    @Override
+                    public Iterator<Entry> iterator() {
+                        Iterator<Entry> entries = super.iterator();
+                        return new Iterator<>() {
+                            @Override
+                            public boolean hasNext() {
+                                return entries.hasNext();
+                            }
+
+                            @Override
+                            public Entry next() {
+                                walked[0]++;
+                                return entries.next();
+                            }
+                        };
+                    }
+                };
+            }
+        });
+        for (int id = 0; id < 10_000; id++) {
+            TaskEntity taskEntity = new TaskEntity(id, Topic.MATHEMATICS, "Task " + id, null, start.plusMinutes(id), false, start,
+                    Priority.MINOR, 1);
+            store.compute(id, () -> taskEntity);
+            for (TaskSort sort : TaskSort.values()) {
+                sortIndexes.get(sort).put(id, sort.key(taskEntity));
+            }
+        }
+        TaskQueryPlanner planner = new TaskQueryPlanner(store, new TrigramIndex(), new TaskBitmapIndex(), sortIndexes);
+
+        TaskQueryResult wide = planner.execute(due(new TaskRangeDto(start, null)), TaskSort.ID, 5);
+        assertEquals("IndexScan(id) -> Filter -> Limit(5)", wide.plan());
+        assertTrue(walked[0] < 1_000, "A range that loses to the scan should not be counted in full, walked " + walked[0]);
+
+        walked[0] = 0;
+        TaskQueryResult narrow = planner.execute(due(new TaskRangeDto(start.plusMinutes(100), start.plusMinutes(119))), TaskSort.ID, 5);
+        assertTrue(narrow.plan().startsWith("RangeScan(dueAt"), narrow.plan());
+        assertEquals(20, narrow.estimatedRows(), "A range that can win should still be counted exactly");
+    }
+
+    @Test
+    void testQuery_RejectsInvalidPredicate() {
+        TaskPredicateDto twoFields = topic(Topic.MATHEMATICS);
+        twoFields.setDone(true);
+        assertThrows(IllegalArgumentException.class, () -> taskRepository.query(twoFields, TaskSort.ID, 10));
+        assertThrows(IllegalArgumentException.class, () -> taskRepository.query(new TaskPredicateDto(), TaskSort.ID, 10));
+        assertThrows(IllegalArgumentException.class, () -> taskRepository.query(and(), TaskSort.ID, 10));
+
+        TaskPredicateDto nullChild = new TaskPredicateDto();
+        nullChild.setAnd(Arrays.asList(topic(Topic.MATHEMATICS), null));
+        assertThrows(IllegalArgumentException.class, () -> taskRepository.query(nullChild, TaskSort.ID, 10),
+                "A null child should be rejected like any other invalid predicate");
+        assertThrows(IllegalArgumentException.class, () -> taskRepository.query(or(done(true), not(nullChild)), TaskSort.ID, 10));
+    }
+
+    private static Predicate<TaskEntity> bruteForce(TaskPredicateDto where) {
+        if (where.getAnd() != null) {
+            return where.getAnd().stream().map(TaskRepositoryTest::bruteForce).reduce(task -> true, Predicate::and);
+        }
+        if (where.getOr() != null) {
+            return where.getOr().stream().map(TaskRepositoryTest::bruteForce).reduce(task -> false, Predicate::or);
+        }
+        if (where.getNot() != null) {
+            return bruteForce(where.getNot()).negate();
+        }
+        if (where.getTopic() != null) {
+            return task -> task.getTopic() == where.getTopic();
+        }
+        if (where.getPriority() != null) {
+            return task -> task.getPriority() == where.getPriority();
+        }
+        if (where.getDone() != null) {
+            return task -> task.isDone() == where.getDone();
+        }
+        if (where.getTitleContains() != null) {
+            return task -> task.getTitle().contains(where.getTitleContains());
+        }
+        boolean due = where.getDueAt() != null;
+        TaskRangeDto range = due ? where.getDueAt() : where.getCreatedAt();
+        return task -> {
+            LocalDateTime value = due ? task.getDueAt() : task.getCreatedAt();
+            return value != null
+                    && (range.getFrom() == null || !value.isBefore(range.getFrom()))
+                    && (range.getTo() == null || !value.isAfter(range.getTo()));
+        };
+    }
+
+    private static TaskPredicateDto and(TaskPredicateDto... children) {
+        TaskPredicateDto predicate = new TaskPredicateDto();
+        predicate.setAnd(List.of(children));
+        return predicate;
+    }
+
+    private static TaskPredicateDto or(TaskPredicateDto... children) {
+        TaskPredicateDto predicate = new TaskPredicateDto();
+        predicate.setOr(List.of(children));
+        return predicate;
+    }
+
+    private static TaskPredicateDto not(TaskPredicateDto child) {
+        TaskPredicateDto predicate = new TaskPredicateDto();
+        predicate.setNot(child);
+        return predicate;
+    }
+
+    private static TaskPredicateDto topic(Topic topic) {
+        TaskPredicateDto predicate = new TaskPredicateDto();
+        predicate.setTopic(topic);
+        return predicate;
+    }
+
+    private static TaskPredicateDto priority(Priority priority) {
+        TaskPredicateDto predicate = new TaskPredicateDto();
+        predicate.setPriority(priority);
+        return predicate;
+    }
+
+    private static TaskPredicateDto done(boolean done) {
+        TaskPredicateDto predicate = new TaskPredicateDto();
+        predicate.setDone(done);
+        return predicate;
+    }
+
+    private static TaskPredicateDto title(String text) {
+        TaskPredicateDto predicate = new TaskPredicateDto();
+        predicate.setTitleContains(text);
+        return predicate;
+    }
+
+    private static TaskPredicateDto due(TaskRangeDto range) {
+        TaskPredicateDto predicate = new TaskPredicateDto();
+        predicate.setDueAt(range);
+        return predicate;
+    }
+
+    private static TaskPredicateDto createdAt(TaskRangeDto range) {
+        TaskPredicateDto predicate = new TaskPredicateDto();
+        predicate.setCreatedAt(range);
+        return predicate;
+    }
 }
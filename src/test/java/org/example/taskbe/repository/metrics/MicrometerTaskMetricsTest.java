@@ -0,0 +1,75 @@
+package org.example.taskbe.repository.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.taskbe.domain.Priority;
+import org.example.taskbe.domain.Topic;
+import org.example.taskbe.domain.entity.TaskEntity;
+import org.example.taskbe.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MicrometerTaskMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TaskRepository taskRepository;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        taskRepository = new TaskRepository();
+        taskRepository.setMetrics(new MicrometerTaskMetrics(meterRegistry, taskRepository));
+    }
+
+    @Test
+    void testChangesAreCountedPerOperation() {
+        // Arrange
+        TaskEntity first = taskRepository.create(createTaskEntity("Read chapter 1"));
+        taskRepository.create(createTaskEntity("Read chapter 2"));
+
+        // Act
+        taskRepository.update(createTaskEntity("Read chapter 1 again", first.getId()));
+        taskRepository.delete(first.getId());
+        taskRepository.delete(first.getId());
+
+        // Assert
+        assertEquals(2, operationCount("create"));
+        assertEquals(1, operationCount("edit"));
+        assertEquals(1, operationCount("delete"), "Deleting a missing task should not be counted");
+        assertEquals(1, meterRegistry.get("tasks.count").gauge().value());
+    }
+
+    @Test
+    void testTitleSearchRecordsScannedTasks() {
+        // Arrange
+        taskRepository.create(createTaskEntity("Read chapter 1"));
+        taskRepository.create(createTaskEntity("Read chapter 2"));
+        taskRepository.create(createTaskEntity("Write essay"));
+
+        // Act
+        taskRepository.findByTitle("chapter 2");
+        taskRepository.findByTitle("ch");
+
+        // Assert
+        DistributionSummary scanned = meterRegistry.get("tasks.search.scanned").tag("search", "title").summary();
+        assertEquals(2, scanned.count());
+        assertEquals(1 + 3, scanned.totalAmount(), "Indexed searches scan candidates, short queries scan every task");
+    }
+
+    private double operationCount(String operation) {
+        return meterRegistry.get("tasks.operations").tag("operation", operation).counter().count();
+    }
+
+    private static TaskEntity createTaskEntity(String title) {
+        return createTaskEntity(title, null);
+    }
+
+    private static TaskEntity createTaskEntity(String title, Integer id) {
+        return new TaskEntity(id, Topic.MATHEMATICS, title, "Description", LocalDateTime.now().plusDays(1), false,
+                LocalDateTime.now(), Priority.MAJOR, 0);
+    }
+}
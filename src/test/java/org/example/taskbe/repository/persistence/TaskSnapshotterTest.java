@@ -0,0 +1,183 @@
+package org.example.taskbe.repository.persistence;
+
+import org.example.taskbe.domain.Priority;
+import org.example.taskbe.domain.Topic;
+import org.example.taskbe.domain.entity.TaskEntity;
+import org.example.taskbe.repository.TaskRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskSnapshotterTest {
+
+    @TempDir
+    Path directory;
+
+    private static TaskEntity createTaskEntity(String title) {
+        return new TaskEntity(null, Topic.GERMAN, title, "Snapshot test", LocalDateTime.now(), false, LocalDateTime.now(), Priority.MINOR, 0);
+    }
+
+    private WriteAheadLog recover(TaskRepository taskRepository) throws IOException {
+        Optional<SnapshotFiles.Snapshot> snapshot = SnapshotFiles.loadLatest(directory, taskRepository::restore);
+        snapshot.ifPresent(loaded -> taskRepository.restoreSequence(loaded.sequence()));
+        WriteAheadLog writeAheadLog = WriteAheadLog.open(directory, snapshot.map(SnapshotFiles.Snapshot::lsn).orElse(1L),
+                FsyncPolicy.BATCHED, Duration.ofMillis(10), 4096, new WriteAheadLog.Replay() {
+                    @Override
+                    public void upsert(TaskEntity taskEntity) {
+                        taskRepository.restore(taskEntity);
+                    }
+
+                    @Override
+                    public void delete(int id) {
+                        taskRepository.restoreDelete(id);
+                    }
+                });
+        taskRepository.setJournal(writeAheadLog);
+        return writeAheadLog;
+    }
+
+    private List<Path> files(String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(suffix)).sorted().toList();
+        }
+    }
+
+    @Test
+    void testRecoversFromSnapshotAndLogTail() throws Exception {
+        TaskRepository original = new TaskRepository();
+        try (WriteAheadLog writeAheadLog = recover(original)) {
+            for (int i = 0; i < 100; i++) {
+                original.create(createTaskEntity("Before " + i));
+            }
+            original.delete(99);
+            assertTrue(files(".wal").size() > 1, "Small segments should have been rotated");
+
+            SnapshotFiles.Snapshot snapshot = new TaskSnapshotter(directory, original, writeAheadLog, Duration.ZERO).snapshot();
+            assertEquals(99, snapshot.count(), "Snapshot should hold every live task");
+            assertEquals(1, files(".wal").size(), "Segments covered by the snapshot should be deleted");
+
+            original.create(createTaskEntity("After"));
+            original.delete(0);
+            TaskEntity edited = original.findById(1).orElseThrow();
+            edited.setTitle("Edited after snapshot");
+            original.update(edited);
+        }
+
+        TaskRepository recovered = new TaskRepository();
+        try (WriteAheadLog ignored = recover(recovered)) {
+            assertEquals(99, recovered.count(), "Snapshot plus log tail should give the latest state");
+            assertTrue(recovered.findById(0).isEmpty(), "Delete after the snapshot should be replayed");
+            assertEquals("Edited after snapshot", recovered.findById(1).orElseThrow().getTitle());
+            assertEquals("After", recovered.findById(100).orElseThrow().getTitle());
+            assertEquals(101, recovered.create(createTaskEntity("Next")).getId(), "Deleted IDs should not be reused");
+        }
+    }
+
+    @Test
+    void testSnapshotWhileWritersKeepWriting() throws Exception {
+        TaskRepository original = new TaskRepository();
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<TaskEntity> expected;
+        try (WriteAheadLog writeAheadLog = recover(original)) {
+            TaskSnapshotter snapshotter = new TaskSnapshotter(directory, original, writeAheadLog, Duration.ZERO);
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                writers.add(executor.submit(() -> {
+                    int i = 0;
+                    while (running.get()) {
+                        TaskEntity created = original.create(createTaskEntity("Task " + thread + "-" + i));
+                        if (i % 3 == 0) {
+                            original.delete(created.getId());
+                        } else if (i % 3 == 1) {
+                            created.setDone(true);
+                            original.update(created);
+                        }
+                        i++;
+                    }
+                }));
+            }
+            for (int s = 0; s < 5; s++) {
+                Thread.sleep(20);
+                snapshotter.snapshot();
+            }
+            running.set(false);
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+            expected = original.findAll();
+            assertEquals(1, files(".snap").size(), "Only the latest snapshot should be kept");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        TaskRepository recovered = new TaskRepository();
+        try (WriteAheadLog ignored = recover(recovered)) {
+            List<TaskEntity> actual = recovered.findAll();
+            assertEquals(expected.size(), actual.size(), "Every acknowledged write should survive");
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getId(), actual.get(i).getId());
+                assertEquals(expected.get(i).getTitle(), actual.get(i).getTitle());
+                assertEquals(expected.get(i).isDone(), actual.get(i).isDone());
+            }
+        }
+    }
+
+    @Test
+    void testIgnoresCorruptSnapshot() throws Exception {
+        TaskRepository original = new TaskRepository();
+        try (WriteAheadLog writeAheadLog = recover(original)) {
+            original.create(createTaskEntity("First"));
+            new TaskSnapshotter(directory, original, writeAheadLog, Duration.ZERO).snapshot();
+            original.create(createTaskEntity("Second"));
+            new TaskSnapshotter(directory, original, writeAheadLog, Duration.ZERO).snapshot();
+        }
+        Path latest = files(".snap").get(0);
+        Files.copy(latest, directory.resolve("snapshot-00000000000000000001.snap"));
+        byte[] bytes = Files.readAllBytes(latest);
+        bytes[bytes.length / 2] ^= 0x5A;
+        Files.write(latest, bytes);
+
+        TaskRepository recovered = new TaskRepository();
+        assertEquals(2, SnapshotFiles.loadLatest(directory, recovered::restore).orElseThrow().count(),
+                "A corrupt snapshot should fall back to an older intact one");
+    }
+
+    @Test
+    void testLoadsTasksLargerThanTheReadBuffer() throws Exception {
+        String longDescription = "x".repeat(1024 * 1024);
+        List<TaskEntity> tasks = new ArrayList<>();
+        for (int id = 0; id < 3; id++) {
+            TaskEntity taskEntity = createTaskEntity("Task " + id);
+            taskEntity.setId(id);
+            taskEntity.setDescription(id == 1 ? longDescription : "Short " + id);
+            tasks.add(taskEntity);
+        }
+        SnapshotFiles.write(directory, 42, 3, tasks.stream());
+
+        List<TaskEntity> loaded = new ArrayList<>();
+        SnapshotFiles.Snapshot snapshot = SnapshotFiles.loadLatest(directory, loaded::add).orElseThrow();
+
+        assertEquals(42, snapshot.lsn());
+        assertEquals(3, snapshot.sequence());
+        assertEquals(3, snapshot.count());
+        assertEquals(longDescription, loaded.get(1).getDescription(), "A task spanning several reads should load whole");
+        assertEquals("Short 2", loaded.get(2).getDescription(), "Tasks after a large one should load");
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.taskbe.repository.persistence;
+
+import org.example.taskbe.domain.Priority;
+import org.example.taskbe.domain.Topic;
+import org.example.taskbe.domain.entity.TaskEntity;
+import org.example.taskbe.repository.TaskRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Measures create throughput through the write-ahead log for each fsync policy and writer count.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class WriteAheadLogBenchmark {
+    private static final Duration RUN_TIME = Duration.ofSeconds(3);
+
+    @TempDir
+    Path directory;
+
+    @ParameterizedTest(name = "{0} with {1} writers")
+    @CsvSource({
+            "ALWAYS, 1", "ALWAYS, 16",
+            "BATCHED, 1", "BATCHED, 16", "BATCHED, 64",
+            "PERIODIC, 1", "PERIODIC, 16", "PERIODIC, 64"
+    })
+    void measureWriteThroughput(FsyncPolicy policy, int writers) throws Exception {
+        TaskRepository taskRepository = new TaskRepository();
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try (WriteAheadLog writeAheadLog = WriteAheadLog.open(directory.resolve(policy + "-" + writers), 1, policy, Duration.ofMillis(100), 64L * 1024 * 1024,
+                new WriteAheadLog.Replay() {
+                    @Override
+                    public void upsert(TaskEntity taskEntity) {
+                    }
+
+                    @Override
+                    public void delete(int id) {
+                    }
+                })) {
+            taskRepository.setJournal(writeAheadLog);
+            CountDownLatch start = new CountDownLatch(1);
+            long deadline = System.nanoTime() + RUN_TIME.toNanos();
+            List<Future<Long>> futures = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    long operations = 0;
+                    while (System.nanoTime() < deadline) {
+                        taskRepository.create(new TaskEntity(null, Topic.ENGLISH, "Benchmark task", "Write-ahead log benchmark",
+                                LocalDateTime.now(), false, LocalDateTime.now(), Priority.MINOR, 0));
+                        operations++;
+                    }
+                    return operations;
+                }));
+            }
+
+            long started = System.nanoTime();
+            start.countDown();
+            long operations = 0;
+            for (Future<Long> future : futures) {
+                operations += future.get();
+            }
+            double seconds = (System.nanoTime() - started) / 1e9;
+            System.out.printf("WAL %-8s writers=%3d  %,12.0f creates/s%n", policy, writers, operations / seconds);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
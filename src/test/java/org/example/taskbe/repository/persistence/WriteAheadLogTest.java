@@ -0,0 +1,177 @@
+package org.example.taskbe.repository.persistence;
+
+import org.example.taskbe.domain.Priority;
+import org.example.taskbe.domain.Topic;
+import org.example.taskbe.domain.entity.TaskEntity;
+import org.example.taskbe.repository.TaskRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteAheadLogTest {
+
+    @TempDir
+    Path directory;
+
+    private static TaskEntity createTaskEntity(String title) {
+        return new TaskEntity(
+                null,
+                Topic.FRENCH,
+                title,
+                "Описание ✓",
+                LocalDateTime.of(2024, 12, 31, 23, 59, 59, 123_456_789),
+                false,
+                LocalDateTime.now(),
+                Priority.MAJOR,
+                0
+        );
+    }
+
+    private WriteAheadLog open(TaskRepository taskRepository, FsyncPolicy policy) throws IOException {
+        WriteAheadLog writeAheadLog = WriteAheadLog.open(directory, 1, policy, Duration.ofMillis(10), 1024 * 1024, new WriteAheadLog.Replay() {
+            @Override
+            public void upsert(TaskEntity taskEntity) {
+                taskRepository.restore(taskEntity);
+            }
+
+            @Override
+            public void delete(int id) {
+                taskRepository.restoreDelete(id);
+            }
+        });
+        taskRepository.setJournal(writeAheadLog);
+        return writeAheadLog;
+    }
+
+    @ParameterizedTest
+    @EnumSource(FsyncPolicy.class)
+    void testRecoversRepositoryState(FsyncPolicy policy) throws Exception {
+        TaskRepository original = new TaskRepository();
+        try (WriteAheadLog ignored = open(original, policy)) {
+            TaskEntity first = original.create(createTaskEntity("First"));
+            TaskEntity second = original.create(createTaskEntity("Second"));
+            original.create(createTaskEntity("Third"));
+            second.setDone(true);
+            second.setTitle("Second, done");
+            original.update(second);
+            original.delete(first.getId());
+        }
+
+        TaskRepository recovered = new TaskRepository();
+        try (WriteAheadLog ignored = open(recovered, policy)) {
+            assertEquals(2, recovered.count(), "Deleted task should stay deleted");
+            TaskEntity second = recovered.findById(1).orElseThrow();
+            assertEquals("Second, done", second.getTitle(), "Latest edit should win");
+            assertTrue(second.isDone(), "Edited flag should be recovered");
+            assertEquals(LocalDateTime.of(2024, 12, 31, 23, 59, 59, 123_456_789), second.getDueAt(), "Timestamps should keep full precision");
+            assertEquals("Описание ✓", second.getDescription(), "Text should round-trip as UTF-8");
+            assertEquals(List.of(second), recovered.findByTitle("done"), "Indexes should be rebuilt during replay");
+
+            assertEquals(3, recovered.create(createTaskEntity("Fourth")).getId(), "IDs should continue after the highest recovered ID");
+        }
+
+        TaskRepository reopened = new TaskRepository();
+        try (WriteAheadLog ignored = open(reopened, policy)) {
+            assertEquals(3, reopened.count(), "Appends after recovery should also be replayed");
+        }
+    }
+
+    @Test
+    void testKeepsInstanceIdWithTheDirectory(@TempDir Path otherDirectory) throws Exception {
+        long instanceId;
+        try (WriteAheadLog writeAheadLog = open(new TaskRepository(), FsyncPolicy.BATCHED)) {
+            instanceId = writeAheadLog.getInstanceId();
+        }
+        try (WriteAheadLog writeAheadLog = open(new TaskRepository(), FsyncPolicy.BATCHED)) {
+            assertEquals(instanceId, writeAheadLog.getInstanceId(), "Reopening the same data should keep the instance ID");
+        }
+        Thread.sleep(2);
+        try (WriteAheadLog writeAheadLog = WriteAheadLog.open(otherDirectory, 1, FsyncPolicy.BATCHED, Duration.ofMillis(10), 1024 * 1024,
+                new WriteAheadLog.Replay() {
+                    @Override
+                    public void upsert(TaskEntity taskEntity) {
+                    }
+
+                    @Override
+                    public void delete(int id) {
+                    }
+                })) {
+            assertNotEquals(instanceId, writeAheadLog.getInstanceId(), "A new directory should get a new instance ID");
+        }
+    }
+
+    @Test
+    void testTruncatesTornTail() throws Exception {
+        TaskRepository original = new TaskRepository();
+        try (WriteAheadLog ignored = open(original, FsyncPolicy.ALWAYS)) {
+            original.create(createTaskEntity("First"));
+            original.create(createTaskEntity("Second"));
+        }
+
+        Path file;
+        try (Stream<Path> files = Files.list(directory)) {
+            file = files.filter(path -> path.toString().endsWith(".wal")).findFirst().orElseThrow();
+        }
+        long intactLength = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(intactLength - 5);
+        }
+
+        TaskRepository recovered = new TaskRepository();
+        try (WriteAheadLog ignored = open(recovered, FsyncPolicy.ALWAYS)) {
+            assertEquals(1, recovered.count(), "Only the intact record should be recovered");
+            assertEquals("First", recovered.findById(0).orElseThrow().getTitle());
+            recovered.create(createTaskEntity("Replacement"));
+        }
+
+        TaskRepository reopened = new TaskRepository();
+        try (WriteAheadLog ignored = open(reopened, FsyncPolicy.ALWAYS)) {
+            assertEquals(List.of("First", "Replacement"), reopened.findAll().stream().map(TaskEntity::getTitle).toList(),
+                    "Records appended after truncation should be readable");
+        }
+    }
+
+    @Test
+    void testGroupCommitUnderConcurrentWriters() throws Exception {
+        TaskRepository original = new TaskRepository();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (WriteAheadLog writeAheadLog = open(original, FsyncPolicy.BATCHED)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 200; i++) {
+                        original.create(createTaskEntity("Task " + i));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            assertEquals(1600, writeAheadLog.getWrittenLsn(), "Every create should be logged once");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        TaskRepository recovered = new TaskRepository();
+        try (WriteAheadLog ignored = open(recovered, FsyncPolicy.BATCHED)) {
+            assertEquals(1600, recovered.count(), "Every acknowledged create should be recovered");
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package org.example.taskbe.repository.store;
+
+import org.example.taskbe.domain.Priority;
+import org.example.taskbe.domain.Topic;
+import org.example.taskbe.domain.entity.TaskEntity;
+import org.example.taskbe.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarTaskStoreTest {
+
+    private ColumnarTaskStore taskStore;
+
+    @BeforeEach
+    void setUp() {
+        taskStore = new ColumnarTaskStore();
+    }
+
+    private static TaskEntity createTaskEntity(int id, String title) {
+        return new TaskEntity(id, Topic.FRENCH, title, "Description " + id,
+                LocalDateTime.of(2030, 5, 17, 8, 30, 15, 123_456_789), id % 2 == 0,
+                LocalDateTime.of(2024, 1, 1, 12, 0), Priority.MAJOR, 0);
+    }
+
+    private static void assertSameTask(TaskEntity expected, TaskEntity actual) {
+        assertNotNull(actual, "Task " + expected.getId() + " should be stored");
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getTopic(), actual.getTopic());
+        assertEquals(expected.getTitle(), actual.getTitle());
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.getDueAt(), actual.getDueAt());
+        assertEquals(expected.isDone(), actual.isDone());
+        assertEquals(expected.getCreatedAt(), actual.getCreatedAt());
+        assertEquals(expected.getPriority(), actual.getPriority());
+    }
+
+    @Test
+    void testRoundTrip() {
+        TaskEntity taskEntity = createTaskEntity(7, "Übersetzung – 日本語 ✓");
+
+        taskStore.compute(7, () -> taskEntity);
+
+        assertSameTask(taskEntity, taskStore.get(7));
+        assertNotSame(taskEntity, taskStore.get(7), "Reads should materialize a fresh entity");
+        assertEquals(1, taskStore.size());
+    }
+
+    @Test
+    void testRoundTrip_NullFields() {
+        TaskEntity taskEntity = new TaskEntity(3, null, null, null, null, true, null, null, 0);
+
+        taskStore.compute(3, () -> taskEntity);
+
+        assertSameTask(taskEntity, taskStore.get(3));
+    }
+
+    @Test
+    void testComputeIfPresent_Missing() {
+        assertNull(taskStore.computeIfPresent(5, version -> fail("Remapping should not run for a missing task")));
+        assertNull(taskStore.get(5));
+        assertNull(taskStore.get(1_000_000), "IDs beyond the allocated pages should be absent");
+        assertEquals(0, taskStore.size());
+    }
+
+    @Test
+    void testRemove() {
+        taskStore.compute(1, () -> createTaskEntity(1, "Keep"));
+        taskStore.compute(2, () -> createTaskEntity(2, "Remove"));
+
+        taskStore.computeIfPresent(2, version -> null);
+
+        assertNull(taskStore.get(2));
+        assertNotNull(taskStore.get(1), "Neighbouring rows should be unaffected");
+        assertEquals(1, taskStore.size());
+    }
+
+    @Test
+    void testComputeIfPresent_PassesStoredVersion() {
+        TaskEntity taskEntity = createTaskEntity(9, "Versioned");
+        taskEntity.setVersion(6);
+        taskStore.compute(9, () -> taskEntity);
+
+        long[] seen = new long[1];
+        taskStore.computeIfPresent(9, version -> {
+            seen[0] = version;
+            return taskEntity;
+        });
+
+        assertEquals(6, seen[0]);
+        assertEquals(6, taskStore.get(9).getVersion());
+    }
+
+    @Test
+    void testForEach_VisitsTasksInIdOrderAcrossPages() {
+        List<Integer> expected = new ArrayList<>();
+        for (int id = 0; id < 20_000; id += 7) {
+            int current = id;
+            taskStore.compute(id, () -> createTaskEntity(current, "Task " + current));
+            expected.add(id);
+        }
+
+        List<Integer> visited = new ArrayList<>();
+        taskStore.forEach(taskEntity -> visited.add(taskEntity.getId()));
+
+        assertEquals(expected, visited);
+    }
+
+    @Test
+    void testConcurrentWritesToNeighbouringRows() throws Exception {
+        int threads = 8;
+        int perThread = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        int id = i * threads + thread;
+                        taskStore.compute(id, () -> createTaskEntity(id, "Task " + id));
+                        if (i % 2 == 1) {
+                            taskStore.computeIfPresent(id, version -> null);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(threads * perThread / 2, taskStore.size());
+        for (int id = 0; id < threads * perThread; id++) {
+            boolean kept = (id / threads) % 2 == 0;
+            assertEquals(kept, taskStore.get(id) != null, "Unexpected state for task " + id);
+        }
+    }
+
+    @Test
+    void testRepositoryMatchesHeapStore() {
+        TaskRepository heap = new TaskRepository(new HeapTaskStore());
+        TaskRepository columnar = new TaskRepository(taskStore);
+        Random random = new Random(42);
+        for (int i = 0; i < 2_000; i++) {
+            int operation = random.nextInt(4);
+            if (operation == 0 && heap.count() > 0) {
+                int id = random.nextInt(i);
+                heap.delete(id);
+                columnar.delete(id);
+            } else if (operation == 1 && heap.count() > 0) {
+                int id = random.nextInt(i);
+                heap.update(createTaskEntity(id, "Edited " + random.nextInt(100)));
+                columnar.update(createTaskEntity(id, "Edited " + random.nextInt(100)));
+            } else {
+                TaskEntity taskEntity = createTaskEntity(0, "Task " + random.nextInt(100));
+                taskEntity.setId(null);
+                taskEntity.setTopic(Topic.values()[random.nextInt(Topic.values().length)]);
+                heap.create(taskEntity);
+                TaskEntity copy = createTaskEntity(0, taskEntity.getTitle());
+                copy.setId(null);
+                copy.setTopic(taskEntity.getTopic());
+                columnar.create(copy);
+            }
+        }
+
+        assertIdsEqual(heap.findAll(), columnar.findAll());
+        assertIdsEqual(heap.findByTitle("Task 4"), columnar.findByTitle("Task 4"));
+        assertIdsEqual(heap.findByFilter(Topic.GERMAN, null, true), columnar.findByFilter(Topic.GERMAN, null, true));
+    }
+
+    private static void assertIdsEqual(List<TaskEntity> expected, List<TaskEntity> actual) {
+        assertEquals(expected.stream().map(TaskEntity::getId).toList(), actual.stream().map(TaskEntity::getId).toList());
+    }
+}
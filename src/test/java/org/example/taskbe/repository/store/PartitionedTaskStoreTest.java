@@ -0,0 +1,126 @@
+package org.example.taskbe.repository.store;
+
+import org.example.taskbe.domain.Priority;
+import org.example.taskbe.domain.Topic;
+import org.example.taskbe.domain.entity.TaskEntity;
+import org.example.taskbe.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitionedTaskStoreTest {
+
+    private PartitionedTaskStore taskStore;
+
+    @BeforeEach
+    void setUp() {
+        taskStore = new PartitionedTaskStore(4);
+    }
+
+    private static TaskEntity createTaskEntity(int id, String title) {
+        return new TaskEntity(id, Topic.FRENCH, title, "Description " + id, LocalDateTime.of(2030, 5, 17, 8, 30),
+                id % 2 == 0, LocalDateTime.of(2024, 1, 1, 12, 0), Priority.MAJOR, 0);
+    }
+
+    @Test
+    void testOperationsReachEveryPartition() {
+        for (int id = 0; id < 10; id++) {
+            int current = id;
+            taskStore.compute(id, () -> createTaskEntity(current, "Task " + current));
+        }
+        taskStore.compute(6, () -> null);
+        taskStore.computeIfPresent(7, version -> createTaskEntity(7, "Edited"));
+
+        assertEquals(9, taskStore.size());
+        assertNull(taskStore.get(6));
+        assertEquals("Edited", taskStore.get(7).getTitle());
+        assertEquals(-1, taskStore.version(6));
+        List<TaskEntity> values = taskStore.values();
+        values.sort(Comparator.comparing(TaskEntity::getId));
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 7, 8, 9), values.stream().map(TaskEntity::getId).toList());
+    }
+
+    @Test
+    void testPartitionCountMustBePowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new PartitionedTaskStore(3));
+        assertEquals(Integer.bitCount(PartitionedTaskStore.defaultPartitions()), 1);
+    }
+
+    @Test
+    void testConcurrentCreatesFromManyThreads() throws Exception {
+        TaskRepository taskRepository = new TaskRepository(taskStore);
+        int threads = 8;
+        int perThread = 2_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        TaskEntity taskEntity = createTaskEntity(0, "Concurrent " + i);
+                        taskEntity.setId(null);
+                        taskEntity.setDone(i % 2 == 0);
+                        taskRepository.create(taskEntity);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(threads * perThread, taskRepository.count());
+        assertEquals(threads * perThread, taskRepository.findAll().size());
+        assertEquals(threads * perThread / 2, taskRepository.findByFilter(Topic.FRENCH, Priority.MAJOR, true).size());
+    }
+
+    @Test
+    void testRepositoryMatchesHeapStore() {
+        TaskRepository heap = new TaskRepository(new HeapTaskStore());
+        TaskRepository partitioned = new TaskRepository(taskStore);
+        Random random = new Random(42);
+        for (int i = 0; i < 2_000; i++) {
+            int operation = random.nextInt(4);
+            if (operation == 0 && heap.count() > 0) {
+                int id = random.nextInt(i);
+                heap.delete(id);
+                partitioned.delete(id);
+            } else if (operation == 1 && heap.count() > 0) {
+                int id = random.nextInt(i);
+                String title = "Edited " + random.nextInt(100);
+                heap.update(createTaskEntity(id, title));
+                partitioned.update(createTaskEntity(id, title));
+            } else {
+                Topic topic = Topic.values()[random.nextInt(Topic.values().length)];
+                String title = "Task " + random.nextInt(100);
+                for (TaskRepository taskRepository : List.of(heap, partitioned)) {
+                    TaskEntity taskEntity = createTaskEntity(0, title);
+                    taskEntity.setId(null);
+                    taskEntity.setTopic(topic);
+                    taskRepository.create(taskEntity);
+                }
+            }
+        }
+
+        assertIdsEqual(heap.findAll(), partitioned.findAll());
+        assertIdsEqual(heap.findByTitle("Task 4"), partitioned.findByTitle("Task 4"));
+        assertIdsEqual(heap.findByFilter(Topic.GERMAN, null, true), partitioned.findByFilter(Topic.GERMAN, null, true));
+        assertIdsEqual(heap.findByFilter(null, Priority.MAJOR, false), partitioned.findByFilter(null, Priority.MAJOR, false));
+    }
+
+    private static void assertIdsEqual(List<TaskEntity> expected, List<TaskEntity> actual) {
+        assertEquals(expected.stream().map(TaskEntity::getId).toList(), actual.stream().map(TaskEntity::getId).toList());
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.taskbe.repository.store;
+
+import org.example.taskbe.domain.Priority;
+import org.example.taskbe.domain.Topic;
+import org.example.taskbe.domain.entity.TaskEntity;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures retained heap per task with JOL. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class TaskStoreBenchmark {
+    private static final int TASKS = 200_000;
+
+    private static TaskEntity createTaskEntity(int id) {
+        LocalDateTime now = LocalDateTime.now();
+        return new TaskEntity(id, Topic.values()[id % Topic.values().length], "Task number " + id,
+                "Practice exercises " + id % 50 + " from the workbook", now.plusDays(id % 30), id % 3 == 0,
+                now, Priority.values()[id % Priority.values().length], 0);
+    }
+
+    @Test
+    void measureBytesPerTask() {
+        List<TaskEntity> list = new ArrayList<>();
+        HeapTaskStore heapStore = new HeapTaskStore();
+        ColumnarTaskStore columnarStore = new ColumnarTaskStore();
+        for (int id = 0; id < TASKS; id++) {
+            TaskEntity taskEntity = createTaskEntity(id);
+            list.add(taskEntity);
+            heapStore.compute(id, () -> taskEntity);
+            columnarStore.compute(id, () -> taskEntity);
+        }
+
+        long listBytes = GraphLayout.parseInstance(list).totalSize();
+        long heapBytes = GraphLayout.parseInstance(heapStore).totalSize();
+        long columnarBytes = GraphLayout.parseInstance(columnarStore).totalSize();
+        System.out.printf("ArrayList<TaskEntity>: %d bytes/task%n", listBytes / TASKS);
+        System.out.printf("HeapTaskStore:         %d bytes/task%n", heapBytes / TASKS);
+        System.out.printf("ColumnarTaskStore:     %d bytes/task%n", columnarBytes / TASKS);
+
+        assertTrue(columnarBytes < listBytes / 2, "Columnar storage should at least halve the heap per task");
+    }
+}
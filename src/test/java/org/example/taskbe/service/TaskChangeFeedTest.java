@@ -0,0 +1,104 @@
+package org.example.taskbe.service;
+
+import org.example.taskbe.domain.Priority;
+import org.example.taskbe.domain.Topic;
+import org.example.taskbe.domain.dto.TaskChangeEvent;
+import org.example.taskbe.domain.entity.TaskEntity;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskChangeFeedTest {
+
+    @Test
+    void testEventsAreNumberedInPublishOrder() {
+        TaskChangeFeed feed = new TaskChangeFeed(4);
+
+        feed.changed(createTaskEntity(7));
+        feed.deleted(7);
+        feed.durable();
+
+        assertEquals(2, feed.head());
+        assertEquals(TaskChangeEvent.Type.CREATED, feed.poll(1).getType());
+        assertEquals("Task 7", feed.poll(1).getTask().getTitle());
+        assertEquals(TaskChangeEvent.Type.DELETED, feed.poll(2).getType());
+        assertNull(feed.poll(2).getTask(), "Deletes should not carry a task");
+        assertNull(feed.poll(3), "Unpublished events should not be returned");
+    }
+
+    @Test
+    void testOverwrittenEventsReturnNewerEvent() {
+        TaskChangeFeed feed = new TaskChangeFeed(4);
+
+        for (int id = 0; id < 6; id++) {
+            feed.deleted(id);
+            feed.durable();
+        }
+
+        assertEquals(5, feed.poll(1).getSequence(), "A reader that fell behind should see a newer event");
+        assertEquals(3, feed.poll(3).getSequence());
+    }
+
+    @Test
+    void testLatePublishDoesNotReplaceNewerEvent() throws Exception {
+        TaskChangeFeed feed = new TaskChangeFeed(4);
+        ExecutorService delayedWriter = Executors.newSingleThreadExecutor();
+        try {
+            delayedWriter.submit(() -> feed.deleted(1)).get(5, TimeUnit.SECONDS);
+            for (int id = 2; id <= 5; id++) {
+                feed.deleted(id);
+                feed.durable();
+            }
+            delayedWriter.submit(feed::durable).get(5, TimeUnit.SECONDS);
+        } finally {
+            delayedWriter.shutdown();
+        }
+
+        assertEquals(5, feed.poll(5).getId(), "The newer event in the shared slot should survive the late publish");
+        assertEquals(5, feed.poll(1).getSequence(), "The overwritten event should resolve to the newer one");
+    }
+
+    @Test
+    void testAwaitWakesUpOnPublish() throws Exception {
+        TaskChangeFeed feed = new TaskChangeFeed(4);
+        CompletableFuture<TaskChangeEvent> awaited = CompletableFuture.supplyAsync(() -> feed.await(1, Duration.ofSeconds(30)));
+
+        Thread.sleep(50);
+        feed.deleted(3);
+        feed.durable();
+
+        assertEquals(3, awaited.get(5, TimeUnit.SECONDS).getId());
+        assertNull(feed.await(2, Duration.ofMillis(10)), "Waiting should end after the timeout");
+    }
+
+    @Test
+    void testClaimedEventsAreHiddenUntilDurable() throws Exception {
+        TaskChangeFeed feed = new TaskChangeFeed(4);
+        CompletableFuture<Void> claimed = CompletableFuture.runAsync(() -> feed.changed(createTaskEntity(7)));
+        claimed.get(5, TimeUnit.SECONDS);
+
+        feed.deleted(7);
+        feed.durable();
+
+        assertEquals(2, feed.head());
+        assertNull(feed.poll(1), "A change that is not durable yet should not be returned");
+        assertEquals(TaskChangeEvent.Type.DELETED, feed.poll(2).getType(),
+                "The later change should keep its number behind the earlier one");
+    }
+
+    @Test
+    void testBufferSizeMustBePowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new TaskChangeFeed(1000));
+    }
+
+    private static TaskEntity createTaskEntity(int id) {
+        return new TaskEntity(id, Topic.ENGLISH, "Task " + id, null, null, false, LocalDateTime.now(), Priority.MINOR, 1);
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.taskbe.service;
+
+import org.example.taskbe.domain.Priority;
+import org.example.taskbe.domain.Topic;
+import org.example.taskbe.domain.dto.TaskDto;
+import org.example.taskbe.domain.entity.TaskEntity;
+import org.example.taskbe.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskServiceConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int TASKS_PER_THREAD = 2_000;
+
+    private TaskService taskService;
+
+    @BeforeEach
+    void setUp() {
+        taskService = new TaskService();
+        taskService.taskRepository = new TaskRepository();
+    }
+
+    private TaskDto createTaskDto(String title) {
+        return new TaskDto(
+                null,
+                Topic.MATHEMATICS,
+                title,
+                "Stress test task",
+                LocalDateTime.now().plusDays(1),
+                false,
+                null,
+                Priority.MAJOR,
+                0
+        );
+    }
+
+    @Test
+    void testConcurrentCreateEditDelete() throws Exception {
+        Set<Integer> allocatedIds = ConcurrentHashMap.newKeySet();
+        Set<Integer> deletedIds = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < TASKS_PER_THREAD; i++) {
+                        TaskEntity created = taskService.saveTask(createTaskDto("Task " + thread + "-" + i));
+                        assertTrue(allocatedIds.add(created.getId()), "IDs must never be handed out twice");
+
+                        TaskEntity edited = taskService.editTask(createTaskDto("Edited " + thread + "-" + i), created.getId()).orElseThrow();
+                        assertEquals(created.getId(), edited.getId(), "Editing must keep the task ID");
+                        assertEquals("Edited " + thread + "-" + i,
+                                taskService.getById(created.getId()).orElseThrow().getTitle(),
+                                "Edited task should be visible to its writer");
+
+                        if (i % 2 == 0) {
+                            taskService.deleteTask(created.getId());
+                            deletedIds.add(created.getId());
+                        }
+                        if (i % 100 == 0) {
+                            taskService.getAllTasks();
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<TaskEntity> remaining = taskService.getAllTasks();
+        assertEquals(THREADS * TASKS_PER_THREAD, allocatedIds.size(), "Every create should allocate a distinct ID");
+        assertEquals(allocatedIds.size() - deletedIds.size(), remaining.size(), "Only undeleted tasks should remain");
+        assertTrue(remaining.stream().noneMatch(task -> deletedIds.contains(task.getId())), "Deleted tasks must not reappear");
+        assertTrue(remaining.stream().allMatch(task -> task.getTitle().startsWith("Edited")), "Every remaining task should carry its edit");
+    }
+}
@@ -1,10 +1,14 @@
 package org.example.taskbe.service;
 
+import jakarta.validation.Validation;
 import org.example.taskbe.domain.Priority;
 import org.example.taskbe.domain.Topic;
+import org.example.taskbe.domain.dto.TaskBatchOperation;
+import org.example.taskbe.domain.dto.TaskBatchResult;
 import org.example.taskbe.domain.dto.TaskDto;
 import org.example.taskbe.domain.entity.TaskEntity;
 import org.example.taskbe.repository.TaskRepository;
+import org.example.taskbe.repository.VersionConflictException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -16,6 +20,9 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -34,6 +41,8 @@ class TaskServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        taskService.validator = Validation.buildDefaultValidatorFactory().getValidator();
+        when(taskRepository.batch(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
 
         sampleTaskEntity = new TaskEntity(
                 1,
@@ -43,7 +52,8 @@ class TaskServiceTest {
                 LocalDateTime.now().plusDays(1),
                 false,
                 LocalDateTime.now(),
-                Priority.CRITICAL
+                Priority.CRITICAL,
+                0
         );
 
         sampleTaskDto = new TaskDto(
@@ -54,7 +64,8 @@ class TaskServiceTest {
                 LocalDateTime.now().plusDays(1),
                 false,
                 null,
-                Priority.CRITICAL
+                Priority.CRITICAL,
+                0
         );
     }
 
@@ -111,6 +122,50 @@ class TaskServiceTest {
         verify(taskRepository, times(1)).findById(-1);
     }
 
+    @Test
+    void testGetByIdAsync_RunsOnVirtualThread() throws Exception {
+        when(taskRepository.findById(1)).thenAnswer(invocation -> {
+            assertTrue(Thread.currentThread().isVirtual(), "Async variants should run on a virtual thread");
+            return Optional.of(sampleTaskEntity);
+        });
+
+        Optional<TaskEntity> result = taskService.getByIdAsync(1).get();
+
+        assertEquals("Task 1", result.orElseThrow().getTitle(), "The task title should match");
+    }
+
+    @Test
+    void testAsyncFanOut() throws Exception {
+        when(taskRepository.findById(anyInt())).thenAnswer(invocation -> {
+            int id = invocation.getArgument(0);
+            return id == 3 ? Optional.empty() : Optional.of(sampleTaskEntity);
+        });
+        when(taskRepository.findOverdue(any(LocalDateTime.class))).thenReturn(List.of(sampleTaskEntity));
+
+        List<CompletableFuture<Optional<TaskEntity>>> lookups = List.of(1, 2, 3).stream().map(taskService::getByIdAsync).toList();
+        CompletableFuture<List<TaskEntity>> overdue = taskService.getOverdueTasksAsync();
+        CompletableFuture.allOf(overdue, CompletableFuture.allOf(lookups.toArray(CompletableFuture[]::new))).get();
+
+        assertEquals(List.of(true, true, false), lookups.stream().map(lookup -> lookup.join().isPresent()).toList());
+        assertEquals(1, overdue.join().size());
+    }
+
+    @Test
+    void testEditTaskAsync_PropagatesVersionConflict() {
+        when(taskRepository.update(any(TaskEntity.class), eq(4L))).thenReturn(Optional.empty());
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> taskService.editTaskAsync(sampleTaskDto, 1, 4L).get());
+        assertInstanceOf(VersionConflictException.class, exception.getCause());
+    }
+
+    @Test
+    void testDeleteTaskAsync_PropagatesFailure() {
+        doThrow(IllegalStateException.class).when(taskRepository).delete(5);
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> taskService.deleteTaskAsync(5).get());
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+    }
+
     @Test
     void testSaveTask() {
         when(taskRepository.create(any(TaskEntity.class))).thenReturn(sampleTaskEntity);
@@ -132,7 +187,8 @@ class TaskServiceTest {
                 LocalDateTime.now().plusDays(1),
                 false,
                 null,
-                Priority.CRITICAL
+                Priority.CRITICAL,
+                0
         );
 
         when(taskRepository.create(any(TaskEntity.class))).thenReturn(sampleTaskEntity);
@@ -167,6 +223,17 @@ class TaskServiceTest {
         verify(taskRepository, times(1)).findByTitle("Nonexistent");
     }
 
+    @Test
+    void testGetFilteredTasks() {
+        List<TaskEntity> tasks = Arrays.asList(sampleTaskEntity);
+        when(taskRepository.findByFilter(Topic.MATHEMATICS, Priority.CRITICAL, false)).thenReturn(tasks);
+
+        List<TaskEntity> result = taskService.getFilteredTasks(Topic.MATHEMATICS, Priority.CRITICAL, false);
+
+        assertEquals(1, result.size(), "getFilteredTasks should return the matching task");
+        verify(taskRepository, times(1)).findByFilter(Topic.MATHEMATICS, Priority.CRITICAL, false);
+    }
+
     @Test
     void testEditTask() {
         TaskDto updatedTaskDto = new TaskDto(
@@ -177,31 +244,115 @@ class TaskServiceTest {
                 LocalDateTime.now().plusDays(2),
                 true,
                 null,
-                Priority.MINOR
+                Priority.MINOR,
+                0
         );
 
-        when(taskRepository.create(any(TaskEntity.class))).thenReturn(TaskEntity.toEntity(updatedTaskDto));
+        when(taskRepository.update(any(TaskEntity.class), eq(TaskRepository.ANY_VERSION))).thenReturn(Optional.of(TaskEntity.toEntity(updatedTaskDto)));
 
-        TaskEntity result = taskService.editTask(updatedTaskDto, 1);
+        Optional<TaskEntity> result = taskService.editTask(updatedTaskDto, 1);
 
-        assertNotNull(result, "editTask should not return null");
-        assertEquals("Updated Task", result.getTitle(), "The updated task title should match");
-        verify(taskRepository, times(1)).create(any(TaskEntity.class));
+        assertTrue(result.isPresent(), "editTask should return the edited task");
+        assertEquals("Updated Task", result.get().getTitle(), "The updated task title should match");
+        verify(taskRepository, never()).create(any(TaskEntity.class));
+    }
+
+    @Test
+    void testEditTask_NotFound() {
+        when(taskRepository.update(any(TaskEntity.class), eq(TaskRepository.ANY_VERSION))).thenReturn(Optional.empty());
+
+        assertTrue(taskService.editTask(sampleTaskDto, 999).isEmpty(), "Editing a missing task should not create one");
+        verify(taskRepository, never()).create(any(TaskEntity.class));
+    }
+
+    @Test
+    void testEditTask_IfMatchOnMissingTask() {
+        when(taskRepository.update(any(TaskEntity.class), eq(3L))).thenReturn(Optional.empty());
+
+        assertThrows(VersionConflictException.class, () -> taskService.editTask(sampleTaskDto, 1, 3L),
+                "A conditional edit of a missing task should fail");
+        verify(taskRepository, never()).create(any(TaskEntity.class));
+    }
+
+    @Test
+    void testDeleteTask_IfMatch() {
+        when(taskRepository.delete(1, 2L)).thenReturn(true);
+        when(taskRepository.delete(2, 2L)).thenReturn(false);
+
+        assertTrue(taskService.deleteTask(1, 2L));
+        assertThrows(VersionConflictException.class, () -> taskService.deleteTask(2, 2L),
+                "A conditional delete of a missing task should fail");
     }
 
     @Test
     void testDeleteTask() {
-        doNothing().when(taskRepository).delete(1);
+        when(taskRepository.delete(1)).thenReturn(true);
 
-        assertDoesNotThrow(() -> taskService.deleteTask(1), "deleteTask should not throw an exception");
+        assertTrue(taskService.deleteTask(1), "deleteTask should report the deleted task");
         verify(taskRepository, times(1)).delete(1);
     }
 
     @Test
     void testDeleteTask_NonExisting() {
-        doNothing().when(taskRepository).delete(999);
+        when(taskRepository.delete(999)).thenReturn(false);
+
+        assertFalse(taskService.deleteTask(999), "deleteTask should report that there was no task to delete");
+        assertFalse(taskService.deleteTask(999, null), "An unconditional delete of a missing task should not fail");
+        verify(taskRepository, times(2)).delete(999);
+    }
+
+    @Test
+    void testApplyBatch() {
+        when(taskRepository.create(any(TaskEntity.class))).thenReturn(sampleTaskEntity);
+        when(taskRepository.update(argThat(task -> task != null && task.getId() == 1), eq(TaskRepository.ANY_VERSION))).thenReturn(Optional.of(sampleTaskEntity));
+        when(taskRepository.update(argThat(task -> task != null && task.getId() == 999), eq(TaskRepository.ANY_VERSION))).thenReturn(Optional.empty());
+
+        List<TaskBatchResult> results = taskService.applyBatch(List.of(
+                new TaskBatchOperation(TaskBatchOperation.Type.CREATE, null, sampleTaskDto, null),
+                new TaskBatchOperation(TaskBatchOperation.Type.EDIT, 1, sampleTaskDto, null),
+                new TaskBatchOperation(TaskBatchOperation.Type.EDIT, 999, sampleTaskDto, null),
+                new TaskBatchOperation(TaskBatchOperation.Type.DELETE, 2, null, null)
+        ));
+
+        assertEquals(List.of(201, 200, 404, 204), results.stream().map(TaskBatchResult::getStatus).toList(), "Each operation should report its own status");
+        assertEquals("Task 1", results.get(0).getTask().getTitle(), "Created task should be returned");
+        assertNull(results.get(3).getTask(), "Deletes should not return a task");
+        verify(taskRepository, times(1)).create(any(TaskEntity.class));
+        verify(taskRepository, times(2)).update(any(TaskEntity.class), eq(TaskRepository.ANY_VERSION));
+        verify(taskRepository, times(1)).delete(2, TaskRepository.ANY_VERSION);
+        verify(taskRepository, times(1)).batch(any());
+    }
 
-        assertDoesNotThrow(() -> taskService.deleteTask(999), "deleteTask should not throw an exception for non-existing ID");
-        verify(taskRepository, times(1)).delete(999);
+    @Test
+    void testApplyBatch_VersionConflicts() {
+        when(taskRepository.update(any(TaskEntity.class), eq(3L))).thenThrow(new VersionConflictException("Task 1 is at version 4, not 3"));
+        when(taskRepository.delete(2, 5L)).thenReturn(false);
+
+        List<TaskBatchResult> results = taskService.applyBatch(List.of(
+                new TaskBatchOperation(TaskBatchOperation.Type.EDIT, 1, sampleTaskDto, 3L),
+                new TaskBatchOperation(TaskBatchOperation.Type.DELETE, 2, null, 5L)
+        ));
+
+        assertEquals(List.of(412, 412), results.stream().map(TaskBatchResult::getStatus).toList(), "Stale versions should be rejected per operation");
+        assertEquals("Task 1 is at version 4, not 3", results.get(0).getError());
+    }
+
+    @Test
+    void testApplyBatch_InvalidOperationsAreSkipped() {
+        TaskDto invalidTaskDto = new TaskDto(null, null, "", null, null, false, null, Priority.MINOR, 0);
+        when(taskRepository.create(any(TaskEntity.class))).thenReturn(sampleTaskEntity);
+
+        List<TaskBatchResult> results = taskService.applyBatch(List.of(
+                new TaskBatchOperation(TaskBatchOperation.Type.CREATE, null, invalidTaskDto, null),
+                new TaskBatchOperation(TaskBatchOperation.Type.DELETE, null, null, null),
+                new TaskBatchOperation(null, 1, sampleTaskDto, null),
+                new TaskBatchOperation(TaskBatchOperation.Type.CREATE, null, sampleTaskDto, null)
+        ));
+
+        assertEquals(List.of(400, 400, 400, 201), results.stream().map(TaskBatchResult::getStatus).toList(), "Only the valid operation should be applied");
+        assertEquals("task.title: must not be blank, task.topic: must not be null", results.get(0).getError(), "Every violation should be reported");
+        assertEquals("id: must not be null", results.get(1).getError(), "Deletes need an ID");
+        verify(taskRepository, times(1)).create(any(TaskEntity.class));
+        verify(taskRepository, never()).delete(anyInt(), anyLong());
     }
 }